@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.StringWriter;
+import java.util.Random;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Documents used by the benchmarks. Their shapes follow the usual corpora:
+ * "twitter" is like twitter.json (a search result with statuses, users and
+ * entities, a lot of non-ASCII text), "citm" is like citm_catalog.json
+ * (maps keyed by numeric ids, many integers and nulls), "small" is a tiny
+ * object and "nested" is a deep structure of arrays and objects. The
+ * content is random, but always the same for a given seed.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class Corpus {
+
+    /**
+     * Words used for the texts.
+     */
+    private static final String[] WORDS = {
+        "json", "stream", "parser", "\u65e5\u672c\u8a9e", "\u30c6\u30b9\u30c8",
+        "caf\u00e9", "na\u00efve", "\"quoted\"", "back\\slash", "line\nbreak",
+        "http://example.com/path", "emoji\ud83d\ude00", "generator", "eo",
+    };
+
+    /**
+     * Depth of the nested document.
+     */
+    private static final int DEPTH = 500;
+
+    /**
+     * Number of statuses, events and performances.
+     */
+    private final int count;
+
+    /**
+     * Random ids.
+     */
+    private final long[] ids;
+
+    /**
+     * The ids, as text.
+     */
+    private final String[] keys;
+
+    /**
+     * Random counters.
+     */
+    private final int[] counters;
+
+    /**
+     * The counters, as text, used as area ids and screen names.
+     */
+    private final String[] areas;
+
+    /**
+     * Random texts.
+     */
+    private final String[] texts;
+
+    /**
+     * Random names.
+     */
+    private final String[] names;
+
+    /**
+     * Ctor.
+     * @param count Number of statuses, events and performances.
+     */
+    Corpus(final int count) {
+        this.count = count;
+        final Random random = new Random(count);
+        this.ids = new long[count];
+        this.keys = new String[count];
+        this.counters = new int[count];
+        this.areas = new String[count];
+        this.texts = new String[count];
+        this.names = new String[count];
+        for (int idx = 0; idx < count; ++idx) {
+            this.ids[idx] = 100_000_000_000_000_000L + random.nextInt();
+            this.keys[idx] = Long.toString(this.ids[idx]);
+            this.counters[idx] = random.nextInt(100_000);
+            this.areas[idx] = Integer.toString(this.counters[idx]);
+            this.texts[idx] = Corpus.sentence(random, 10 + random.nextInt(20));
+            this.names[idx] = Corpus.sentence(random, 1 + random.nextInt(2));
+        }
+    }
+
+    /**
+     * Write the document of the given shape.
+     * @param shape One of small, twitter, citm or nested.
+     * @param gen Generator to use.
+     */
+    void write(final String shape, final JsonGenerator gen) {
+        if ("small".equals(shape)) {
+            Corpus.small(gen);
+        } else if ("twitter".equals(shape)) {
+            this.twitter(gen);
+        } else if ("citm".equals(shape)) {
+            this.citm(gen);
+        } else if ("nested".equals(shape)) {
+            Corpus.nested(gen);
+        } else {
+            throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+    }
+
+    /**
+     * The document of the given shape, as text.
+     * @param shape One of small, twitter, citm or nested.
+     * @return JSON text.
+     */
+    String text(final String shape) {
+        final StringWriter written = new StringWriter();
+        final JsonGenerator gen = new RtJsonGenerator(written);
+        this.write(shape, gen);
+        gen.close();
+        return written.toString();
+    }
+
+    /**
+     * Write a twitter-like search result.
+     * @param gen Generator to use.
+     */
+    private void twitter(final JsonGenerator gen) {
+        gen.writeStartObject().writeStartArray("statuses");
+        for (int idx = 0; idx < this.count; ++idx) {
+            gen.writeStartObject()
+                .write("created_at", "Sun Aug 31 00:29:15 +0000 2014")
+                .write("id", this.ids[idx])
+                .write("id_str", this.keys[idx])
+                .write("text", this.texts[idx])
+                .write("truncated", false)
+                .writeStartObject("user")
+                .write("id", this.counters[idx])
+                .write("name", this.names[idx])
+                .write("screen_name", this.areas[idx])
+                .write("followers_count", this.counters[idx] * 7)
+                .write("verified", idx % 3 == 0)
+                .write("profile_image_url", "http://example.com/img.png")
+                .writeEnd()
+                .writeStartObject("entities")
+                .writeStartArray("hashtags").write(this.names[idx]).writeEnd()
+                .writeStartArray("indices")
+                .write(idx % 140).write(idx % 140 + 10).writeEnd()
+                .writeEnd()
+                .writeNull("coordinates")
+                .write("retweet_count", this.counters[idx] % 1000)
+                .write("favorited", idx % 2 == 0)
+                .write("lang", "ja")
+                .writeEnd();
+        }
+        gen.writeEnd()
+            .writeStartObject("search_metadata")
+            .write("completed_in", 0.087)
+            .write("max_id", this.ids[0])
+            .write("query", "%E4%B8%80")
+            .write("count", this.count)
+            .writeEnd()
+            .writeEnd();
+    }
+
+    /**
+     * Write a citm_catalog-like document.
+     * @param gen Generator to use.
+     */
+    private void citm(final JsonGenerator gen) {
+        gen.writeStartObject().writeStartObject("areaNames");
+        for (int idx = 0; idx < this.count; ++idx) {
+            gen.write(this.areas[idx], this.names[idx]);
+        }
+        gen.writeEnd().writeStartObject("events");
+        for (int idx = 0; idx < this.count; ++idx) {
+            gen.writeStartObject(this.keys[idx])
+                .writeNull("description")
+                .write("id", this.ids[idx])
+                .write("logo", "/images/UE0AAAAACEKo6QAAAAZDSVRN")
+                .write("name", this.texts[idx])
+                .writeStartArray("subTopicIds")
+                .write(337_184_269).write(337_184_283).writeEnd()
+                .writeNull("subjectCode")
+                .writeNull("subtitle")
+                .writeStartArray("topicIds")
+                .write(324_846_099).write(this.counters[idx]).writeEnd()
+                .writeEnd();
+        }
+        gen.writeEnd().writeStartArray("performances");
+        for (int idx = 0; idx < this.count; ++idx) {
+            gen.writeStartObject()
+                .write("eventId", this.ids[idx])
+                .write("id", this.counters[idx])
+                .writeStartArray("prices");
+            for (int price = 0; price < 3; ++price) {
+                gen.writeStartObject()
+                    .write("amount", 90_250 + price * 1000)
+                    .write("audienceSubCategoryId", 337_100_890)
+                    .write("seatCategoryId", 338_937_295 + price)
+                    .writeEnd();
+            }
+            gen.writeEnd()
+                .write("start", 1_372_701_600_000L + idx)
+                .write("venueCode", "PLEYEL_PLEYEL")
+                .writeEnd();
+        }
+        gen.writeEnd().writeEnd();
+    }
+
+    /**
+     * Write a small object.
+     * @param gen Generator to use.
+     */
+    private static void small(final JsonGenerator gen) {
+        gen.writeStartObject()
+            .write("id", 1)
+            .write("name", "small")
+            .write("active", true)
+            .write("score", 1.5)
+            .writeStartArray("tags").write("a").write("b").writeEnd()
+            .writeEnd();
+    }
+
+    /**
+     * Write a deep structure of arrays and objects.
+     * @param gen Generator to use.
+     */
+    private static void nested(final JsonGenerator gen) {
+        gen.writeStartArray();
+        for (int idx = 0; idx < Corpus.DEPTH; ++idx) {
+            gen.write(idx).writeStartObject().writeKey("level");
+            gen.writeStartArray();
+        }
+        for (int idx = 0; idx < Corpus.DEPTH; ++idx) {
+            gen.writeEnd().writeEnd();
+        }
+        gen.writeEnd();
+    }
+
+    /**
+     * A random sentence.
+     * @param random Randomness.
+     * @param words Number of words.
+     * @return Sentence.
+     */
+    private static String sentence(final Random random, final int words) {
+        final StringBuilder text = new StringBuilder();
+        for (int idx = 0; idx < words; ++idx) {
+            if (idx > 0) {
+                text.append(' ');
+            }
+            text.append(Corpus.WORDS[random.nextInt(Corpus.WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
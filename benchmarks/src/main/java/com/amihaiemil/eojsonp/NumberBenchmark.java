@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import javax.json.JsonNumber;
+import javax.json.stream.JsonGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construction and formatting of the JsonNumbers, and the writing of
+ * numbers by the generator.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NumberBenchmark {
+
+    /**
+     * Numbers, as text.
+     */
+    private String[] texts;
+
+    /**
+     * Integers.
+     */
+    private long[] longs;
+
+    /**
+     * Doubles.
+     */
+    private double[] doubles;
+
+    /**
+     * Number of the next operation, to go through the values.
+     */
+    private int next;
+
+    /**
+     * Generator writing to a Writer which discards everything, inside an
+     * array which is never closed.
+     */
+    private JsonGenerator array;
+
+    /**
+     * Prepare the numbers.
+     */
+    @Setup
+    public void setup() {
+        this.texts = new String[] {
+            "0", "42", "-17", "1234567890123", "3.14159", "-0.000123",
+            "6.02214076e23", "98765432109876543210.5",
+        };
+        this.longs = new long[] {
+            0L, 42L, -17L, 1_234_567_890_123L, Long.MAX_VALUE, -99_999L,
+            1_372_701_600_000L, 7L,
+        };
+        this.doubles = new double[] {
+            0.1, 3.14159, -0.000_123, 6.022_140_76e23, 1.0, 0.087,
+            -273.15, 1e-300,
+        };
+        this.array = new RtJsonGenerator(Discard.writer()).writeStartArray();
+    }
+
+    /**
+     * Construct an RtJsonNumber from text.
+     * @return JsonNumber.
+     */
+    @Benchmark
+    public JsonNumber fromText() {
+        return new RtJsonNumber(this.texts[this.index()]);
+    }
+
+    /**
+     * Construct an RtJsonNumber from a BigDecimal and format it.
+     * @return Text.
+     */
+    @Benchmark
+    public String bigDecimalToString() {
+        return new RtJsonNumber(
+            BigDecimal.valueOf(this.longs[this.index()])
+        ).toString();
+    }
+
+    /**
+     * Construct a LongJsonNumber and format it.
+     * @return Text.
+     */
+    @Benchmark
+    public String longToString() {
+        return new LongJsonNumber(this.longs[this.index()]).toString();
+    }
+
+    /**
+     * Construct a DoubleJsonNumber and format it.
+     * @return Text.
+     */
+    @Benchmark
+    public String doubleToString() {
+        return new DoubleJsonNumber(this.doubles[this.index()]).toString();
+    }
+
+    /**
+     * Write a long with the generator.
+     * @return Generator.
+     */
+    @Benchmark
+    public JsonGenerator writeLong() {
+        return this.array.write(this.longs[this.index()]);
+    }
+
+    /**
+     * Write a double with the generator.
+     * @return Generator.
+     */
+    @Benchmark
+    public JsonGenerator writeDouble() {
+        return this.array.write(this.doubles[this.index()]);
+    }
+
+    /**
+     * Index of the value for the next operation.
+     * @return Index from 0 to 7.
+     */
+    private int index() {
+        this.next = this.next + 1;
+        return this.next & 7;
+    }
+}
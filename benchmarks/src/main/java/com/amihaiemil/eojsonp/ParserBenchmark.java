@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.json.stream.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of RtJsonParser, reading the documents of the {@link Corpus}
+ * from a Reader and from UTF-8 bytes. Every value is read, the way a
+ * binding layer would.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParserBenchmark {
+
+    /**
+     * Shape of the document.
+     */
+    @Param({"small", "twitter", "citm", "nested"})
+    private String shape;
+
+    /**
+     * The document, as text.
+     */
+    private String text;
+
+    /**
+     * The document, as UTF-8 bytes.
+     */
+    private byte[] bytes;
+
+    /**
+     * Prepare the document.
+     */
+    @Setup
+    public void setup() {
+        this.text = new Corpus(100).text(this.shape);
+        this.bytes = this.text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse the document from a Reader.
+     * @param hole Consumes the values.
+     */
+    @Benchmark
+    public void reader(final Blackhole hole) {
+        ParserBenchmark.consume(
+            new RtJsonParser(new StringReader(this.text)), hole
+        );
+    }
+
+    /**
+     * Parse the document from an InputStream.
+     * @param hole Consumes the values.
+     */
+    @Benchmark
+    public void stream(final Blackhole hole) {
+        ParserBenchmark.consume(
+            new RtJsonParser(new ByteArrayInputStream(this.bytes)), hole
+        );
+    }
+
+    /**
+     * Read all the events and values.
+     * @param parser Parser.
+     * @param hole Consumes the values.
+     */
+    private static void consume(final JsonParser parser, final Blackhole hole) {
+        while (parser.hasNext()) {
+            final JsonParser.Event event = parser.next();
+            hole.consume(event);
+            if (event == JsonParser.Event.KEY_NAME
+                || event == JsonParser.Event.VALUE_STRING) {
+                hole.consume(parser.getString());
+            } else if (event == JsonParser.Event.VALUE_NUMBER) {
+                if (parser.isIntegralNumber()) {
+                    hole.consume(parser.getLong());
+                } else {
+                    hole.consume(parser.getBigDecimal());
+                }
+            }
+        }
+        parser.close();
+    }
+}
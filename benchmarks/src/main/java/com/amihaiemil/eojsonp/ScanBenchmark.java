@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.json.stream.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Scanning of text-heavy documents (an array of log lines) for the end
+ * of their Strings: {@link SwarScan} on a heap buffer, which it scans
+ * straight from the array, and on a direct buffer, which it reads 8 bytes
+ * at a time, against the lookup table the lexer used to check byte by byte
+ * through the ByteBuffer. The whole parse, which also copies the plain
+ * Strings without decoding them, is measured too.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScanBenchmark {
+
+    /**
+     * Number of log lines.
+     */
+    private static final int LINES = 1000;
+
+    /**
+     * Characters of the log lines.
+     */
+    private static final String ALPHABET =
+        "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ 0123456789:.,";
+
+    /**
+     * Quote, backslash and control characters, indexed by unsigned byte.
+     */
+    private static final boolean[] SPECIAL = new boolean[256];
+
+    static {
+        for (int chr = 0; chr < ' '; ++chr) {
+            SPECIAL[chr] = true;
+        }
+        SPECIAL['"'] = true;
+        SPECIAL['\\'] = true;
+    }
+
+    /**
+     * Length of the log lines, in bytes.
+     */
+    @Param({"8", "64", "512"})
+    private int length;
+
+    /**
+     * The document, as UTF-8 bytes.
+     */
+    private byte[] bytes;
+
+    /**
+     * The document, wrapped.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The document, copied into a direct buffer.
+     */
+    private ByteBuffer direct;
+
+    /**
+     * Index of the first byte of every log line.
+     */
+    private int[] starts;
+
+    /**
+     * Prepare the document.
+     */
+    @Setup
+    public void setup() {
+        final Random random = new Random(this.length);
+        final StringBuilder json = new StringBuilder("[");
+        this.starts = new int[ScanBenchmark.LINES];
+        for (int line = 0; line < ScanBenchmark.LINES; ++line) {
+            json.append('"');
+            this.starts[line] = json.length();
+            for (int idx = 0; idx < this.length; ++idx) {
+                json.append(
+                    ScanBenchmark.ALPHABET.charAt(
+                        random.nextInt(ScanBenchmark.ALPHABET.length())
+                    )
+                );
+            }
+            json.append("\",");
+        }
+        json.setCharAt(json.length() - 1, ']');
+        this.bytes = json.toString().getBytes(StandardCharsets.US_ASCII);
+        this.buffer = ByteBuffer.wrap(this.bytes);
+        this.direct = ByteBuffer.allocateDirect(this.bytes.length);
+        this.direct.put(this.bytes);
+        this.direct.flip();
+    }
+
+    /**
+     * Find the end of every line with SwarScan, in the heap buffer.
+     * @param hole Consumes the ends.
+     */
+    @Benchmark
+    public void swar(final Blackhole hole) {
+        final int until = this.bytes.length;
+        for (final int start : this.starts) {
+            hole.consume(SwarScan.special(this.buffer, start, until));
+        }
+    }
+
+    /**
+     * Find the end of every line with SwarScan, in the direct buffer.
+     * @param hole Consumes the ends.
+     */
+    @Benchmark
+    public void direct(final Blackhole hole) {
+        final int until = this.bytes.length;
+        for (final int start : this.starts) {
+            hole.consume(SwarScan.special(this.direct, start, until));
+        }
+    }
+
+    /**
+     * Find the end of every line byte by byte, the baseline.
+     * @param hole Consumes the ends.
+     */
+    @Benchmark
+    public void scalar(final Blackhole hole) {
+        final ByteBuffer buf = this.buffer;
+        final int until = this.bytes.length;
+        for (final int start : this.starts) {
+            int idx = start;
+            while (idx < until && !SPECIAL[buf.get(idx) & 0xFF]) {
+                ++idx;
+            }
+            hole.consume(idx);
+        }
+    }
+
+    /**
+     * Parse the document and read every line.
+     * @param hole Consumes the lines.
+     */
+    @Benchmark
+    public void parse(final Blackhole hole) {
+        final JsonParser parser = new RtJsonParser(
+            new ByteArrayInputStream(this.bytes)
+        );
+        while (parser.hasNext()) {
+            if (parser.next() == JsonParser.Event.VALUE_STRING) {
+                hole.consume(parser.getString());
+            }
+        }
+        parser.close();
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Escaping of strings, into chars and into UTF-8 bytes.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StringBenchmark {
+
+    /**
+     * Kind of text: a short key, a long ASCII text with nothing to escape,
+     * a long text with a lot to escape or a long non-ASCII text.
+     */
+    @Param({"key", "plain", "escaped", "unicode"})
+    private String kind;
+
+    /**
+     * The text.
+     */
+    private String text;
+
+    /**
+     * The escaper.
+     */
+    private JsonEscape escape;
+
+    /**
+     * Chars output, discarding everything.
+     */
+    private JsonOutput chars;
+
+    /**
+     * UTF-8 output, discarding everything.
+     */
+    private JsonOutput bytes;
+
+    /**
+     * Prepare the text and the outputs.
+     */
+    @Setup
+    public void setup() {
+        final String part;
+        if ("key".equals(this.kind)) {
+            part = "screen_name";
+        } else if ("plain".equals(this.kind)) {
+            part = "The quick brown fox jumps over the lazy dog. ";
+        } else if ("escaped".equals(this.kind)) {
+            part = "Say \"hi\"\n\tC:\\path\\to\\file\r\n";
+        } else {
+            part = "\u65e5\u672c\u8a9e\u306e\u30c6\u30ad\u30b9\u30c8 caf\u00e9 ";
+        }
+        final StringBuilder built = new StringBuilder(part);
+        while (!"key".equals(this.kind) && built.length() < 1024) {
+            built.append(part);
+        }
+        this.text = built.toString();
+        this.escape = new JsonEscape();
+        this.chars = new WriterOutput(Discard.writer(), 8192);
+        this.bytes = new Utf8Output(Discard.stream(), 8192);
+    }
+
+    /**
+     * Escape the text into chars.
+     */
+    @Benchmark
+    public void chars() {
+        this.escape.write(this.text, this.chars);
+    }
+
+    /**
+     * Escape the text into UTF-8 bytes.
+     */
+    @Benchmark
+    public void bytes() {
+        this.escape.write(this.text, this.bytes);
+    }
+
+    /**
+     * Print an RtJsonString.
+     * @return Text.
+     */
+    @Benchmark
+    public String jsonString() {
+        return new RtJsonString(this.text).toString();
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.AbstractList;
+import java.util.List;
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Base for the JsonArray implementations. They are immutable Lists, which
+ * only need to say how many values they have and what is at each index;
+ * the typed getters are built on that.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+abstract class AbstractJsonArray
+    extends AbstractList<JsonValue> implements JsonArray {
+
+    @Override
+    public JsonObject getJsonObject(final int index) {
+        return (JsonObject) this.get(index);
+    }
+
+    @Override
+    public JsonArray getJsonArray(final int index) {
+        return (JsonArray) this.get(index);
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(final int index) {
+        return (JsonNumber) this.get(index);
+    }
+
+    @Override
+    public JsonString getJsonString(final int index) {
+        return (JsonString) this.get(index);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends JsonValue> List<T> getValuesAs(final Class<T> clazz) {
+        return (List<T>) this;
+    }
+
+    @Override
+    public String getString(final int index) {
+        return this.getJsonString(index).getString();
+    }
+
+    @Override
+    public String getString(final int index, final String fallback) {
+        final JsonValue value = this.optional(index);
+        final String result;
+        if (value instanceof JsonString) {
+            result = ((JsonString) value).getString();
+        } else {
+            result = fallback;
+        }
+        return result;
+    }
+
+    @Override
+    public int getInt(final int index) {
+        return this.getJsonNumber(index).intValue();
+    }
+
+    @Override
+    public int getInt(final int index, final int fallback) {
+        final JsonValue value = this.optional(index);
+        final int result;
+        if (value instanceof JsonNumber) {
+            result = ((JsonNumber) value).intValue();
+        } else {
+            result = fallback;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean getBoolean(final int index) {
+        final JsonValue value = this.get(index);
+        final boolean result;
+        if (JsonValue.TRUE.equals(value)) {
+            result = true;
+        } else if (JsonValue.FALSE.equals(value)) {
+            result = false;
+        } else {
+            throw new ClassCastException(
+                "The value at index " + index + " is not a boolean: " + value
+            );
+        }
+        return result;
+    }
+
+    @Override
+    public boolean getBoolean(final int index, final boolean fallback) {
+        final JsonValue value = this.optional(index);
+        final boolean result;
+        if (JsonValue.TRUE.equals(value)) {
+            result = true;
+        } else if (JsonValue.FALSE.equals(value)) {
+            result = false;
+        } else {
+            result = fallback;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isNull(final int index) {
+        return JsonValue.NULL.equals(this.get(index));
+    }
+
+    @Override
+    public final ValueType getValueType() {
+        return ValueType.ARRAY;
+    }
+
+    @Override
+    public abstract JsonValue get(final int index);
+
+    @Override
+    public abstract int size();
+
+    @Override
+    public String toString() {
+        final TextOutput text = new TextOutput();
+        final JsonGenerator gen = new RtJsonGenerator(text).writeStartArray();
+        for (int idx = 0; idx < this.size(); ++idx) {
+            gen.write(this.get(idx));
+        }
+        gen.writeEnd();
+        return text.toString();
+    }
+
+    /**
+     * The value at the given index, if there is one.
+     * @param index Index.
+     * @return JsonValue or null if the index is out of bounds.
+     */
+    protected final JsonValue optional(final int index) {
+        JsonValue value = null;
+        if (index >= 0 && index < this.size()) {
+            value = this.get(index);
+        }
+        return value;
+    }
+}
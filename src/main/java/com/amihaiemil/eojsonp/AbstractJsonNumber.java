@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import javax.json.JsonNumber;
+
+/**
+ * Base for the JsonNumber implementations. Each implementation keeps
+ * the value in the cheapest type that can hold it (int, long, double or
+ * BigDecimal), but they all compare as the JSON-P spec says: by their
+ * BigDecimal value, so an int and a long holding the same number are equal
+ * and have the same hashcode.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+abstract class AbstractJsonNumber implements JsonNumber {
+
+    @Override
+    public final ValueType getValueType() {
+        return ValueType.NUMBER;
+    }
+
+    @Override
+    public final int hashCode() {
+        return this.bigDecimalValue().hashCode();
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        final boolean equal;
+        if (this == obj) {
+            equal = true;
+        } else if (obj instanceof JsonNumber) {
+            equal = this.bigDecimalValue().equals(
+                ((JsonNumber) obj).bigDecimalValue()
+            );
+        } else {
+            equal = false;
+        }
+        return equal;
+    }
+
+    @Override
+    public abstract String toString();
+
+}
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.json.JsonException;
+
+/**
+ * JsonOutput encoding UTF-8 into direct segments for an
+ * AsynchronousSocketChannel. Full segments go into a write queue, which is
+ * drained one write at a time (the channel allows only one pending write)
+ * by the completion handler, so the generating thread never waits for the
+ * network. The producer checks {@link #congested()} to know when the
+ * channel does not keep up and registers a callback with
+ * {@link #whenUncongested(Runnable)}, instead of polling, to know when to
+ * continue.<br><br>
+ * A failed write is reported by the next call to the output. On close, the
+ * channel is closed once the queue is empty.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class AsyncChannelOutput implements JsonOutput {
+
+    /**
+     * The bytes go here.
+     */
+    private final AsynchronousSocketChannel channel;
+
+    /**
+     * Where the segments come from and go back to.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Segments not yet written, the first one maybe being written.
+     */
+    private final Queue<ByteBuffer> queue;
+
+    /**
+     * How many queued bytes mean that the channel does not keep up.
+     */
+    private final long limit;
+
+    /**
+     * How many bytes are queued.
+     */
+    private final AtomicLong pending;
+
+    /**
+     * Is a write in progress?
+     */
+    private final AtomicBoolean writing;
+
+    /**
+     * Callbacks waiting for the congestion to clear.
+     */
+    private final Queue<Runnable> waiting;
+
+    /**
+     * Why a write failed, null if none did.
+     */
+    private final AtomicReference<Throwable> failure;
+
+    /**
+     * Continues with the queue when a write completes.
+     */
+    private final CompletionHandler<Integer, ByteBuffer> handler;
+
+    /**
+     * Encodes the chars into the segments.
+     */
+    private final JsonOutput encoder;
+
+    /**
+     * Was close called?
+     */
+    private volatile boolean closing;
+
+    /**
+     * Ctor.
+     * @param channel Channel to write to.
+     * @param pool Pool of the buffers and segments.
+     * @param limit How many queued bytes mean congestion.
+     */
+    AsyncChannelOutput(
+        final AsynchronousSocketChannel channel, final BufferPool pool,
+        final long limit
+    ) {
+        this.channel = channel;
+        this.pool = pool;
+        this.limit = limit;
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.pending = new AtomicLong();
+        this.writing = new AtomicBoolean();
+        this.waiting = new ConcurrentLinkedQueue<>();
+        this.failure = new AtomicReference<>();
+        this.handler = new Written();
+        this.encoder = new Utf8Output(
+            new ChunkSink(this::enqueue, pool::direct), pool, pool.direct()
+        );
+    }
+
+    @Override
+    public void write(final char chr) {
+        this.encoder.write(chr);
+    }
+
+    @Override
+    public void write(final CharSequence text, final int start, final int end) {
+        this.encoder.write(text, start, end);
+    }
+
+    /**
+     * Queue everything for writing.
+     */
+    @Override
+    public void flush() {
+        this.encoder.flush();
+        this.check();
+    }
+
+    /**
+     * Queue everything for writing; the channel is closed once it is
+     * written.
+     */
+    @Override
+    public void close() {
+        this.closing = true;
+        this.encoder.close();
+        this.next();
+        this.check();
+    }
+
+    /**
+     * Are more bytes queued than the channel should be given, so the
+     * generating should wait?
+     * @return True or false.
+     */
+    boolean congested() {
+        return this.pending.get() > this.limit;
+    }
+
+    /**
+     * Run the given callback once the output is not congested anymore:
+     * right away, on the calling thread, if it is not congested now, or
+     * else on the thread which completes the write bringing the queue
+     * under the limit. The callback also runs if a write fails, so the
+     * next call to the output reports the failure.
+     * @param callback Callback, run only once.
+     */
+    void whenUncongested(final Runnable callback) {
+        this.waiting.add(callback);
+        if (!this.congested() || this.failure.get() != null) {
+            this.notifyWaiting();
+        }
+    }
+
+    /**
+     * How many bytes wait to be written.
+     * @return Number of bytes.
+     */
+    long pending() {
+        return this.pending.get();
+    }
+
+    /**
+     * Queue a full segment and start writing, unless a write is
+     * in progress.
+     * @param segment Segment, ready to be written.
+     */
+    private void enqueue(final ByteBuffer segment) {
+        this.check();
+        this.pending.addAndGet(segment.remaining());
+        this.queue.add(segment);
+        this.next();
+    }
+
+    /**
+     * Start writing the first queued segment, unless a write is in
+     * progress. If the queue is empty and the output closed, close the
+     * channel.
+     */
+    private void next() {
+        boolean again = true;
+        while (again && this.writing.compareAndSet(false, true)) {
+            final ByteBuffer head = this.queue.peek();
+            if (head == null) {
+                this.writing.set(false);
+                again = !this.queue.isEmpty();
+                if (!again && this.closing) {
+                    this.shut();
+                }
+            } else {
+                again = false;
+                this.channel.write(head, head, this.handler);
+            }
+        }
+    }
+
+    /**
+     * Throw the failure of a write, if there was one.
+     * @throws JsonException If a write failed.
+     */
+    private void check() {
+        final Throwable failed = this.failure.get();
+        if (failed != null) {
+            this.shut();
+            throw new JsonException(
+                "Could not write to the AsynchronousSocketChannel.", failed
+            );
+        }
+    }
+
+    /**
+     * Run the callbacks waiting for the congestion to clear, each of them
+     * only once.
+     */
+    private void notifyWaiting() {
+        Runnable callback = this.waiting.poll();
+        while (callback != null) {
+            callback.run();
+            callback = this.waiting.poll();
+        }
+    }
+
+    /**
+     * Close the channel.
+     */
+    private void shut() {
+        try {
+            this.channel.close();
+        } catch (final IOException ex) {
+            this.failure.compareAndSet(null, ex);
+        }
+    }
+
+    /**
+     * Continues with the queue after a write.
+     */
+    private final class Written
+        implements CompletionHandler<Integer, ByteBuffer> {
+
+        @Override
+        public void completed(final Integer count, final ByteBuffer segment) {
+            final AsyncChannelOutput out = AsyncChannelOutput.this;
+            if (out.pending.addAndGet(-count) <= out.limit) {
+                out.notifyWaiting();
+            }
+            if (segment.hasRemaining()) {
+                out.channel.write(segment, segment, this);
+            } else {
+                out.queue.poll();
+                out.pool.release(segment);
+                out.writing.set(false);
+                out.next();
+            }
+        }
+
+        @Override
+        public void failed(final Throwable exc, final ByteBuffer segment) {
+            AsyncChannelOutput.this.failure.compareAndSet(null, exc);
+            AsyncChannelOutput.this.notifyWaiting();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ByteInput over a ByteBuffer holding the whole UTF-8 JSON, heap or direct.
+ * The bytes from the buffer's position up to its limit are tokenized in
+ * place, without copying them; the position of the given buffer is not
+ * changed. A byte order mark is skipped.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class BufferInput implements ByteInput {
+
+    /**
+     * The JSON.
+     */
+    private final ByteBuffer source;
+
+    /**
+     * Was the source given to the lexer already?
+     */
+    private boolean given;
+
+    /**
+     * Ctor.
+     * @param source The JSON, from its position up to its limit.
+     */
+    BufferInput(final ByteBuffer source) {
+        this.source = source;
+    }
+
+    @Override
+    public ByteBuffer refill(final ByteBuffer buffer, final int keep) {
+        final ByteBuffer rest;
+        if (this.given) {
+            rest = buffer.duplicate();
+            rest.position(keep);
+        } else {
+            this.given = true;
+            rest = this.source.duplicate();
+            final int pos = rest.position();
+            if (rest.remaining() >= 3 && rest.get(pos) == (byte) 0xEF
+                && rest.get(pos + 1) == (byte) 0xBB
+                && rest.get(pos + 2) == (byte) 0xBF) {
+                rest.position(pos + 3);
+            }
+        }
+        return rest.slice();
+    }
+
+    @Override
+    public void close() {
+        this.given = true;
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Buffers of the lexers, recycled across parsers. A lexer takes its
+ * buffers when it is created and gives them back when it is closed. Only
+ * buffers of the pool's size are recycled, so the ones a lexer had to grow
+ * are left to the garbage collector. The {@link Symbols} tables of the
+ * lexers are recycled here too, so keys found in one document are already
+ * known when parsing the next.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class BufferPool {
+
+    /**
+     * Size of the buffers, in chars or bytes.
+     */
+    private final int size;
+
+    /**
+     * Char buffers.
+     */
+    private final Pool<char[]> chars;
+
+    /**
+     * Byte buffers.
+     */
+    private final Pool<ByteBuffer> bytes;
+
+    /**
+     * Direct byte buffers.
+     */
+    private final Pool<ByteBuffer> direct;
+
+    /**
+     * Symbol tables.
+     */
+    private final Pool<Symbols> symbols;
+
+    /**
+     * Ctor. This pool only allocates buffers, it does not recycle them.
+     * @param size Size of the buffers, in chars or bytes.
+     */
+    BufferPool(final int size) {
+        this(size, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param size Size of the buffers, in chars or bytes.
+     * @param capacity How many buffers (and symbol tables) of each kind
+     *  to keep.
+     */
+    BufferPool(final int size, final int capacity) {
+        this.size = size;
+        this.chars = new Pool<>(capacity);
+        this.bytes = new Pool<>(capacity);
+        this.direct = new Pool<>(capacity);
+        this.symbols = new Pool<>(capacity);
+    }
+
+    /**
+     * A char buffer.
+     * @return Recycled or new buffer.
+     */
+    char[] chars() {
+        char[] buffer = this.chars.take();
+        if (buffer == null) {
+            buffer = new char[this.size];
+        }
+        return buffer;
+    }
+
+    /**
+     * A byte buffer, cleared.
+     * @return Recycled or new buffer, on the heap.
+     */
+    ByteBuffer bytes() {
+        ByteBuffer buffer = this.bytes.take();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(this.size);
+        } else {
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * A direct byte buffer, cleared. Channels fill these without copying
+     * through a temporary buffer of their own.
+     * @return Recycled or new buffer, outside the heap.
+     */
+    ByteBuffer direct() {
+        ByteBuffer buffer = this.direct.take();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(this.size);
+        } else {
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * A symbol table, with the keys left there by its previous user.
+     * @return Recycled or new table.
+     */
+    Symbols symbols() {
+        Symbols table = this.symbols.take();
+        if (table == null) {
+            table = new Symbols();
+        }
+        return table;
+    }
+
+    /**
+     * Give back a char buffer.
+     * @param buffer Buffer which is not used anymore.
+     */
+    void release(final char[] buffer) {
+        if (buffer.length == this.size) {
+            this.chars.give(buffer);
+        }
+    }
+
+    /**
+     * Give back a byte buffer, heap or direct.
+     * @param buffer Buffer which is not used anymore.
+     */
+    void release(final ByteBuffer buffer) {
+        if (buffer.capacity() == this.size && !buffer.isReadOnly()) {
+            if (buffer.isDirect()) {
+                this.direct.give(buffer);
+            } else {
+                this.bytes.give(buffer);
+            }
+        }
+    }
+
+    /**
+     * Give back a symbol table.
+     * @param table Table which is not used anymore.
+     */
+    void release(final Symbols table) {
+        this.symbols.give(table);
+    }
+}
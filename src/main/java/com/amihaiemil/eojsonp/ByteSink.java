@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Where a {@link Utf8Output} hands its buffer when it is full, flushed or
+ * closed. The sink either copies the bytes somewhere and lets the output
+ * reuse the same buffer, or keeps the buffer and gives a fresh one back.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+interface ByteSink {
+
+    /**
+     * Take the bytes of the buffer, from index 0 up to its limit.
+     * @param full Buffer with the bytes, heap or direct.
+     * @return Empty buffer of the same kind to continue with, the same
+     *  one or another one of the same size.
+     */
+    ByteBuffer send(ByteBuffer full);
+
+    /**
+     * Take the last bytes, from index 0 up to the limit of the buffer,
+     * when the output is closed. Nothing is needed to continue with.
+     * @param last Buffer with the bytes, heap or direct.
+     * @return True if the sink keeps the buffer, false if it can go back
+     *  to the pool.
+     */
+    boolean finish(ByteBuffer last);
+
+    /**
+     * Flush whatever was sent.
+     */
+    void flush();
+
+    /**
+     * Close the sink; nothing else is sent afterwards.
+     */
+    void close();
+
+}
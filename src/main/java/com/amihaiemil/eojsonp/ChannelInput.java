@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import javax.json.JsonException;
+
+/**
+ * ByteInput reading UTF-8 JSON from a blocking ReadableByteChannel into one
+ * reusable direct buffer, so the channel can fill it without an intermediate
+ * copy. The buffer is taken from a {@link BufferPool} and given back on
+ * close. A byte order mark is skipped.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class ChannelInput implements ByteInput {
+
+    /**
+     * The bytes come from here.
+     */
+    private final ReadableByteChannel channel;
+
+    /**
+     * Where the buffer comes from and goes back to.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Reusable direct buffer.
+     */
+    private ByteBuffer window;
+
+    /**
+     * Is this the first read?
+     */
+    private boolean first;
+
+    /**
+     * Was the buffer given back to the pool?
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param channel Channel to read from, in blocking mode.
+     */
+    ChannelInput(final ReadableByteChannel channel) {
+        this(channel, new BufferPool(StreamInput.BUFFER_SIZE));
+    }
+
+    /**
+     * Ctor.
+     * @param channel Channel to read from, in blocking mode.
+     * @param pool Pool of buffers; the buffer goes back to it on close.
+     */
+    ChannelInput(final ReadableByteChannel channel, final BufferPool pool) {
+        this.channel = channel;
+        this.pool = pool;
+        this.window = pool.direct();
+        this.window.limit(0);
+        this.first = true;
+    }
+
+    @Override
+    public ByteBuffer refill(final ByteBuffer buffer, final int keep) {
+        final int kept = buffer.limit() - keep;
+        if (buffer != this.window) {
+            final ByteBuffer old = buffer.duplicate();
+            old.position(keep);
+            this.window.clear();
+            this.window.put(old);
+        } else if (keep == 0 && kept == this.window.capacity()) {
+            final ByteBuffer bigger = ByteBuffer.allocateDirect(kept * 2);
+            this.window.position(0);
+            bigger.put(this.window);
+            this.pool.release(this.window);
+            this.window = bigger;
+        } else {
+            this.window.position(keep);
+            this.window.compact();
+        }
+        try {
+            this.channel.read(this.window);
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to read the JSON input.", ex
+            );
+        }
+        this.window.flip();
+        if (this.first) {
+            this.first = false;
+            this.bom();
+        }
+        return this.window;
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.pool.release(this.window);
+            this.window = ByteBuffer.allocate(0);
+        }
+        try {
+            this.channel.close();
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to close the channel.", ex
+            );
+        }
+    }
+
+    /**
+     * Drop the byte order mark from the beginning of the window, if there
+     * is one.
+     */
+    private void bom() {
+        if (this.window.limit() >= 3 && this.window.get(0) == (byte) 0xEF
+            && this.window.get(1) == (byte) 0xBB
+            && this.window.get(2) == (byte) 0xBF) {
+            this.window.position(3);
+            this.window.compact();
+            this.window.flip();
+        }
+    }
+}
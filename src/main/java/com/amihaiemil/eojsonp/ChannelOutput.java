@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import javax.json.JsonException;
+
+/**
+ * JsonOutput encoding UTF-8 into direct segments for a WritableByteChannel,
+ * which can be in non-blocking mode. Full segments are written right away,
+ * as far as the channel takes them; whatever it does not take stays queued,
+ * instead of blocking the generator. The producer checks
+ * {@link #congested()} to know when to stop generating and calls
+ * {@link #send()} when the channel is writable again (e.g. on OP_WRITE).
+ * <br><br>
+ * On close, the channel is closed only once every queued segment is sent.
+ * It is not thread-safe, like the generator using it.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class ChannelOutput implements JsonOutput {
+
+    /**
+     * The bytes go here.
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * Where the segments come from and go back to.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Segments not yet taken by the channel, the first one maybe in part.
+     */
+    private final Deque<ByteBuffer> queue;
+
+    /**
+     * How many queued bytes mean that the channel does not keep up.
+     */
+    private final long limit;
+
+    /**
+     * Encodes the chars into the segments.
+     */
+    private final JsonOutput encoder;
+
+    /**
+     * How many bytes are queued.
+     */
+    private long pending;
+
+    /**
+     * Was close called?
+     */
+    private boolean closing;
+
+    /**
+     * Ctor.
+     * @param channel Channel to write to.
+     * @param pool Pool of the buffers and segments.
+     * @param limit How many queued bytes mean congestion.
+     */
+    ChannelOutput(
+        final WritableByteChannel channel, final BufferPool pool,
+        final long limit
+    ) {
+        this.channel = channel;
+        this.pool = pool;
+        this.limit = limit;
+        this.queue = new ArrayDeque<>();
+        this.encoder = new Utf8Output(
+            new ChunkSink(this::enqueue, pool::direct), pool, pool.direct()
+        );
+    }
+
+    @Override
+    public void write(final char chr) {
+        this.encoder.write(chr);
+    }
+
+    @Override
+    public void write(final CharSequence text, final int start, final int end) {
+        this.encoder.write(text, start, end);
+    }
+
+    /**
+     * Hand everything to the channel, as far as it takes it.
+     */
+    @Override
+    public void flush() {
+        this.encoder.flush();
+    }
+
+    /**
+     * Hand everything to the channel and close it, as soon as it took
+     * everything.
+     */
+    @Override
+    public void close() {
+        this.closing = true;
+        this.encoder.close();
+        this.send();
+    }
+
+    /**
+     * Write the queued segments, as far as the channel takes them without
+     * blocking.
+     * @return True if nothing is queued anymore.
+     * @throws JsonException If the channel cannot be written.
+     */
+    boolean send() {
+        ByteBuffer head = this.queue.peek();
+        boolean full = false;
+        try {
+            while (head != null && !full) {
+                this.pending = this.pending - this.channel.write(head);
+                full = head.hasRemaining();
+                if (!full) {
+                    this.pool.release(this.queue.poll());
+                    head = this.queue.peek();
+                }
+            }
+            if (head == null && this.closing && this.channel.isOpen()) {
+                this.channel.close();
+            }
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to write to the channel.", ex
+            );
+        }
+        return head == null;
+    }
+
+    /**
+     * Are more bytes queued than the channel should be given, so the
+     * generating should wait until {@link #send()} catches up?
+     * @return True or false.
+     */
+    boolean congested() {
+        return this.pending > this.limit;
+    }
+
+    /**
+     * How many bytes wait to be taken by the channel.
+     * @return Number of bytes.
+     */
+    long pending() {
+        return this.pending;
+    }
+
+    /**
+     * Queue a full segment and send what can be sent.
+     * @param segment Segment, ready to be written.
+     */
+    private void enqueue(final ByteBuffer segment) {
+        this.queue.add(segment);
+        this.pending = this.pending + segment.remaining();
+        this.send();
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * ByteSink handing the filled buffers themselves, as chunks, to a consumer,
+ * e.g. a transport which sends them with gather writes. Nothing is copied:
+ * the output encodes straight into the chunk and continues with a fresh
+ * buffer from the {@link BufferPool}. Chunks are as big as the pool's
+ * buffers, except the ones handed over on flush and close, and the ones
+ * which end up to 3 bytes early, so that a character is not split between
+ * two chunks. Once a chunk is sent, the consumer can give it back to the
+ * pool.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class ChunkSink implements ByteSink {
+
+    /**
+     * Receives the chunks.
+     */
+    private final Consumer<ByteBuffer> consumer;
+
+    /**
+     * Where the fresh buffers come from.
+     */
+    private final Supplier<ByteBuffer> fresh;
+
+    /**
+     * Ctor.
+     * @param consumer Receives the chunks, from position 0 up to their
+     *  limit.
+     * @param pool Pool of buffers.
+     */
+    ChunkSink(final Consumer<ByteBuffer> consumer, final BufferPool pool) {
+        this(consumer, pool::bytes);
+    }
+
+    /**
+     * Ctor.
+     * @param consumer Receives the chunks, from position 0 up to their
+     *  limit.
+     * @param fresh Gives the buffers to continue with, e.g. the direct
+     *  ones of a pool, for channels.
+     */
+    ChunkSink(
+        final Consumer<ByteBuffer> consumer, final Supplier<ByteBuffer> fresh
+    ) {
+        this.consumer = consumer;
+        this.fresh = fresh;
+    }
+
+    @Override
+    public ByteBuffer send(final ByteBuffer full) {
+        this.consumer.accept(full);
+        return this.fresh.get();
+    }
+
+    @Override
+    public boolean finish(final ByteBuffer last) {
+        this.consumer.accept(last);
+        return true;
+    }
+
+    @Override
+    public void flush() {
+        // every chunk was already handed over
+    }
+
+    @Override
+    public void close() {
+        // the consumer decides when it is done with the chunks
+    }
+}
@@ -72,44 +72,44 @@ abstract class ConvenientJsonGenerator implements JsonGenerator {
 
     @Override
     public JsonGenerator write(final String name, final BigInteger value) {
-        this.write(name, new RtJsonNumber(String.valueOf(value)));
+        this.write(name, new RtJsonNumber(new BigDecimal(value)));
         return this;
     }
 
     @Override
     public JsonGenerator write(final String name, final BigDecimal value) {
-        this.write(name, new RtJsonNumber(String.valueOf(value)));
+        this.write(name, new RtJsonNumber(value));
         return this;
     }
 
     @Override
     public JsonGenerator write(final String name, final int value) {
-        this.write(name, new RtJsonNumber(String.valueOf(value)));
+        this.write(name, new IntJsonNumber(value));
         return this;
     }
 
     @Override
     public JsonGenerator write(final String name, final long value) {
-        this.write(name, new RtJsonNumber(String.valueOf(value)));
+        this.write(name, new LongJsonNumber(value));
         return this;
     }
 
     @Override
     public JsonGenerator write(final String name, final double value) {
-        this.write(name, new RtJsonNumber(String.valueOf(value)));
+        this.write(name, new DoubleJsonNumber(value));
         return this;
     }
 
     @Override
     public JsonGenerator write(final String name, final boolean value) {
         //@checkstyle AvoidInlineConditionals (1 line)
-        this.write(name, new RtJsonString(value ? "true" : "false"));
+        this.write(name, value ? JsonValue.TRUE : JsonValue.FALSE);
         return this;
     }
 
     @Override
     public JsonGenerator writeNull(final String name) {
-        this.write(name, new RtJsonString("null"));
+        this.write(name, JsonValue.NULL);
         return this;
     }
 
@@ -121,44 +121,44 @@ abstract class ConvenientJsonGenerator implements JsonGenerator {
 
     @Override
     public JsonGenerator write(final BigDecimal value) {
-        this.write(new RtJsonNumber(String.valueOf(value)));
+        this.write(new RtJsonNumber(value));
         return this;
     }
 
     @Override
     public JsonGenerator write(final BigInteger value) {
-        this.write(new RtJsonNumber(String.valueOf(value)));
+        this.write(new RtJsonNumber(new BigDecimal(value)));
         return this;
     }
 
     @Override
     public JsonGenerator write(final int value) {
-        this.write(new RtJsonNumber(String.valueOf(value)));
+        this.write(new IntJsonNumber(value));
         return this;
     }
 
     @Override
     public JsonGenerator write(final long value) {
-        this.write(new RtJsonNumber(String.valueOf(value)));
+        this.write(new LongJsonNumber(value));
         return this;
     }
 
     @Override
     public JsonGenerator write(final double value) {
-        this.write(new RtJsonNumber(String.valueOf(value)));
+        this.write(new DoubleJsonNumber(value));
         return this;
     }
 
     @Override
     public JsonGenerator write(final boolean value) {
         //@checkstyle AvoidInlineConditionals (1 line)
-        this.write(new RtJsonString(value ? "true" : "false"));
+        this.write(value ? JsonValue.TRUE : JsonValue.FALSE);
         return this;
     }
 
     @Override
     public JsonGenerator writeNull() {
-        this.write(new RtJsonString("null"));
+        this.write(JsonValue.NULL);
         return this;
     }
 
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import javax.json.JsonException;
+import javax.json.stream.JsonLocation;
+
+/**
+ * JsonLexer for an InputStream, which detects the encoding of the JSON
+ * from its first bytes, as described in RFC 7159 (section 8.1) and RFC 4627
+ * (section 3). UTF-8, by far the most common, is tokenized straight from the
+ * bytes by a {@link Utf8Lexer}; UTF-16 and UTF-32 are decoded to chars and
+ * given to a {@link ReaderLexer}. The detection happens when the first token
+ * is requested.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class DetectingLexer implements JsonLexer {
+
+    /**
+     * UTF-8 byte order mark.
+     */
+    private static final int[] UTF_EIGHT_BOM = {0xEF, 0xBB, 0xBF};
+
+    /**
+     * Where the JSON comes from.
+     */
+    private final InputStream input;
+
+    /**
+     * The actual lexer, chosen after the encoding is known.
+     */
+    private JsonLexer origin;
+
+    /**
+     * Buffers for the actual lexer.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Ctor.
+     * @param input Where the JSON comes from.
+     */
+    DetectingLexer(final InputStream input) {
+        this(input, new BufferPool(StreamInput.BUFFER_SIZE));
+    }
+
+    /**
+     * Ctor.
+     * @param input Where the JSON comes from.
+     * @param pool Buffers for the actual lexer.
+     */
+    DetectingLexer(final InputStream input, final BufferPool pool) {
+        this.input = input;
+        this.pool = pool;
+    }
+
+    @Override
+    public JsonToken next() {
+        return this.lexer().next();
+    }
+
+    @Override
+    public boolean done() {
+        return this.lexer().done();
+    }
+
+    @Override
+    public String text() {
+        return this.lexer().text();
+    }
+
+    @Override
+    public String key() {
+        return this.lexer().key();
+    }
+
+    @Override
+    public BigDecimal decimal() {
+        return this.lexer().decimal();
+    }
+
+    @Override
+    public boolean integral() {
+        return this.lexer().integral();
+    }
+
+    @Override
+    public boolean fitsLong() {
+        return this.lexer().fitsLong();
+    }
+
+    @Override
+    public long longValue() {
+        return this.lexer().longValue();
+    }
+
+    @Override
+    public JsonLocation location() {
+        return this.lexer().location();
+    }
+
+    @Override
+    public void close() {
+        if (this.origin == null) {
+            try {
+                this.input.close();
+            } catch (final IOException ex) {
+                throw new JsonException(
+                    "IOException when trying to close the InputStream.", ex
+                );
+            }
+        } else {
+            this.origin.close();
+        }
+    }
+
+    /**
+     * The actual lexer.
+     * @return JsonLexer.
+     */
+    private JsonLexer lexer() {
+        if (this.origin == null) {
+            try {
+                this.origin = this.detect();
+            } catch (final IOException ex) {
+                throw new JsonException(
+                    "IOException when trying to detect the encoding.", ex
+                );
+            }
+        }
+        return this.origin;
+    }
+
+    /**
+     * Look at the first 4 bytes and pick the lexer.
+     * @return JsonLexer.
+     * @throws IOException If the bytes cannot be read.
+     */
+    private JsonLexer detect() throws IOException {
+        final PushbackInputStream stream = new PushbackInputStream(
+            this.input, 4
+        );
+        final byte[] head = new byte[4];
+        int count = 0;
+        int read = 0;
+        while (count < head.length && read >= 0) {
+            read = stream.read(head, count, head.length - count);
+            if (read > 0) {
+                count = count + read;
+            }
+        }
+        final Charset charset = DetectingLexer.charset(head, count);
+        final JsonLexer lexer;
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            int bom = 0;
+            if (DetectingLexer.startsWithBom(head, count)) {
+                bom = UTF_EIGHT_BOM.length;
+            }
+            stream.unread(head, bom, count - bom);
+            lexer = new Utf8Lexer(
+                new StreamInput(stream, this.pool), this.pool
+            );
+        } else {
+            stream.unread(head, 0, count);
+            lexer = new ReaderLexer(
+                new InputStreamReader(stream, charset), this.pool
+            );
+        }
+        return lexer;
+    }
+
+    /**
+     * Encoding of the JSON, judging by its first bytes. JSON text starts
+     * with two ASCII characters, so the position of the zero bytes gives it
+     * away, unless there is a byte order mark.
+     * @param head First bytes.
+     * @param count How many first bytes there are (at most 4).
+     * @return Charset.
+     */
+    private static Charset charset(final byte[] head, final int count) {
+        int zeros = 0;
+        for (int idx = 0; idx < count; ++idx) {
+            if (head[idx] == 0) {
+                zeros = zeros | (1 << (3 - idx));
+            }
+        }
+        final Charset marked = DetectingLexer.marked(head, count);
+        final Charset charset;
+        if (marked != null) {
+            charset = marked;
+        } else if (zeros == 0b1110) {
+            charset = Charset.forName("UTF-32BE");
+        } else if (zeros == 0b0111) {
+            charset = Charset.forName("UTF-32LE");
+        } else {
+            charset = DetectingLexer.sixteen(zeros);
+        }
+        return charset;
+    }
+
+    /**
+     * Encoding given by a UTF-16 or UTF-32 byte order mark. The generic
+     * UTF-16 and UTF-32 charsets consume the mark themselves.
+     * @param head First bytes.
+     * @param count How many first bytes there are (at most 4).
+     * @return Charset or null if there is no such byte order mark.
+     */
+    private static Charset marked(final byte[] head, final int count) {
+        final int first = (head[0] & 0xFF) << 8 | head[1] & 0xFF;
+        final int second = (head[2] & 0xFF) << 8 | head[3] & 0xFF;
+        final boolean thirtytwo = first == 0 && second == 0xFEFF
+            || first == 0xFFFE && second == 0;
+        Charset charset = null;
+        if (count == 4 && thirtytwo) {
+            charset = Charset.forName("UTF-32");
+        } else if (count >= 2 && (first == 0xFEFF || first == 0xFFFE)) {
+            charset = StandardCharsets.UTF_16;
+        }
+        return charset;
+    }
+
+    /**
+     * UTF-16 if one of the first two bytes is zero, UTF-8 otherwise.
+     * @param zeros Mask with the positions of zero bytes.
+     * @return Charset.
+     */
+    private static Charset sixteen(final int zeros) {
+        final Charset charset;
+        if ((zeros & 0b1100) == 0b1000) {
+            charset = StandardCharsets.UTF_16BE;
+        } else if ((zeros & 0b1100) == 0b0100) {
+            charset = StandardCharsets.UTF_16LE;
+        } else {
+            charset = StandardCharsets.UTF_8;
+        }
+        return charset;
+    }
+
+    /**
+     * Do the bytes start with the UTF-8 byte order mark?
+     * @param head First bytes.
+     * @param count How many first bytes there are.
+     * @return True or false.
+     */
+    private static boolean startsWithBom(final byte[] head, final int count) {
+        boolean bom = count >= UTF_EIGHT_BOM.length;
+        for (int idx = 0; bom && idx < UTF_EIGHT_BOM.length; ++idx) {
+            bom = (head[idx] & 0xFF) == UTF_EIGHT_BOM[idx];
+        }
+        return bom;
+    }
+}
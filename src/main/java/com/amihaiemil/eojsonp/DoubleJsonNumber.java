@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * JsonNumber holding a double. Only {@link #doubleValue()} and
+ * {@link #toString()} read the double directly; all the other conversions
+ * go through {@link BigDecimal#valueOf(double)}, so they behave like those
+ * of any other JsonNumber with the same BigDecimal value.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class DoubleJsonNumber extends AbstractJsonNumber {
+
+    /**
+     * The value.
+     */
+    private final double value;
+
+    /**
+     * Ctor.
+     * @param value The value.
+     * @throws NumberFormatException If the value is NaN or infinite, since
+     *  there is no such thing in JSON.
+     */
+    DoubleJsonNumber(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new NumberFormatException(
+                "JSON does not allow NaN or infinite numbers: " + value
+            );
+        }
+        this.value = value;
+    }
+
+    @Override
+    public boolean isIntegral() {
+        return this.bigDecimalValue().scale() == 0;
+    }
+
+    @Override
+    public int intValue() {
+        return this.bigDecimalValue().intValue();
+    }
+
+    @Override
+    public int intValueExact() {
+        return this.bigDecimalValue().intValueExact();
+    }
+
+    @Override
+    public long longValue() {
+        return this.bigDecimalValue().longValue();
+    }
+
+    @Override
+    public long longValueExact() {
+        return this.bigDecimalValue().longValueExact();
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+        return this.bigDecimalValue().toBigInteger();
+    }
+
+    @Override
+    public BigInteger bigIntegerValueExact() {
+        return this.bigDecimalValue().toBigIntegerExact();
+    }
+
+    @Override
+    public double doubleValue() {
+        return this.value;
+    }
+
+    @Override
+    public BigDecimal bigDecimalValue() {
+        return BigDecimal.valueOf(this.value);
+    }
+
+    @Override
+    public Number numberValue() {
+        return this.value;
+    }
+
+    @Override
+    public String toString() {
+        return Double.toString(this.value);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ByteInput which is fed chunks of UTF-8 bytes as they arrive, instead of
+ * pulling them from a source. When the lexer needs more bytes than were
+ * fed and the input is not ended, {@link #refill(ByteBuffer, int)} throws
+ * {@link Starved}, so the lexer never blocks; the caller goes back to its
+ * mark and tries again after the next chunk.<br><br>
+ * Fed bytes are appended to the same heap buffer the lexer reads, after
+ * its limit, and become visible at the next refill. The buffer given to
+ * refill is always this one (or the lexer's empty one, at first), so the
+ * bytes to keep are already in place.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class FeedInput implements ByteInput {
+
+    /**
+     * Where the buffer comes from and goes back to.
+     */
+    private final BufferPool pool;
+
+    /**
+     * The buffer; the lexer sees it up to its limit, the bytes fed after
+     * that go up to the fill index.
+     */
+    private ByteBuffer window;
+
+    /**
+     * How many bytes are in the buffer, including the ones fed after
+     * its limit.
+     */
+    private int fill;
+
+    /**
+     * Was the end of the input announced?
+     */
+    private boolean ended;
+
+    /**
+     * Was the buffer given back to the pool?
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param pool Pool of buffers; the buffer goes back to it on close.
+     */
+    FeedInput(final BufferPool pool) {
+        this.pool = pool;
+        this.window = pool.bytes();
+        this.window.limit(0);
+    }
+
+    /**
+     * Feed the remaining bytes of a chunk. They are copied, so the chunk
+     * can be reused afterwards; its position is moved to its limit.
+     * @param chunk Bytes of the JSON, following the ones fed before.
+     * @throws IllegalStateException If the input was ended or closed.
+     */
+    void feed(final ByteBuffer chunk) {
+        if (this.ended) {
+            throw new IllegalStateException(
+                "The input was ended, no more bytes can be fed."
+            );
+        }
+        final int needed = this.fill + chunk.remaining();
+        if (needed > this.window.capacity()) {
+            final ByteBuffer bigger = ByteBuffer.allocate(
+                Math.max(needed, this.window.capacity() * 2)
+            );
+            System.arraycopy(
+                this.window.array(), 0, bigger.array(), 0, this.fill
+            );
+            bigger.limit(this.window.limit());
+            this.window = bigger;
+        }
+        final int count = chunk.remaining();
+        chunk.get(this.window.array(), this.fill, count);
+        this.fill = this.fill + count;
+    }
+
+    /**
+     * Announce that nothing more will be fed.
+     */
+    void end() {
+        this.ended = true;
+    }
+
+    @Override
+    public ByteBuffer refill(final ByteBuffer buffer, final int keep) {
+        if (this.fill == this.window.limit() && !this.ended) {
+            throw new Starved();
+        }
+        System.arraycopy(
+            this.window.array(), keep, this.window.array(), 0,
+            this.fill - keep
+        );
+        this.fill = this.fill - keep;
+        this.window.limit(this.fill);
+        return this.window;
+    }
+
+    @Override
+    public void close() {
+        this.ended = true;
+        if (!this.closed) {
+            this.closed = true;
+            this.pool.release(this.window);
+            this.window = ByteBuffer.allocate(0);
+            this.fill = 0;
+        }
+    }
+
+    /**
+     * Thrown when the lexer needs more bytes than were fed. It has no
+     * stack trace, since it only unwinds to the parser.
+     */
+    static final class Starved extends RuntimeException {
+
+        /**
+         * Serialization marker.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Ctor.
+         */
+        Starved() {
+            super("More input is needed.", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+import javax.json.stream.JsonLocation;
+import javax.json.stream.JsonParser;
+
+/**
+ * Non-blocking JsonParser for UTF-8 JSON which arrives in chunks, e.g. on
+ * an event loop. The chunks are given to {@link #feed(ByteBuffer)} and the
+ * events are drained with {@link #poll()}, which returns null instead of
+ * blocking when it needs more input.<br><br>
+ * Before each event, the lexer is marked. If the input runs out anywhere
+ * in the tokens of the event (inside a String, a number, an escape sequence
+ * or a multi-byte character), it goes back to the mark and the same event is
+ * tried again once more bytes are fed. The parser's own state only changes
+ * when an event is complete, so nothing is lost.<br><br>
+ * The getters refer to the last event returned by {@link #poll()} and are
+ * only valid until the next call to it.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class FeedJsonParser implements JsonParser {
+
+    /**
+     * The fed bytes.
+     */
+    private final FeedInput input;
+
+    /**
+     * Lexer over the fed bytes.
+     */
+    private final Utf8Lexer lexer;
+
+    /**
+     * Parser pulling from the lexer.
+     */
+    private final JsonParser parser;
+
+    /**
+     * Is the document over?
+     */
+    private boolean over;
+
+    /**
+     * Ctor.
+     */
+    FeedJsonParser() {
+        this(new BufferPool(StreamInput.BUFFER_SIZE));
+    }
+
+    /**
+     * Ctor.
+     * @param pool Pool of buffers; they go back to it on close.
+     */
+    FeedJsonParser(final BufferPool pool) {
+        this.input = new FeedInput(pool);
+        this.lexer = new Utf8Lexer(this.input, pool);
+        this.parser = new RtJsonParser(this.lexer);
+    }
+
+    /**
+     * Feed the next chunk of the JSON. Its remaining bytes are copied, so
+     * it can be reused right away.
+     * @param chunk Bytes following the ones fed before.
+     * @return This parser.
+     */
+    FeedJsonParser feed(final ByteBuffer chunk) {
+        this.input.feed(chunk);
+        return this;
+    }
+
+    /**
+     * Feed the next chunk of the JSON.
+     * @param chunk Bytes following the ones fed before.
+     * @return This parser.
+     */
+    FeedJsonParser feed(final byte[] chunk) {
+        return this.feed(ByteBuffer.wrap(chunk));
+    }
+
+    /**
+     * Announce that all the JSON was fed. The remaining events can be
+     * polled afterwards, without returning null.
+     * @return This parser.
+     */
+    FeedJsonParser end() {
+        this.input.end();
+        return this;
+    }
+
+    /**
+     * The next event, if the bytes fed so far are enough for it.
+     * @return Event or null, if more input is needed or the document is
+     *  over. After the last event, it returns null until the input is
+     *  ended, since only then it is known that nothing else follows.
+     * @throws javax.json.stream.JsonParsingException If the JSON is
+     *  not valid.
+     */
+    Event poll() {
+        Event event = null;
+        if (!this.over) {
+            this.lexer.mark();
+            try {
+                if (this.parser.hasNext()) {
+                    event = this.parser.next();
+                } else {
+                    this.over = true;
+                }
+            } catch (final FeedInput.Starved ex) {
+                this.lexer.rewind();
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Is the document not over yet? It can be true even though
+     * {@link #poll()} needs more input for the next event.
+     * @return True or false.
+     */
+    @Override
+    public boolean hasNext() {
+        return !this.over;
+    }
+
+    /**
+     * The next event, which must be available in the bytes fed so far.
+     * @return Event.
+     * @throws IllegalStateException If more input is needed.
+     * @throws NoSuchElementException If the document is over.
+     */
+    @Override
+    public Event next() {
+        final Event event = this.poll();
+        if (event == null && this.over) {
+            throw new NoSuchElementException(
+                "There are no more parsing events."
+            );
+        }
+        if (event == null) {
+            throw new IllegalStateException(
+                "More input is needed for the next event."
+            );
+        }
+        return event;
+    }
+
+    @Override
+    public String getString() {
+        return this.parser.getString();
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        return this.parser.isIntegralNumber();
+    }
+
+    @Override
+    public int getInt() {
+        return this.parser.getInt();
+    }
+
+    @Override
+    public long getLong() {
+        return this.parser.getLong();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        return this.parser.getBigDecimal();
+    }
+
+    @Override
+    public JsonLocation getLocation() {
+        return this.parser.getLocation();
+    }
+
+    @Override
+    public void close() {
+        this.over = true;
+        this.parser.close();
+    }
+}
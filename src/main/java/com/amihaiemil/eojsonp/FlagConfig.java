@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Map;
+import javax.json.JsonException;
+
+/**
+ * A boolean value, read from the configuration of a factory.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class FlagConfig {
+
+    /**
+     * The configuration.
+     */
+    private final Map<String, ?> config;
+
+    /**
+     * Key of the value.
+     */
+    private final String key;
+
+    /**
+     * Ctor.
+     * @param config The configuration, can be null.
+     * @param key Key of the value.
+     */
+    FlagConfig(final Map<String, ?> config, final String key) {
+        this.config = config;
+        this.key = key;
+    }
+
+    /**
+     * The configured value. It can be given as a Boolean or as the String
+     * "true" or "false". A missing key means false.
+     * @return Boolean.
+     * @throws JsonException If the configured value is not a boolean.
+     */
+    boolean value() {
+        Object raw = null;
+        if (this.config != null) {
+            raw = this.config.get(this.key);
+        }
+        final boolean value;
+        if (raw == null) {
+            value = false;
+        } else if (raw instanceof Boolean) {
+            value = (Boolean) raw;
+        } else if ("true".equalsIgnoreCase(raw.toString().trim())) {
+            value = true;
+        } else if ("false".equalsIgnoreCase(raw.toString().trim())) {
+            value = false;
+        } else {
+            throw new JsonException(
+                "Value of " + this.key + " should be true or false: " + raw
+            );
+        }
+        return value;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Arrays;
+
+/**
+ * Value of the hex digits of unicode escape sequences. Only the ASCII
+ * digits and letters count, unlike with {@link Character#digit(int, int)},
+ * which also accepts the digits of other scripts.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class Hex {
+
+    /**
+     * Value of each ASCII char, or -1 if it is not a hex digit.
+     */
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int idx = 0; idx < 10; ++idx) {
+            VALUES['0' + idx] = idx;
+        }
+        for (int idx = 0; idx < 6; ++idx) {
+            VALUES['a' + idx] = 10 + idx;
+            VALUES['A' + idx] = 10 + idx;
+        }
+    }
+
+    /**
+     * Hidden ctor.
+     */
+    private Hex() {
+    }
+
+    /**
+     * Value of a hex digit.
+     * @param chr The char (or byte, or -1 at the end of the input).
+     * @return Value from 0 to 15, or -1 if it is not a hex digit.
+     */
+    static int value(final int chr) {
+        int value = -1;
+        if (chr >= 0 && chr < VALUES.length) {
+            value = VALUES[chr];
+        }
+        return value;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Map;
+import javax.json.JsonException;
+
+/**
+ * A positive int value, read from the configuration of a factory.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class IntConfig {
+
+    /**
+     * The configuration.
+     */
+    private final Map<String, ?> config;
+
+    /**
+     * Key of the value.
+     */
+    private final String key;
+
+    /**
+     * Value to use when the key is missing.
+     */
+    private final int fallback;
+
+    /**
+     * Ctor.
+     * @param config The configuration, can be null.
+     * @param key Key of the value.
+     * @param fallback Value to use when the key is missing.
+     */
+    IntConfig(
+        final Map<String, ?> config, final String key, final int fallback
+    ) {
+        this.config = config;
+        this.key = key;
+        this.fallback = fallback;
+    }
+
+    /**
+     * The configured value. It can be given as a Number or as a String.
+     * @return Positive int.
+     * @throws JsonException If the configured value is not a positive int.
+     */
+    int value() {
+        Object raw = null;
+        if (this.config != null) {
+            raw = this.config.get(this.key);
+        }
+        final int value;
+        if (raw == null) {
+            value = this.fallback;
+        } else if (raw instanceof Number) {
+            value = ((Number) raw).intValue();
+        } else {
+            try {
+                value = Integer.parseInt(raw.toString().trim());
+            } catch (final NumberFormatException ex) {
+                throw new JsonException(
+                    "Value of " + this.key + " should be an int: " + raw, ex
+                );
+            }
+        }
+        if (value <= 0) {
+            throw new JsonException(
+                "Value of " + this.key + " should be positive: " + raw
+            );
+        }
+        return value;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+/**
+ * Writes a text as a quoted JSON string, escaping it as RFC 7159 says:
+ * quotation marks, reverse solidi and control chars. Runs of chars which
+ * need no escaping are copied to the output in bulk. Optionally, it also
+ * escapes the solidus, so the Json can be embedded in HTML script tags,
+ * and the non-ASCII chars, so the Json can travel over channels which
+ * are not 8-bit clean.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class JsonEscape {
+
+    /**
+     * Escape sequence of each ASCII char, or null if it needs none.
+     */
+    private static final String[] ESCAPES = JsonEscape.table(false);
+
+    /**
+     * Escape sequence of each ASCII char, including the solidus.
+     */
+    private static final String[] SOLIDUS = JsonEscape.table(true);
+
+    /**
+     * Escape sequences used by this instance.
+     */
+    private final String[] escapes;
+
+    /**
+     * Should non-ASCII chars be escaped as well?
+     */
+    private final boolean ascii;
+
+    /**
+     * Ctor. Escapes only what RFC 7159 requires.
+     */
+    JsonEscape() {
+        this(false, false);
+    }
+
+    /**
+     * Ctor.
+     * @param solidus Should the solidus be escaped?
+     * @param ascii Should non-ASCII chars be escaped, so the output is
+     *  pure ASCII?
+     */
+    JsonEscape(final boolean solidus, final boolean ascii) {
+        if (solidus) {
+            this.escapes = JsonEscape.SOLIDUS;
+        } else {
+            this.escapes = JsonEscape.ESCAPES;
+        }
+        this.ascii = ascii;
+    }
+
+    /**
+     * Write the given text between quotes, escaped.
+     * @param text Text to write.
+     * @param output Where to write it.
+     */
+    void write(final CharSequence text, final JsonOutput output) {
+        output.write('"');
+        final int len = text.length();
+        int run = 0;
+        for (int idx = 0; idx < len; ++idx) {
+            final char chr = text.charAt(idx);
+            if (chr < this.escapes.length && this.escapes[chr] != null) {
+                output.write(text, run, idx);
+                final String escape = this.escapes[chr];
+                output.write(escape, 0, escape.length());
+                run = idx + 1;
+            } else if (chr >= this.escapes.length && this.ascii) {
+                output.write(text, run, idx);
+                JsonEscape.unicode(chr, output);
+                run = idx + 1;
+            }
+        }
+        output.write(text, run, len);
+        output.write('"');
+    }
+
+    /**
+     * Write a char as a backslash, the letter u and four hex digits.
+     * @param chr Char.
+     * @param output Where to write it.
+     */
+    private static void unicode(final char chr, final JsonOutput output) {
+        output.write('\\');
+        output.write('u');
+        for (int shift = 12; shift >= 0; shift = shift - 4) {
+            output.write(Character.forDigit(chr >> shift & 0xF, 16));
+        }
+    }
+
+    /**
+     * Build the table of escape sequences.
+     * @param solidus Should the solidus be escaped?
+     * @return Array with 128 entries.
+     */
+    private static String[] table(final boolean solidus) {
+        final String[] table = new String[128];
+        for (int chr = 0; chr < ' '; ++chr) {
+            table[chr] = String.format("\\u%04x", chr);
+        }
+        table['\b'] = "\\b";
+        table['\f'] = "\\f";
+        table['\n'] = "\\n";
+        table['\r'] = "\\r";
+        table['\t'] = "\\t";
+        table['"'] = "\\\"";
+        table['\\'] = "\\\\";
+        if (solidus) {
+            table['/'] = "\\/";
+        }
+        return table;
+    }
+}
@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Arrays;
+
+/**
+ * The keys of a JsonObject, in insertion order, with their hashes
+ * precomputed. Few keys are searched linearly, comparing the hashes first,
+ * which is faster than hashing into a table and costs no extra memory.
+ * Above {@link #THRESHOLD} keys, an open-addressing index is kept as well.
+ *
+ * The keys are added while the JsonObject is put together, by
+ * {@link JsonPairs}. The JsonObject itself gets a trimmed {@link #copy()},
+ * which is never modified, so it can be shared by all the JsonObjects with
+ * the same keys (see {@link Shapes}).
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class JsonKeys {
+
+    /**
+     * Up to this many keys are searched linearly.
+     */
+    static final int THRESHOLD = 8;
+
+    /**
+     * The keys.
+     */
+    private String[] names;
+
+    /**
+     * Hash of each key.
+     */
+    private int[] hashes;
+
+    /**
+     * Open-addressing index, with the position of each key plus one, or
+     * null if there are few keys.
+     */
+    private int[] index;
+
+    /**
+     * Number of keys.
+     */
+    private int size;
+
+    /**
+     * Ctor.
+     * @param capacity Expected number of keys.
+     */
+    JsonKeys(final int capacity) {
+        this(
+            new String[Math.max(capacity, 1)],
+            new int[Math.max(capacity, 1)],
+            0
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param names Keys.
+     * @param hashes Hash of each key.
+     * @param size How many of the keys are in use.
+     */
+    private JsonKeys(final String[] names, final int[] hashes,
+        final int size) {
+        this.names = names;
+        this.hashes = hashes;
+        this.size = size;
+        if (size > JsonKeys.THRESHOLD) {
+            this.reindex();
+        }
+    }
+
+    /**
+     * Number of keys.
+     * @return Int.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Key at the given position.
+     * @param pos Position.
+     * @return Key.
+     */
+    String name(final int pos) {
+        return this.names[pos];
+    }
+
+    /**
+     * Position of the given key.
+     * @param key Key.
+     * @return Position or -1 if there is no such key.
+     */
+    int find(final Object key) {
+        final int pos;
+        if (key == null) {
+            pos = -1;
+        } else if (this.index == null) {
+            pos = this.scan(key);
+        } else {
+            pos = this.probe(key);
+        }
+        return pos;
+    }
+
+    /**
+     * Add a key which is not here yet.
+     * @param name Key.
+     * @return Its position.
+     */
+    int add(final String name) {
+        if (this.size == this.names.length) {
+            this.names = Arrays.copyOf(this.names, this.size * 2);
+            this.hashes = Arrays.copyOf(this.hashes, this.size * 2);
+        }
+        final int pos = this.size;
+        final int hash = JsonKeys.hash(name);
+        this.names[pos] = name;
+        this.hashes[pos] = hash;
+        this.size = pos + 1;
+        if (this.size > JsonKeys.THRESHOLD) {
+            if (this.index == null || this.size * 2 > this.index.length) {
+                this.reindex();
+            } else {
+                this.insert(hash, pos);
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Trimmed copy of these keys.
+     * @return JsonKeys.
+     */
+    JsonKeys copy() {
+        return new JsonKeys(
+            Arrays.copyOf(this.names, this.size),
+            Arrays.copyOf(this.hashes, this.size),
+            this.size
+        );
+    }
+
+    /**
+     * Hash of the keys, in their order.
+     * @return Int.
+     */
+    int layout() {
+        int hash = this.size;
+        for (int pos = 0; pos < this.size; ++pos) {
+            hash = 31 * hash + this.hashes[pos];
+        }
+        return hash ^ hash >>> 16;
+    }
+
+    /**
+     * Are these the same keys as the given ones, in the same order?
+     * @param other Other keys.
+     * @return True or false.
+     */
+    boolean same(final JsonKeys other) {
+        boolean same = this.size == other.size;
+        for (int pos = 0; pos < this.size && same; ++pos) {
+            same = this.hashes[pos] == other.hashes[pos]
+                && this.names[pos].equals(other.names[pos]);
+        }
+        return same;
+    }
+
+    /**
+     * Remove all the keys, keeping the arrays for the next ones.
+     */
+    void clear() {
+        Arrays.fill(this.names, 0, this.size, null);
+        this.index = null;
+        this.size = 0;
+    }
+
+    /**
+     * Hash of a key, with the high bits spread into the low ones, since
+     * the index only uses the low bits.
+     * @param key Key.
+     * @return Int.
+     */
+    private static int hash(final Object key) {
+        final int hash = key.hashCode();
+        return hash ^ hash >>> 16;
+    }
+
+    /**
+     * Search the keys linearly.
+     * @param key Key to find.
+     * @return Position or -1 if there is no such key.
+     */
+    private int scan(final Object key) {
+        final int hash = JsonKeys.hash(key);
+        int pos = -1;
+        for (int idx = 0; idx < this.size && pos < 0; ++idx) {
+            if (this.hashes[idx] == hash && key.equals(this.names[idx])) {
+                pos = idx;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Search the keys through the index.
+     * @param key Key to find.
+     * @return Position or -1 if there is no such key.
+     */
+    private int probe(final Object key) {
+        final int hash = JsonKeys.hash(key);
+        final int mask = this.index.length - 1;
+        int slot = hash & mask;
+        int pos = -2;
+        while (pos == -2) {
+            final int found = this.index[slot] - 1;
+            if (found < 0) {
+                pos = -1;
+            } else if (this.hashes[found] == hash
+                && key.equals(this.names[found])) {
+                pos = found;
+            } else {
+                slot = slot + 1 & mask;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Build the index again, with room for twice as many keys as there are,
+     * so it is at most half full.
+     */
+    private void reindex() {
+        this.index = new int[Integer.highestOneBit(this.size * 2 - 1) << 1];
+        for (int pos = 0; pos < this.size; ++pos) {
+            this.insert(this.hashes[pos], pos);
+        }
+    }
+
+    /**
+     * Put a key's position in the index, which has room for it.
+     * @param hash Hash of the key.
+     * @param pos Position of the key.
+     */
+    private void insert(final int hash, final int pos) {
+        final int mask = this.index.length - 1;
+        int slot = hash & mask;
+        while (this.index[slot] != 0) {
+            slot = slot + 1 & mask;
+        }
+        this.index[slot] = pos + 1;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.math.BigDecimal;
+import javax.json.stream.JsonLocation;
+
+/**
+ * Splits the JSON input into tokens, which are then put together
+ * by {@link RtJsonParser}. The content of the current token is only valid
+ * until {@link #next()} is called again.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+interface JsonLexer {
+
+    /**
+     * Move to the next token.
+     * @return The kind of the token, {@link JsonToken#EOF} if the input
+     *  is over.
+     * @throws javax.json.stream.JsonParsingException If the token is
+     *  not valid JSON.
+     */
+    JsonToken next();
+
+    /**
+     * Is there anything left in the input, other than whitespace?
+     * The current token stays valid.
+     * @return True if the input is over, false otherwise.
+     */
+    boolean done();
+
+    /**
+     * Text of the current token. For a {@link JsonToken#STRING}, this is
+     * the unquoted and unescaped value, for a {@link JsonToken#NUMBER} it is
+     * the number, exactly as it was read.
+     * @return String.
+     */
+    String text();
+
+    /**
+     * Text of the current {@link JsonToken#STRING}, which is an object key.
+     * Same as {@link #text()}, except that the same key may be given as the
+     * same String instance every time, without decoding it again.
+     * @return String.
+     */
+    String key();
+
+    /**
+     * The current {@link JsonToken#NUMBER} as a BigDecimal. It is built
+     * every time this method is called.
+     * @return BigDecimal.
+     */
+    BigDecimal decimal();
+
+    /**
+     * Does the current {@link JsonToken#NUMBER} have no fraction and
+     * no exponent?
+     * @return True or false.
+     */
+    boolean integral();
+
+    /**
+     * Is the current {@link JsonToken#NUMBER} an integer with at most
+     * 18 digits, which surely fits in a long?
+     * @return True or false.
+     */
+    boolean fitsLong();
+
+    /**
+     * Value of the current {@link JsonToken#NUMBER}, only valid if
+     * {@link #fitsLong()} is true.
+     * @return Long.
+     */
+    long longValue();
+
+    /**
+     * Where are we in the input?
+     * @return JsonLocation.
+     */
+    JsonLocation location();
+
+    /**
+     * Close the underlying input.
+     */
+    void close();
+
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.json.JsonValue;
+
+/**
+ * Spliterator over the values of newline-delimited JSON (NDJSON, JSON
+ * Lines) in a ByteBuffer. It splits at the first newline after the middle of
+ * its range, so a parallel Stream parses the halves on different threads of
+ * the ForkJoinPool, each line with its own parser. Blank lines are skipped.
+ * The estimated size is the number of bytes left, not the number of lines.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class JsonLines implements Spliterator<JsonValue> {
+
+    /**
+     * Ranges smaller than this, in bytes, are not split.
+     */
+    static final int MIN_SPLIT = 1 << 14;
+
+    /**
+     * The NDJSON.
+     */
+    private final ByteBuffer source;
+
+    /**
+     * Parses a line, given as a ByteBuffer without the newline.
+     */
+    private final Function<ByteBuffer, JsonValue> reader;
+
+    /**
+     * Index of the next line.
+     */
+    private int pos;
+
+    /**
+     * Index after the last byte of the range.
+     */
+    private final int end;
+
+    /**
+     * Ctor.
+     * @param source The NDJSON, from its position up to its limit.
+     * @param reader Parses a line.
+     */
+    JsonLines(
+        final ByteBuffer source, final Function<ByteBuffer, JsonValue> reader
+    ) {
+        this.source = source;
+        this.reader = reader;
+        this.pos = source.position();
+        this.end = source.limit();
+    }
+
+    /**
+     * Ctor for the first part of a split.
+     * @param whole Spliterator which is split.
+     * @param until Index after the last byte of the first part.
+     */
+    private JsonLines(final JsonLines whole, final int until) {
+        this.source = whole.source;
+        this.reader = whole.reader;
+        this.pos = whole.pos;
+        this.end = until;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super JsonValue> action) {
+        boolean found = false;
+        while (!found && this.pos < this.end) {
+            final int stop = this.newline(this.pos);
+            if (!this.blank(this.pos, stop)) {
+                final ByteBuffer line = this.source.duplicate();
+                line.limit(stop);
+                line.position(this.pos);
+                this.pos = stop + 1;
+                action.accept(this.reader.apply(line.slice()));
+                found = true;
+            } else {
+                this.pos = stop + 1;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Spliterator<JsonValue> trySplit() {
+        Spliterator<JsonValue> prefix = null;
+        if (this.end - this.pos >= JsonLines.MIN_SPLIT) {
+            final int middle = this.newline(
+                this.pos + (this.end - this.pos) / 2
+            ) + 1;
+            if (middle < this.end) {
+                prefix = new JsonLines(this, middle);
+                this.pos = middle;
+            }
+        }
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.max(this.end - this.pos, 0);
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL
+            | Spliterator.IMMUTABLE;
+    }
+
+    /**
+     * Index of the first newline at or after the given index.
+     * @param from Where to start looking.
+     * @return Index of the newline or the end of the range.
+     */
+    private int newline(final int from) {
+        int idx = from;
+        while (idx < this.end && this.source.get(idx) != '\n') {
+            ++idx;
+        }
+        return idx;
+    }
+
+    /**
+     * Is there only whitespace between the given indexes?
+     * @param from First index.
+     * @param until Index after the last byte.
+     * @return True or false.
+     */
+    private boolean blank(final int from, final int until) {
+        boolean blank = true;
+        for (int idx = from; blank && idx < until; ++idx) {
+            final byte chr = this.source.get(idx);
+            blank = chr == ' ' || chr == '\t' || chr == '\r';
+        }
+        return blank;
+    }
+}
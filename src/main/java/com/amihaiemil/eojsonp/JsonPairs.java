@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Arrays;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+/**
+ * The pairs of a JsonObject which is being put together: {@link JsonKeys}
+ * and a growable array with the values. Adding a key which is already
+ * there replaces its value. The built JsonObjects get their keys from
+ * {@link Shapes}, so the ones with the same keys share them.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class JsonPairs {
+
+    /**
+     * The keys.
+     */
+    private final JsonKeys keys;
+
+    /**
+     * Where the keys of the built JsonObjects come from.
+     */
+    private final Shapes shapes;
+
+    /**
+     * The values.
+     */
+    private JsonValue[] values;
+
+    /**
+     * Ctor.
+     * @param capacity Expected number of pairs.
+     */
+    JsonPairs(final int capacity) {
+        this(capacity, Shapes.COMMON);
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Expected number of pairs.
+     * @param shapes Where the keys of the built JsonObjects come from.
+     */
+    JsonPairs(final int capacity, final Shapes shapes) {
+        this.keys = new JsonKeys(capacity);
+        this.shapes = shapes;
+        this.values = new JsonValue[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Add a pair, or replace the value of the key if it is already there.
+     * @param name Key.
+     * @param value Value.
+     */
+    void put(final String name, final JsonValue value) {
+        int pos = this.keys.find(name);
+        if (pos < 0) {
+            pos = this.keys.add(name);
+            if (pos == this.values.length) {
+                this.values = Arrays.copyOf(this.values, pos * 2);
+            }
+        }
+        this.values[pos] = value;
+    }
+
+    /**
+     * Number of pairs.
+     * @return Int.
+     */
+    int size() {
+        return this.keys.size();
+    }
+
+    /**
+     * Build the JsonObject of the pairs added so far. The values are
+     * copied and the keys interned, so this instance can still be modified
+     * or cleared.
+     * @return JsonObject.
+     */
+    JsonObject build() {
+        return new RtJsonObject(
+            this.shapes.intern(this.keys),
+            Arrays.copyOf(this.values, this.keys.size())
+        );
+    }
+
+    /**
+     * Remove all the pairs, keeping the arrays for the next ones.
+     */
+    void clear() {
+        Arrays.fill(this.values, 0, this.keys.size(), null);
+        this.keys.clear();
+    }
+}
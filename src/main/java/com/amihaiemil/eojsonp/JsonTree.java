@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Arrays;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Builds the tree of a JsonValue from the events of a JsonParser, without
+ * recursion: the open JsonObjects and JsonArrays are kept on an explicit
+ * stack, so how deep the input is nested is only limited by the heap, not
+ * by the thread's stack.
+ *
+ * Each new JsonObject or JsonArray is presized from the size of the last
+ * one completed at the same depth, since siblings (e.g. the records of a
+ * JsonArray) usually have the same size.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class JsonTree {
+
+    /**
+     * Size of a new structure, when there is no sibling to learn from.
+     */
+    private static final int DEFAULT_SIZE = 8;
+
+    /**
+     * The events come from here.
+     */
+    private final JsonParser parser;
+
+    /**
+     * JsonPairs and RtJsonArrayBuilders of the open structures, the
+     * innermost one last.
+     */
+    private Object[] open;
+
+    /**
+     * Last key read in each open JsonObject.
+     */
+    private String[] keys;
+
+    /**
+     * Size of the last structure completed at each depth.
+     */
+    private int[] sizes;
+
+    /**
+     * Number of open structures.
+     */
+    private int depth;
+
+    /**
+     * Ctor.
+     * @param parser Parser giving the events.
+     */
+    JsonTree(final JsonParser parser) {
+        this.parser = parser;
+        this.open = new Object[16];
+        this.keys = new String[16];
+        this.sizes = new int[16];
+    }
+
+    /**
+     * Build the JsonValue which starts with the given event, pulling the
+     * rest of its events from the parser.
+     * @param first First event of the value, already read.
+     * @return JsonValue.
+     */
+    JsonValue build(final Event first) {
+        JsonValue value = this.step(first);
+        while (value == null || this.depth > 0) {
+            if (value != null) {
+                this.add(value);
+            }
+            value = this.step(this.parser.next());
+        }
+        return value;
+    }
+
+    /**
+     * Handle one event.
+     * @param event Event.
+     * @return The completed value, or null if there is none yet.
+     */
+    private JsonValue step(final Event event) {
+        JsonValue value = null;
+        if (event == Event.START_OBJECT || event == Event.START_ARRAY) {
+            this.push(event == Event.START_OBJECT);
+        } else if (event == Event.KEY_NAME) {
+            this.keys[this.depth - 1] = this.parser.getString();
+        } else if (event == Event.END_OBJECT || event == Event.END_ARRAY) {
+            value = this.pop();
+        } else {
+            value = this.scalar(event);
+        }
+        return value;
+    }
+
+    /**
+     * The value of a scalar event.
+     * @param event Event.
+     * @return JsonValue.
+     */
+    private JsonValue scalar(final Event event) {
+        final JsonValue value;
+        if (event == Event.VALUE_STRING) {
+            value = new RtJsonString(this.parser.getString());
+        } else if (event == Event.VALUE_NUMBER) {
+            value = this.number();
+        } else if (event == Event.VALUE_TRUE) {
+            value = JsonValue.TRUE;
+        } else if (event == Event.VALUE_FALSE) {
+            value = JsonValue.FALSE;
+        } else {
+            value = JsonValue.NULL;
+        }
+        return value;
+    }
+
+    /**
+     * The current number. RtJsonParser gives it in the most compact form,
+     * without building a BigDecimal for the ones which fit in a long.
+     * @return JsonValue.
+     */
+    private JsonValue number() {
+        final JsonValue number;
+        if (this.parser instanceof RtJsonParser) {
+            number = ((RtJsonParser) this.parser).number();
+        } else {
+            number = new RtJsonNumber(this.parser.getBigDecimal());
+        }
+        return number;
+    }
+
+    /**
+     * Open a new structure, presized like its last sibling.
+     * @param object Is it a JsonObject?
+     */
+    private void push(final boolean object) {
+        if (this.depth == this.open.length) {
+            final int grown = this.depth * 2;
+            this.open = Arrays.copyOf(this.open, grown);
+            this.keys = Arrays.copyOf(this.keys, grown);
+            this.sizes = Arrays.copyOf(this.sizes, grown);
+        }
+        int size = this.sizes[this.depth];
+        if (size == 0) {
+            size = JsonTree.DEFAULT_SIZE;
+        }
+        if (object) {
+            this.open[this.depth] = new JsonPairs(size);
+        } else {
+            this.open[this.depth] = new RtJsonArrayBuilder(size);
+        }
+        this.depth = this.depth + 1;
+    }
+
+    /**
+     * Add a value to the innermost open structure.
+     * @param value JsonValue.
+     */
+    private void add(final JsonValue value) {
+        final Object parent = this.open[this.depth - 1];
+        if (parent instanceof JsonPairs) {
+            ((JsonPairs) parent).put(
+                this.keys[this.depth - 1], value
+            );
+        } else {
+            ((RtJsonArrayBuilder) parent).add(value);
+        }
+    }
+
+    /**
+     * Close the innermost open structure.
+     * @return The completed JsonObject or JsonArray.
+     */
+    private JsonValue pop() {
+        this.depth = this.depth - 1;
+        final Object done = this.open[this.depth];
+        this.open[this.depth] = null;
+        this.keys[this.depth] = null;
+        final JsonValue value;
+        if (done instanceof JsonPairs) {
+            final JsonPairs pairs = (JsonPairs) done;
+            this.sizes[this.depth] = pairs.size();
+            value = pairs.build();
+        } else {
+            final RtJsonArrayBuilder values = (RtJsonArrayBuilder) done;
+            this.sizes[this.depth] = values.size();
+            value = values.build();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * JsonArray built by {@link RtJsonArrayBuilder} when only ints and longs
+ * were added, kept in a long[]. Each call to {@link #get(int)} wraps the
+ * value in a new LongJsonNumber, which is cheaper than keeping one for
+ * every value.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class LongJsonArray extends AbstractJsonArray {
+
+    /**
+     * The values.
+     */
+    private final long[] values;
+
+    /**
+     * Ctor.
+     * @param values The values, which nobody else should modify.
+     */
+    LongJsonArray(final long... values) {
+        this.values = values;
+    }
+
+    @Override
+    public JsonValue get(final int index) {
+        return new LongJsonNumber(this.values[index]);
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public String toString() {
+        final TextOutput text = new TextOutput();
+        final JsonGenerator gen = new RtJsonGenerator(text).writeStartArray();
+        for (final long value : this.values) {
+            gen.write(value);
+        }
+        gen.writeEnd();
+        return text.toString();
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import javax.json.JsonException;
+
+/**
+ * ByteInput mapping a file into memory, one window at a time, so a
+ * {@link Utf8Lexer} reads the bytes straight from the page cache, without
+ * copying them into a heap buffer first. Each refill maps the next window,
+ * starting with the bytes which still have to be kept, so files bigger than
+ * what a single ByteBuffer can address (2GB) are read transparently. A
+ * window is only doubled when a single token does not fit in it.<br><br>
+ * The file is expected to be UTF-8; a byte order mark is skipped. Mapped
+ * windows are released by the garbage collector.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class MappedInput implements ByteInput {
+
+    /**
+     * Default size of a window, in bytes.
+     */
+    static final int WINDOW_SIZE = 1 << 26;
+
+    /**
+     * The mapped file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Size of the file, read when the first window is mapped.
+     */
+    private long length;
+
+    /**
+     * Position in the file of the current window.
+     */
+    private long offset;
+
+    /**
+     * Size of the windows.
+     */
+    private int size;
+
+    /**
+     * Ctor.
+     * @param channel The file.
+     */
+    MappedInput(final FileChannel channel) {
+        this(channel, MappedInput.WINDOW_SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param channel The file.
+     * @param size Size of a window, in bytes.
+     */
+    MappedInput(final FileChannel channel, final int size) {
+        this.channel = channel;
+        this.size = size;
+        this.length = -1;
+    }
+
+    @Override
+    public ByteBuffer refill(final ByteBuffer buffer, final int keep) {
+        final int kept = buffer.limit() - keep;
+        try {
+            if (this.length < 0) {
+                this.length = this.channel.size();
+                this.offset = this.bom();
+            } else {
+                this.offset = this.offset + keep;
+            }
+            if (keep == 0 && kept == this.size) {
+                this.grow();
+            }
+            return this.channel.map(
+                FileChannel.MapMode.READ_ONLY, this.offset,
+                Math.min(this.size, this.length - this.offset)
+            );
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to map the JSON file.", ex
+            );
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.channel.close();
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to close the FileChannel.", ex
+            );
+        }
+    }
+
+    /**
+     * Length of the byte order mark at the beginning of the file.
+     * @return Three if the file starts with a UTF-8 BOM, zero otherwise.
+     * @throws IOException If the file cannot be read.
+     */
+    private long bom() throws IOException {
+        final ByteBuffer head = ByteBuffer.allocate(3);
+        long skip = 0;
+        if (this.channel.read(head, 0) == 3 && head.get(0) == (byte) 0xEF
+            && head.get(1) == (byte) 0xBB && head.get(2) == (byte) 0xBF) {
+            skip = 3;
+        }
+        return skip;
+    }
+
+    /**
+     * Double the size of the windows, since a token does not fit in one.
+     */
+    private void grow() {
+        if (this.size == Integer.MAX_VALUE) {
+            throw new JsonException(
+                "A single JSON token is bigger than 2GB."
+            );
+        }
+        this.size = (int) Math.min(this.size * 2L, Integer.MAX_VALUE);
+    }
+}
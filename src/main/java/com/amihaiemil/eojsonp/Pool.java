@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe, lock-free pool of reusable objects, with a fixed number of
+ * slots. Taking from an empty pool or giving to a full one does nothing,
+ * so the caller allocates or drops the object instead.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ * @param <T> Type of the pooled objects.
+ */
+final class Pool<T> {
+
+    /**
+     * The slots, null when empty.
+     */
+    private final AtomicReferenceArray<T> slots;
+
+    /**
+     * Ctor.
+     * @param capacity Number of slots; 0 means nothing is ever pooled.
+     */
+    Pool(final int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Take an object out of the pool.
+     * @return The object or null, if the pool is empty.
+     */
+    T take() {
+        T taken = null;
+        for (int idx = 0; taken == null && idx < this.slots.length(); ++idx) {
+            if (this.slots.get(idx) != null) {
+                taken = this.slots.getAndSet(idx, null);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Give an object back to the pool.
+     * @param object The object, which must not be used anymore.
+     * @return True if it was pooled, false if the pool is full.
+     */
+    boolean give(final T object) {
+        boolean given = false;
+        for (int idx = 0; !given && idx < this.slots.length(); ++idx) {
+            if (this.slots.get(idx) == null) {
+                given = this.slots.compareAndSet(idx, null, object);
+            }
+        }
+        return given;
+    }
+}
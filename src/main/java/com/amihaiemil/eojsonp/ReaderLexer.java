@@ -0,0 +1,639 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import javax.json.JsonException;
+import javax.json.stream.JsonLocation;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * JsonLexer which reads the JSON from a Reader. It pulls fixed-size blocks of
+ * chars into one reusable buffer and tokenizes them in place, so the memory
+ * it needs does not depend on the size of the input (the buffer only grows
+ * if a single token is bigger than it).
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class ReaderLexer implements JsonLexer {
+
+    /**
+     * Default size of the buffer, in chars.
+     */
+    static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Tokens made of a single character, indexed by that character.
+     */
+    private static final JsonToken[] PUNCTUATION = new JsonToken[128];
+
+    /**
+     * Characters which can follow a backslash in a String.
+     */
+    private static final String ESCAPES = "\"\\/bfnrt";
+
+    /**
+     * What each of the ESCAPES stands for.
+     */
+    private static final String UNESCAPED = "\"\\/\b\f\n\r\t";
+
+    static {
+        PUNCTUATION['{'] = JsonToken.BEGIN_OBJECT;
+        PUNCTUATION['}'] = JsonToken.END_OBJECT;
+        PUNCTUATION['['] = JsonToken.BEGIN_ARRAY;
+        PUNCTUATION[']'] = JsonToken.END_ARRAY;
+        PUNCTUATION[':'] = JsonToken.COLON;
+        PUNCTUATION[','] = JsonToken.COMMA;
+    }
+
+    /**
+     * Where the JSON comes from.
+     */
+    private final Reader reader;
+
+    /**
+     * Where the buffer comes from and goes back to.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Chars read so far and not yet consumed.
+     */
+    private char[] buffer;
+
+    /**
+     * Index of the next char to look at.
+     */
+    private int pos;
+
+    /**
+     * How many chars in the buffer are valid.
+     */
+    private int limit;
+
+    /**
+     * Index where the current token starts. Everything from here on is
+     * kept when the buffer is refilled.
+     */
+    private int start;
+
+    /**
+     * Index where the content of the current token ends (exclusive).
+     */
+    private int end;
+
+    /**
+     * Current token.
+     */
+    private JsonToken token;
+
+    /**
+     * Does the current number have no fraction and no exponent?
+     */
+    private boolean integral;
+
+    /**
+     * Does the current number surely fit in a long?
+     */
+    private boolean fits;
+
+    /**
+     * Value of the current number, if it fits in a long.
+     */
+    private long value;
+
+    /**
+     * Does the current String token contain escape sequences?
+     */
+    private boolean escaped;
+
+    /**
+     * Is the Reader exhausted?
+     */
+    private boolean eof;
+
+    /**
+     * How many chars were discarded from the beginning of the buffer.
+     */
+    private long consumed;
+
+    /**
+     * Current line, starting from 1.
+     */
+    private long line;
+
+    /**
+     * Offset at which the current line starts.
+     */
+    private long bol;
+
+    /**
+     * Known object keys, taken from the pool when the first key is read.
+     */
+    private Symbols symbols;
+
+    /**
+     * Was the buffer given back to the pool?
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param reader Reader to read the JSON from.
+     */
+    ReaderLexer(final Reader reader) {
+        this(reader, ReaderLexer.BUFFER_SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param reader Reader to read the JSON from.
+     * @param size Size of the buffer, in chars.
+     */
+    ReaderLexer(final Reader reader, final int size) {
+        this(reader, new BufferPool(size));
+    }
+
+    /**
+     * Ctor.
+     * @param reader Reader to read the JSON from.
+     * @param pool Pool of buffers; the buffer goes back to it on close.
+     */
+    ReaderLexer(final Reader reader, final BufferPool pool) {
+        this.reader = reader;
+        this.pool = pool;
+        this.buffer = pool.chars();
+        this.line = 1;
+    }
+
+    @Override
+    public JsonToken next() {
+        this.skip();
+        this.start = this.pos;
+        final JsonToken next;
+        if (this.pos == this.limit) {
+            next = JsonToken.EOF;
+        } else {
+            final char chr = this.buffer[this.pos];
+            if (chr < PUNCTUATION.length && PUNCTUATION[chr] != null) {
+                next = PUNCTUATION[chr];
+                ++this.pos;
+            } else if (chr == '"') {
+                next = this.string();
+            } else if (chr == '-' || chr >= '0' && chr <= '9') {
+                next = this.number();
+            } else {
+                next = this.literal(chr);
+            }
+        }
+        this.token = next;
+        return next;
+    }
+
+    @Override
+    public boolean done() {
+        this.skip();
+        return this.pos == this.limit;
+    }
+
+    @Override
+    public String text() {
+        final String text;
+        if (this.token == JsonToken.STRING) {
+            if (this.escaped) {
+                text = this.unescape();
+            } else {
+                text = new String(
+                    this.buffer, this.start + 1, this.end - this.start - 1
+                );
+            }
+        } else {
+            text = new String(this.buffer, this.start, this.end - this.start);
+        }
+        return text;
+    }
+
+    @Override
+    public String key() {
+        String key;
+        if (this.escaped) {
+            key = this.text();
+        } else {
+            if (this.symbols == null) {
+                this.symbols = this.pool.symbols();
+            }
+            key = this.symbols.find(this.buffer, this.start + 1, this.end);
+            if (key == null) {
+                key = this.symbols.remember(this.text());
+            }
+        }
+        return key;
+    }
+
+    @Override
+    public BigDecimal decimal() {
+        return new BigDecimal(this.buffer, this.start, this.end - this.start);
+    }
+
+    @Override
+    public boolean integral() {
+        return this.integral;
+    }
+
+    @Override
+    public boolean fitsLong() {
+        return this.fits;
+    }
+
+    @Override
+    public long longValue() {
+        return this.value;
+    }
+
+    @Override
+    public JsonLocation location() {
+        return new RtJsonLocation(
+            this.line,
+            this.consumed + this.pos - this.bol + 1,
+            this.consumed + this.pos
+        );
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.pool.release(this.buffer);
+            if (this.symbols != null) {
+                this.pool.release(this.symbols);
+                this.symbols = null;
+            }
+            this.buffer = new char[0];
+            this.pos = 0;
+            this.limit = 0;
+            this.start = 0;
+            this.end = 0;
+            this.eof = true;
+        }
+        try {
+            this.reader.close();
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to close the Reader.", ex
+            );
+        }
+    }
+
+    /**
+     * Skip whitespace, counting lines. Afterwards, pos either points to
+     * a non-whitespace char or is equal to limit, meaning the input is over.
+     */
+    private void skip() {
+        boolean blank = true;
+        while (blank && (this.pos < this.limit || this.fill())) {
+            final char chr = this.buffer[this.pos];
+            if (chr == '\n') {
+                ++this.line;
+                this.bol = this.consumed + this.pos + 1;
+            }
+            blank = chr == ' ' || chr == '\n' || chr == '\r' || chr == '\t';
+            if (blank) {
+                ++this.pos;
+            }
+        }
+    }
+
+    /**
+     * Scan a String token. The content is validated, but not decoded.
+     * @return JsonToken.STRING.
+     */
+    private JsonToken string() {
+        this.escaped = false;
+        ++this.pos;
+        char chr = this.plain();
+        while (chr != '"') {
+            if (chr == '\\') {
+                this.escape();
+            } else {
+                throw this.error("Unescaped control character in String");
+            }
+            chr = this.plain();
+        }
+        this.end = this.pos;
+        ++this.pos;
+        return JsonToken.STRING;
+    }
+
+    /**
+     * Skip over the chars of a String which need no special attention.
+     * @return The first special char (quote, backslash or control char),
+     *  at which pos points afterwards.
+     */
+    private char plain() {
+        boolean found = false;
+        while (!found) {
+            if (this.pos == this.limit && !this.fill()) {
+                throw this.error("Unexpected end of input inside a String");
+            }
+            final char[] buf = this.buffer;
+            final int lim = this.limit;
+            int idx = this.pos;
+            while (idx < lim && buf[idx] != '"' && buf[idx] != '\\'
+                && buf[idx] >= ' ') {
+                ++idx;
+            }
+            this.pos = idx;
+            found = idx < lim;
+        }
+        return this.buffer[this.pos];
+    }
+
+    /**
+     * Validate an escape sequence. Pos points to the backslash.
+     */
+    private void escape() {
+        this.escaped = true;
+        ++this.pos;
+        final int chr = this.current();
+        if (chr == 'u') {
+            ++this.pos;
+            for (int idx = 0; idx < 4; ++idx) {
+                if (Hex.value(this.current()) < 0) {
+                    throw this.error("Invalid unicode escape sequence");
+                }
+                ++this.pos;
+            }
+        } else if (chr < 0 || ESCAPES.indexOf(chr) < 0) {
+            throw this.error("Invalid escape sequence");
+        } else {
+            ++this.pos;
+        }
+    }
+
+    /**
+     * Decode the current String token, which contains escape sequences.
+     * @return String.
+     */
+    private String unescape() {
+        final StringBuilder text = new StringBuilder(this.end - this.start);
+        int idx = this.start + 1;
+        while (idx < this.end) {
+            final char chr = this.buffer[idx];
+            if (chr == '\\') {
+                final char kind = this.buffer[idx + 1];
+                if (kind == 'u') {
+                    int code = 0;
+                    for (int hex = idx + 2; hex < idx + 6; ++hex) {
+                        code = code * 16
+                            + Hex.value(this.buffer[hex]);
+                    }
+                    text.append((char) code);
+                    idx = idx + 6;
+                } else {
+                    text.append(UNESCAPED.charAt(ESCAPES.indexOf(kind)));
+                    idx = idx + 2;
+                }
+            } else {
+                text.append(chr);
+                ++idx;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Scan a number token, validating it against the JSON grammar. The
+     * digits of the integer part are accumulated into a long on the way,
+     * so small integers can be read without building a BigDecimal.
+     * @return JsonToken.NUMBER.
+     */
+    private JsonToken number() {
+        final boolean negative = this.current() == '-';
+        if (negative) {
+            ++this.pos;
+        }
+        final int digits;
+        if (this.current() == '0') {
+            ++this.pos;
+            this.value = 0;
+            digits = 1;
+        } else {
+            digits = this.integer();
+        }
+        if (digits == 0) {
+            throw this.error("Invalid number, expected a digit");
+        }
+        final boolean fraction = this.fraction();
+        final boolean exponent = this.exponent();
+        this.integral = !fraction && !exponent;
+        this.fits = this.integral && digits < 19;
+        if (negative) {
+            this.value = -this.value;
+        }
+        this.end = this.pos;
+        return JsonToken.NUMBER;
+    }
+
+    /**
+     * Skip over the digits of the integer part of a number, accumulating
+     * them into the value. The value overflows after 18 digits, but then
+     * it is not used anymore.
+     * @return How many digits were skipped.
+     */
+    private int integer() {
+        int digits = 0;
+        long acc = 0;
+        int chr = this.current();
+        while (chr >= '0' && chr <= '9') {
+            acc = acc * 10 + chr - '0';
+            ++digits;
+            ++this.pos;
+            chr = this.current();
+        }
+        this.value = acc;
+        return digits;
+    }
+
+    /**
+     * Skip over the fraction of a number, if there is one.
+     * @return True if there was a fraction.
+     */
+    private boolean fraction() {
+        final boolean fraction = this.current() == '.';
+        if (fraction) {
+            ++this.pos;
+            this.mandatoryDigits();
+        }
+        return fraction;
+    }
+
+    /**
+     * Skip over the exponent of a number, if there is one.
+     * @return True if there was an exponent.
+     */
+    private boolean exponent() {
+        final int chr = this.current();
+        final boolean exponent = chr == 'e' || chr == 'E';
+        if (exponent) {
+            ++this.pos;
+            final int sign = this.current();
+            if (sign == '+' || sign == '-') {
+                ++this.pos;
+            }
+            this.mandatoryDigits();
+        }
+        return exponent;
+    }
+
+    /**
+     * Skip over at least one digit.
+     */
+    private void mandatoryDigits() {
+        if (this.digits() == 0) {
+            throw this.error("Invalid number, expected a digit");
+        }
+    }
+
+    /**
+     * Skip over digits.
+     * @return How many digits were skipped.
+     */
+    private int digits() {
+        int count = 0;
+        int chr = this.current();
+        while (chr >= '0' && chr <= '9') {
+            ++count;
+            ++this.pos;
+            chr = this.current();
+        }
+        return count;
+    }
+
+    /**
+     * Scan one of the literals true, false or null.
+     * @param first First char of the literal.
+     * @return JsonToken.
+     */
+    private JsonToken literal(final char first) {
+        final JsonToken literal;
+        final String word;
+        if (first == 't') {
+            literal = JsonToken.TRUE;
+            word = "true";
+        } else if (first == 'f') {
+            literal = JsonToken.FALSE;
+            word = "false";
+        } else if (first == 'n') {
+            literal = JsonToken.NULL;
+            word = "null";
+        } else {
+            throw this.error("Unexpected character '" + first + "'");
+        }
+        for (int idx = 0; idx < word.length(); ++idx) {
+            if (this.current() != word.charAt(idx)) {
+                throw this.error("Invalid literal, expected " + word);
+            }
+            ++this.pos;
+        }
+        return literal;
+    }
+
+    /**
+     * The char at pos, reading more input if needed.
+     * @return The char or -1 if the input is over.
+     */
+    private int current() {
+        final int chr;
+        if (this.pos < this.limit || this.fill()) {
+            chr = this.buffer[this.pos];
+        } else {
+            chr = -1;
+        }
+        return chr;
+    }
+
+    /**
+     * Read more chars into the buffer. Whatever is before the start of
+     * the current token is discarded; if the current token fills the whole
+     * buffer, the buffer is enlarged.
+     * @return True if there are more chars to look at, false if the input
+     *  is over.
+     */
+    private boolean fill() {
+        if (!this.eof) {
+            if (this.start > 0) {
+                final int shift = this.start;
+                System.arraycopy(
+                    this.buffer, shift, this.buffer, 0, this.limit - shift
+                );
+                this.consumed = this.consumed + shift;
+                this.limit = this.limit - shift;
+                this.pos = this.pos - shift;
+                this.end = this.end - shift;
+                this.start = 0;
+            } else if (this.limit == this.buffer.length) {
+                this.buffer = Arrays.copyOf(
+                    this.buffer, this.buffer.length * 2
+                );
+            }
+            this.read();
+        }
+        return this.pos < this.limit;
+    }
+
+    /**
+     * Read the next block of chars after limit.
+     */
+    private void read() {
+        try {
+            final int read = this.reader.read(
+                this.buffer, this.limit, this.buffer.length - this.limit
+            );
+            if (read < 0) {
+                this.eof = true;
+            } else {
+                this.limit = this.limit + read;
+            }
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to read the JSON input.", ex
+            );
+        }
+    }
+
+    /**
+     * Build a parsing exception for the current location.
+     * @param message Error message.
+     * @return JsonParsingException.
+     */
+    private JsonParsingException error(final String message) {
+        return new JsonParsingException(message, this.location());
+    }
+}
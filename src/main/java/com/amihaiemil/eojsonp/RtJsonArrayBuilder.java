@@ -27,77 +27,300 @@ package com.amihaiemil.eojsonp;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
 import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonValue;
 
 /**
- * Base JsonArrayBuilder implementation. Rt stands for "runtime".
+ * Base JsonArrayBuilder implementation. Rt stands for "runtime". The values
+ * are added to a growable array, without boxing them into a List. As long
+ * as only ints, longs or doubles are added, they are kept as primitives and
+ * the built JsonArray is an {@link IntJsonArray}, a {@link LongJsonArray}
+ * or a {@link DoubleJsonArray}; ints and longs can be mixed, doubles with
+ * nothing else, since 1 and 1.0 are not written the same way. After
+ * {@link #build()}, the builder is empty and can be used again.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.1
  */
 final class RtJsonArrayBuilder implements JsonArrayBuilder {
 
+    /**
+     * Nothing was added yet.
+     */
+    private static final byte EMPTY = 0;
+
+    /**
+     * Only ints were added, kept in the longs.
+     */
+    private static final byte INTS = 1;
+
+    /**
+     * Only ints and longs were added, kept in the longs.
+     */
+    private static final byte LONGS = 2;
+
+    /**
+     * Only doubles were added, kept in the doubles.
+     */
+    private static final byte DOUBLES = 3;
+
+    /**
+     * Anything else was added, everything is kept in the values.
+     */
+    private static final byte VALUES = 4;
+
+    /**
+     * Initial capacity.
+     */
+    private final int capacity;
+
+    /**
+     * What was added so far.
+     */
+    private byte kind;
+
+    /**
+     * Number of values added.
+     */
+    private int size;
+
+    /**
+     * Added ints and longs.
+     */
+    private long[] longs;
+
+    /**
+     * Added doubles.
+     */
+    private double[] doubles;
+
+    /**
+     * Added values.
+     */
+    private JsonValue[] values;
+
+    /**
+     * Ctor.
+     */
+    RtJsonArrayBuilder() {
+        this(8);
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Expected number of values.
+     */
+    RtJsonArrayBuilder(final int capacity) {
+        this.capacity = Math.max(capacity, 1);
+    }
+
     @Override
     public JsonArrayBuilder add(final JsonValue value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        this.value(Objects.requireNonNull(value, "The value cannot be null."));
+        return this;
     }
 
     @Override
     public JsonArrayBuilder add(final String value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(
+            new RtJsonString(
+                Objects.requireNonNull(value, "The value cannot be null.")
+            )
+        );
     }
 
     @Override
     public JsonArrayBuilder add(final BigDecimal value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(
+            new RtJsonNumber(
+                Objects.requireNonNull(value, "The value cannot be null.")
+            )
+        );
     }
 
     @Override
     public JsonArrayBuilder add(final BigInteger value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(new RtJsonNumber(new BigDecimal(value)));
     }
 
     @Override
     public JsonArrayBuilder add(final int value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        if (this.kind == RtJsonArrayBuilder.EMPTY
+            || this.kind == RtJsonArrayBuilder.INTS) {
+            this.kind = RtJsonArrayBuilder.INTS;
+            this.primitive(value);
+        } else if (this.kind == RtJsonArrayBuilder.LONGS) {
+            this.primitive(value);
+        } else {
+            this.value(new IntJsonNumber(value));
+        }
+        return this;
     }
 
     @Override
     public JsonArrayBuilder add(final long value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        if (this.kind < RtJsonArrayBuilder.DOUBLES) {
+            this.kind = RtJsonArrayBuilder.LONGS;
+            this.primitive(value);
+        } else {
+            this.value(new LongJsonNumber(value));
+        }
+        return this;
     }
 
     @Override
     public JsonArrayBuilder add(final double value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        if (this.kind == RtJsonArrayBuilder.EMPTY
+            || this.kind == RtJsonArrayBuilder.DOUBLES) {
+            this.kind = RtJsonArrayBuilder.DOUBLES;
+            this.primitive(value);
+        } else {
+            this.value(new DoubleJsonNumber(value));
+        }
+        return this;
     }
 
     @Override
     public JsonArrayBuilder add(final boolean value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        //@checkstyle AvoidInlineConditionals (1 line)
+        return this.add(value ? JsonValue.TRUE : JsonValue.FALSE);
     }
 
     @Override
     public JsonArrayBuilder addNull() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(JsonValue.NULL);
     }
 
     @Override
     public JsonArrayBuilder add(final JsonObjectBuilder builder) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(
+            Objects.requireNonNull(builder, "The builder cannot be null.")
+                .build()
+        );
     }
 
     @Override
     public JsonArrayBuilder add(final JsonArrayBuilder builder) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(
+            Objects.requireNonNull(builder, "The builder cannot be null.")
+                .build()
+        );
     }
 
     @Override
     public JsonArray build() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        final JsonArray array;
+        if (this.kind == RtJsonArrayBuilder.INTS) {
+            final int[] ints = new int[this.size];
+            for (int idx = 0; idx < this.size; ++idx) {
+                ints[idx] = (int) this.longs[idx];
+            }
+            array = new IntJsonArray(ints);
+        } else if (this.kind == RtJsonArrayBuilder.LONGS) {
+            array = new LongJsonArray(Arrays.copyOf(this.longs, this.size));
+        } else if (this.kind == RtJsonArrayBuilder.DOUBLES) {
+            array = new DoubleJsonArray(
+                Arrays.copyOf(this.doubles, this.size)
+            );
+        } else if (this.kind == RtJsonArrayBuilder.VALUES) {
+            array = new RtJsonArray(Arrays.copyOf(this.values, this.size));
+        } else {
+            array = new RtJsonArray();
+        }
+        this.clear();
+        return array;
+    }
+
+    /**
+     * Number of values added so far.
+     * @return Int.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Add an int or a long.
+     * @param value Value.
+     */
+    private void primitive(final long value) {
+        if (this.longs == null) {
+            this.longs = new long[this.capacity];
+        } else if (this.size == this.longs.length) {
+            this.longs = Arrays.copyOf(this.longs, this.size * 2);
+        }
+        this.longs[this.size] = value;
+        this.size = this.size + 1;
+    }
+
+    /**
+     * Add a double.
+     * @param value Value.
+     * @throws NumberFormatException If the value is NaN or infinite.
+     */
+    private void primitive(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new NumberFormatException(
+                "JSON does not allow NaN or infinite numbers: " + value
+            );
+        }
+        if (this.doubles == null) {
+            this.doubles = new double[this.capacity];
+        } else if (this.size == this.doubles.length) {
+            this.doubles = Arrays.copyOf(this.doubles, this.size * 2);
+        }
+        this.doubles[this.size] = value;
+        this.size = this.size + 1;
+    }
+
+    /**
+     * Add any JsonValue, first moving the primitives added so far to the
+     * values, if needed.
+     * @param value JsonValue.
+     */
+    private void value(final JsonValue value) {
+        if (this.kind != RtJsonArrayBuilder.VALUES) {
+            this.box();
+            this.kind = RtJsonArrayBuilder.VALUES;
+        }
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size * 2);
+        }
+        this.values[this.size] = value;
+        this.size = this.size + 1;
+    }
+
+    /**
+     * Move the primitives added so far to the values, as JsonNumbers.
+     */
+    private void box() {
+        final int room = Math.max(this.capacity, this.size * 2);
+        if (this.values == null || this.values.length < room) {
+            this.values = new JsonValue[room];
+        }
+        for (int idx = 0; idx < this.size; ++idx) {
+            if (this.kind == RtJsonArrayBuilder.INTS) {
+                this.values[idx] = new IntJsonNumber((int) this.longs[idx]);
+            } else if (this.kind == RtJsonArrayBuilder.LONGS) {
+                this.values[idx] = new LongJsonNumber(this.longs[idx]);
+            } else {
+                this.values[idx] = new DoubleJsonNumber(this.doubles[idx]);
+            }
+        }
+    }
+
+    /**
+     * Forget the added values, keeping the arrays for the next ones.
+     */
+    private void clear() {
+        if (this.values != null) {
+            Arrays.fill(this.values, 0, this.size, null);
+        }
+        this.kind = RtJsonArrayBuilder.EMPTY;
+        this.size = 0;
     }
-    
 }
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Collections;
+import java.util.Map;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * Factory of RtJsonObjectBuilder and RtJsonArrayBuilder. The object
+ * builders it creates share one {@link Shapes}, so all the JsonObjects
+ * they build with the same keys, in the same order, share their keys.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class RtJsonBuilderFactory implements JsonBuilderFactory {
+
+    /**
+     * Config key for the number of object layouts which are remembered.
+     */
+    static final String SHAPES = "com.amihaiemil.eojsonp.builder.shapes";
+
+    /**
+     * Number of remembered layouts.
+     */
+    private final int size;
+
+    /**
+     * The layouts.
+     */
+    private final Shapes shapes;
+
+    /**
+     * Ctor.
+     * @param config Configuration, can be null.
+     */
+    RtJsonBuilderFactory(final Map<String, ?> config) {
+        this.size = new IntConfig(
+            config, RtJsonBuilderFactory.SHAPES, Shapes.DEFAULT_SIZE
+        ).value();
+        this.shapes = new Shapes(this.size);
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder() {
+        return new RtJsonObjectBuilder(this.shapes);
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder() {
+        return new RtJsonArrayBuilder();
+    }
+
+    @Override
+    public Map<String, ?> getConfigInUse() {
+        return Collections.singletonMap(RtJsonBuilderFactory.SHAPES, this.size);
+    }
+}
@@ -25,11 +25,13 @@
  */
 package com.amihaiemil.eojsonp;
 
-import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
 import javax.json.JsonException;
+import javax.json.JsonString;
 import javax.json.JsonValue;
 import javax.json.stream.JsonGenerator;
 
@@ -38,25 +40,137 @@ import javax.json.stream.JsonGenerator;
  * 
  * This JsonGenerator works as a finite automata composed of different
  * JsonGenerator implementations (each node is a JsonGenerator which knows
- * exactly what operations are permitted in that moment).
+ * exactly what operations are permitted in that moment). The nodes are
+ * created once, with the generator, and share a stack with the types of the
+ * Json structures which are open, so generating a Json costs memory
+ * proportional to its depth, not to its size. The generator itself
+ * dispatches every call to the current node and always returns itself,
+ * never a node, so it can be used with or without chaining the calls.
+ *
+ * The output is put together in the buffer of a {@link JsonOutput}, which
+ * hands it to the Writer or OutputStream only when it is full, on
+ * {@link #flush()} or on {@link #close()}. OutputStreams get UTF-8 encoded
+ * bytes.
+ *
+ * If pretty printing is on, every value in a Json structure starts on a new
+ * line, indented by 4 spaces for each level, and keys are followed by a
+ * space.
  * 
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.1
  */
-final class RtJsonGenerator extends ConvenientJsonGenerator {
+final class RtJsonGenerator implements JsonGenerator {
+
+    /**
+     * Default size of the buffer, in chars or bytes.
+     */
+    static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Minimum size of the buffer, so any formatted number fits in it.
+     */
+    static final int MIN_SIZE = 64;
+
+    /**
+     * Spaces for indenting the lines when pretty printing.
+     */
+    private static final String INDENT = "                ";
+
+    /**
+     * Spaces for each level of indentation.
+     */
+    private static final int LEVEL = 4;
+
+    /**
+     * Stack entry of an open JsonObject.
+     */
+    private static final byte OBJECT = 1;
+
+    /**
+     * Stack entry of an open JsonArray.
+     */
+    private static final byte ARRAY = 2;
 
     /**
      * Write it somewhere.
      */
-    private final Writer writer;
-    
+    private final JsonOutput output;
+
+    /**
+     * Reusable builder where numbers are formatted.
+     */
+    private final StringBuilder digits;
+
+    /**
+     * Escapes the keys and the string values.
+     */
+    private final JsonEscape escape;
+
+    /**
+     * Should the output be pretty printed?
+     */
+    private final boolean pretty;
+
+    /**
+     * Types of the open Json structures, the innermost one last.
+     */
+    private byte[] stack;
+
+    /**
+     * Number of open Json structures.
+     */
+    private int depth;
+
+    /**
+     * Is the innermost open structure still empty?
+     */
+    private boolean first;
+
+    /**
+     * Was a key written, which still needs its value?
+     */
+    private boolean keyed;
+
+    /**
+     * Node used before the base Json structure is started.
+     */
+    private final JsonGenerator start;
+
+    /**
+     * Node used inside a JsonObject.
+     */
+    private final JsonGenerator object;
+
+    /**
+     * Node used inside a JsonArray.
+     */
+    private final JsonGenerator array;
+
+    /**
+     * Node used after a key.
+     */
+    private final JsonGenerator expect;
+
     /**
      * Ctor.
      * @param output Stream to write to.
      */
     RtJsonGenerator(final OutputStream output) {
-        this(new OutputStreamWriter(output));
+        this(output, RtJsonGenerator.BUFFER_SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param output Stream to write UTF-8 bytes to.
+     * @param size Size of the buffer, in bytes.
+     */
+    RtJsonGenerator(final OutputStream output, final int size) {
+        this(
+            new Utf8Output(
+                output, Math.max(size, RtJsonGenerator.MIN_SIZE)
+            )
+        );
     }
     
     /**
@@ -64,121 +178,485 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
      * @param writer Writer to use.
      */
     RtJsonGenerator(final Writer writer) {
-        this.writer = writer;
+        this(writer, RtJsonGenerator.BUFFER_SIZE);
     }
-    
+
+    /**
+     * Ctor.
+     * @param writer Writer to use.
+     * @param size Size of the buffer, in chars. It is the number of chars
+     *  after which the output is handed to the Writer.
+     */
+    RtJsonGenerator(final Writer writer, final int size) {
+        this(
+            new WriterOutput(
+                writer, Math.max(size, RtJsonGenerator.MIN_SIZE)
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param output Where to put the output.
+     */
+    RtJsonGenerator(final JsonOutput output) {
+        this(output, new JsonEscape(), false);
+    }
+
+    /**
+     * Ctor.
+     * @param output Where to put the output.
+     * @param escape How to escape the keys and the string values.
+     * @param pretty Should the output be pretty printed?
+     */
+    RtJsonGenerator(
+        final JsonOutput output, final JsonEscape escape, final boolean pretty
+    ) {
+        this.output = output;
+        this.digits = new StringBuilder(RtJsonGenerator.MIN_SIZE);
+        this.escape = escape;
+        this.pretty = pretty;
+        this.stack = new byte[16];
+        this.first = true;
+        this.start = new StartStructure();
+        this.object = new ContinueObject();
+        this.array = new ContinueArray();
+        this.expect = new ExpectJsonValue();
+    }
+
     @Override
     public JsonGenerator writeStartObject() {
-        try {
-            this.writer.write("{");
-        } catch (final IOException ex) {
-            throw new IllegalStateException(
-                "IOException when trying to start writing JsonObject", ex
-            );
-        }
-        return new ContinueObject(this);
+        this.current().writeStartObject();
+        return this;
     }
 
     @Override
     public JsonGenerator writeStartObject(final String name) {
-        throw new JsonException(
-            "Cannot write a named JsonArray, base Json structure is not "
-          + "started yet. Use #writeStartObject() or #writeStartObject()."
-        );
+        this.current().writeStartObject(name);
+        return this;
     }
 
     @Override
     public JsonGenerator writeKey(final String name) {
-        throw new JsonException(
-            "Cannot write a named JsonValue, base Json structure is not "
-          + "started yet. Use #writeStartObject() or #writeStartObject()."
-        );
+        this.current().writeKey(name);
+        return this;
     }
 
     @Override
     public JsonGenerator writeStartArray() {
-        try {
-            this.writer.write("[");
-        } catch (final IOException ex) {
-            throw new IllegalStateException(
-                "IOException when trying to start writing JsonArray", ex
-            );
-        }
-        return new ContinueArray(this);
+        this.current().writeStartArray();
+        return this;
     }
 
     @Override
     public JsonGenerator writeStartArray(final String name) {
-        throw new JsonException(
-            "Cannot write a named JsonArray, base Json structure is not "
-          + "started yet. Use #writeStartObject() or #writeStartObject()."
-        );
+        this.current().writeStartArray(name);
+        return this;
     }
 
     @Override
     public JsonGenerator write(final String name, final JsonValue value) {
-        throw new JsonException(
-            "Cannot write a named JsonValue, base Json structure is not "
-          + "started yet. Use #writeStartObject() or #writeStartObject()."
-        );
+        this.current().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final String value) {
+        this.current().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final BigInteger value) {
+        this.current().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final BigDecimal value) {
+        this.current().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final int value) {
+        this.current().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final long value) {
+        this.current().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final double value) {
+        this.current().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final boolean value) {
+        this.current().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeNull(final String name) {
+        this.current().writeNull(name);
+        return this;
     }
 
     @Override
     public JsonGenerator writeEnd() {
-        throw new JsonException(
-            "Cannot end the Json structure, since it is not "
-          + "started yet. Use #writeStartObject() or #writeStartObject()."
-        );
+        this.current().writeEnd();
+        return this;
     }
 
     @Override
     public JsonGenerator write(final JsonValue value) {
-        throw new JsonException(
-            "Cannot write JsonValue, base Json structure is not "
-          + "started yet. Use #writeStartObject() or #writeStartObject()."
-        );
+        this.current().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String value) {
+        this.current().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final BigDecimal value) {
+        this.current().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final BigInteger value) {
+        this.current().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final int value) {
+        this.current().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final long value) {
+        this.current().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final double value) {
+        this.current().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final boolean value) {
+        this.current().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeNull() {
+        this.current().writeNull();
+        return this;
     }
 
     @Override
     public void close() {
-        try {
-            this.writer.close();
-        } catch (final IOException ex) {
-            throw new IllegalStateException(
-                "IOException when trying to close the Writer.", ex
-            );
-        }
+        this.output.close();
     }
 
     @Override
     public void flush() {
-        try {
-            this.writer.flush();
-        } catch (final IOException ex) {
-            throw new IllegalStateException(
-                "IOException when trying to flush the Writer.", ex
+        this.output.flush();
+    }
+
+    /**
+     * The node for the current position in the Json.
+     * @return JsonGenerator.
+     */
+    private JsonGenerator current() {
+        final JsonGenerator node;
+        if (this.keyed) {
+            node = this.expect;
+        } else if (this.depth == 0) {
+            node = this.start;
+        } else if (this.stack[this.depth - 1] == RtJsonGenerator.OBJECT) {
+            node = this.object;
+        } else {
+            node = this.array;
+        }
+        return node;
+    }
+
+    /**
+     * Open a Json structure.
+     * @param type Type of the structure, OBJECT or ARRAY.
+     * @return This generator.
+     */
+    private JsonGenerator begin(final byte type) {
+        if (type == RtJsonGenerator.OBJECT) {
+            this.append('{');
+        } else {
+            this.append('[');
+        }
+        if (this.depth == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.depth * 2);
+        }
+        this.stack[this.depth] = type;
+        this.depth = this.depth + 1;
+        this.first = true;
+        this.keyed = false;
+        return this;
+    }
+
+    /**
+     * Close the innermost open Json structure.
+     * @return This generator.
+     */
+    private JsonGenerator end() {
+        this.depth = this.depth - 1;
+        if (this.pretty && !this.first) {
+            this.indent();
+        }
+        if (this.stack[this.depth] == RtJsonGenerator.OBJECT) {
+            this.append('}');
+        } else {
+            this.append(']');
+        }
+        this.first = false;
+        return this;
+    }
+
+    /**
+     * Write a comma, unless the innermost structure is still empty.
+     */
+    private void separate() {
+        if (this.first) {
+            this.first = false;
+        } else {
+            this.append(',');
+        }
+        if (this.pretty) {
+            this.indent();
+        }
+    }
+
+    /**
+     * Start a new line, indented for the current depth.
+     */
+    private void indent() {
+        this.append('\n');
+        int spaces = this.depth * RtJsonGenerator.LEVEL;
+        while (spaces > 0) {
+            final int chunk = Math.min(
+                spaces, RtJsonGenerator.INDENT.length()
             );
+            this.output.write(RtJsonGenerator.INDENT, 0, chunk);
+            spaces = spaces - chunk;
         }
     }
-    
+
+    /**
+     * Write the given key, after a comma if needed.
+     * @param name Key.
+     */
+    private void pair(final String name) {
+        this.separate();
+        this.key(name);
+    }
+
+    /**
+     * A value was written after a key.
+     * @return The node of the JsonObject.
+     */
+    private JsonGenerator valued() {
+        this.keyed = false;
+        return this.object;
+    }
+
+    /**
+     * Format the given long into the digits builder.
+     * @param value Long value.
+     */
+    private void format(final long value) {
+        this.digits.setLength(0);
+        this.digits.append(value);
+    }
+
+    /**
+     * Format the given double into the digits builder.
+     * @param value Double value.
+     * @throws NumberFormatException If the value is NaN or Infinity.
+     */
+    private void format(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new NumberFormatException(
+                "NaN and Infinity are not valid JSON numbers."
+            );
+        }
+        this.digits.setLength(0);
+        this.digits.append(value);
+    }
+
+    /**
+     * Append the last formatted number to the output.
+     */
+    private void digits() {
+        this.output.write(this.digits, 0, this.digits.length());
+    }
+
+    /**
+     * Append the given key to the output, quoted and followed by a colon.
+     * @param name Key.
+     */
+    private void key(final String name) {
+        this.quoted(name);
+        this.append(':');
+        if (this.pretty) {
+            this.append(' ');
+        }
+    }
+
+    /**
+     * Append the given text to the output, between quotes and escaped.
+     * @param text Text.
+     */
+    private void quoted(final String text) {
+        this.escape.write(text, this.output);
+    }
+
+    /**
+     * Append the given JsonValue to the output.
+     * @param value JsonValue.
+     */
+    private void json(final JsonValue value) {
+        if (value instanceof JsonString) {
+            this.quoted(((JsonString) value).getString());
+        } else {
+            this.append(value.toString());
+        }
+    }
+
+    /**
+     * Append the true or false literal to the output.
+     * @param value Boolean value.
+     */
+    private void literal(final boolean value) {
+        if (value) {
+            this.append("true");
+        } else {
+            this.append("false");
+        }
+    }
+
+    /**
+     * Append a char to the output.
+     * @param chr Char.
+     */
+    private void append(final char chr) {
+        this.output.write(chr);
+    }
+
+    /**
+     * Append the given text to the output.
+     * @param text Text.
+     */
+    private void append(final String text) {
+        this.output.write(text, 0, text.length());
+    }
+
+    /**
+     * For starting the base Json structure.
+     */
+    final class StartStructure extends ConvenientJsonGenerator {
+
+        @Override
+        public JsonGenerator writeStartObject() {
+            return RtJsonGenerator.this.begin(RtJsonGenerator.OBJECT);
+        }
+
+        @Override
+        public JsonGenerator writeStartArray() {
+            return RtJsonGenerator.this.begin(RtJsonGenerator.ARRAY);
+        }
+
+        @Override
+        public JsonGenerator writeStartObject(final String name) {
+            throw new JsonException(
+                "Cannot write a named Json element, base Json structure is "
+              + "not started yet. Use #writeStartObject() or "
+              + "#writeStartArray()."
+            );
+        }
+
+        @Override
+        public JsonGenerator writeKey(final String name) {
+            throw new JsonException(
+                "Cannot write a named Json element, base Json structure is "
+              + "not started yet. Use #writeStartObject() or "
+              + "#writeStartArray()."
+            );
+        }
+
+        @Override
+        public JsonGenerator writeStartArray(final String name) {
+            throw new JsonException(
+                "Cannot write a named Json element, base Json structure is "
+              + "not started yet. Use #writeStartObject() or "
+              + "#writeStartArray()."
+            );
+        }
+
+        @Override
+        public JsonGenerator write(final String name, final JsonValue value) {
+            throw new JsonException(
+                "Cannot write a named Json element, base Json structure is "
+              + "not started yet. Use #writeStartObject() or "
+              + "#writeStartArray()."
+            );
+        }
+
+        @Override
+        public JsonGenerator writeEnd() {
+            throw new JsonException(
+                "Cannot end the Json structure, since it is not "
+              + "started yet. Use #writeStartObject() or #writeStartArray()."
+            );
+        }
+
+        @Override
+        public JsonGenerator write(final JsonValue value) {
+            throw new JsonException(
+                "Cannot write JsonValue, base Json structure is not "
+              + "started yet. Use #writeStartObject() or #writeStartArray()."
+            );
+        }
+
+        @Override
+        public void close() {
+            RtJsonGenerator.this.close();
+        }
+
+        @Override
+        public void flush() {
+            RtJsonGenerator.this.flush();
+        }
+
+    }
+
     /**
      * For continuing the generation of a JsonObject.
      */
     final class ContinueObject extends ConvenientJsonGenerator {
         
-        /**
-         * Parent JsonGenerator which started this object generator.
-         */
-        private final JsonGenerator parent;
-        
-        /**
-         * Ctor.
-         * @param parent Parent generator.
-         */
-        ContinueObject(final JsonGenerator parent) {
-            this.parent = parent;
-        }
-        
         @Override
         public JsonGenerator writeStartObject() {
             throw new IllegalStateException("JsonObject is already started!");
@@ -186,34 +664,15 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
 
         @Override
         public JsonGenerator writeStartObject(final String name) {
-            try {
-                RtJsonGenerator.this.writer.write(
-                    new RtJsonString(name).toString() + ":{"
-                );
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to start JsonObject with key\""
-                  + name + "\".",
-                    ex
-                );
-            }
-            return new ContinueObject(this);
+            RtJsonGenerator.this.pair(name);
+            return RtJsonGenerator.this.begin(RtJsonGenerator.OBJECT);
         }
 
         @Override
         public JsonGenerator writeKey(final String name) {
-            try {
-                RtJsonGenerator.this.writer.write(
-                    new RtJsonString(name).toString() + ":"
-                );
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to start JsonValue with key \""
-                  + name + "\".",
-                    ex
-                );
-            }
-            return new ExpectJsonValue(this);
+            RtJsonGenerator.this.pair(name);
+            RtJsonGenerator.this.keyed = true;
+            return RtJsonGenerator.this;
         }
 
         @Override
@@ -227,35 +686,57 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
 
         @Override
         public JsonGenerator writeStartArray(final String name) {
-            try {
-                RtJsonGenerator.this.writer.write(
-                    new RtJsonString(name).toString() + ":["
-                );
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to start JsonArray with key \""
-                  + name + "\".",
-                    ex
-                );
-            }
-            return new ContinueArray(this);
+            RtJsonGenerator.this.pair(name);
+            return RtJsonGenerator.this.begin(RtJsonGenerator.ARRAY);
         }
 
         @Override
         public JsonGenerator write(final String name, final JsonValue value) {
-            try {
-                RtJsonGenerator.this.writer.write(
-                    new RtJsonString(name).toString() + ":" + value.toString()
-                    + ","
-                );
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to write key \""
-                  + name + "\" and value \"" + value.toString() + "\".",
-                    ex
-                );
-            }
-            return this;
+            RtJsonGenerator.this.pair(name);
+            RtJsonGenerator.this.json(value);
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator write(final String name, final String value) {
+            RtJsonGenerator.this.pair(name);
+            RtJsonGenerator.this.quoted(value);
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator write(final String name, final int value) {
+            return this.write(name, (long) value);
+        }
+
+        @Override
+        public JsonGenerator write(final String name, final long value) {
+            RtJsonGenerator.this.format(value);
+            RtJsonGenerator.this.pair(name);
+            RtJsonGenerator.this.digits();
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator write(final String name, final double value) {
+            RtJsonGenerator.this.format(value);
+            RtJsonGenerator.this.pair(name);
+            RtJsonGenerator.this.digits();
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator write(final String name, final boolean value) {
+            RtJsonGenerator.this.pair(name);
+            RtJsonGenerator.this.literal(value);
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator writeNull(final String name) {
+            RtJsonGenerator.this.pair(name);
+            RtJsonGenerator.this.append("null");
+            return RtJsonGenerator.this;
         }
 
         @Override
@@ -269,24 +750,17 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
 
         @Override
         public JsonGenerator writeEnd() {
-            try {
-                RtJsonGenerator.this.writer.write("},");
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to end the JsonObject", ex
-                );
-            }
-            return this.parent;
+            return RtJsonGenerator.this.end();
         }
 
         @Override
         public void close() {
-            this.parent.close();
+            RtJsonGenerator.this.close();
         }
 
         @Override
         public void flush() {
-            this.parent.flush();
+            RtJsonGenerator.this.flush();
         }
 
     }
@@ -296,29 +770,16 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
      */
     final class ContinueArray extends ConvenientJsonGenerator {
 
-        /**
-         * Parent JsonGenerator which started this array generator.
-         */
-        private final JsonGenerator parent;
-        
-        /**
-         * Ctor.
-         * @param parent Parent generator.
-         */
-        ContinueArray(final JsonGenerator parent) {
-            this.parent = parent;
-        }
-        
         @Override
         public JsonGenerator writeStartObject() {
-            try {
-                RtJsonGenerator.this.writer.write("{");
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to start JsonObject", ex
-                );
-            }
-            return new ContinueObject(this);
+            RtJsonGenerator.this.separate();
+            return RtJsonGenerator.this.begin(RtJsonGenerator.OBJECT);
+        }
+
+        @Override
+        public JsonGenerator writeStartArray() {
+            RtJsonGenerator.this.separate();
+            return RtJsonGenerator.this.begin(RtJsonGenerator.ARRAY);
         }
 
         @Override
@@ -337,18 +798,6 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
             );
         }
 
-        @Override
-        public JsonGenerator writeStartArray() {
-            try {
-                RtJsonGenerator.this.writer.write("[");
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to start JsonArray", ex
-                );
-            }
-            return new ContinueArray(this);
-        }
-
         @Override
         public JsonGenerator writeStartArray(final String name) {
             throw new IllegalStateException(
@@ -367,38 +816,66 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
 
         @Override
         public JsonGenerator write(final JsonValue value) {
-            try {
-                RtJsonGenerator.this.writer.write(value.toString() + ",");
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to write JsonValue \""
-                  + value.toString() + "\".",
-                    ex
-                );
-            }
-            return new ContinueArray(this);
+            RtJsonGenerator.this.separate();
+            RtJsonGenerator.this.json(value);
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator write(final String value) {
+            RtJsonGenerator.this.separate();
+            RtJsonGenerator.this.quoted(value);
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator write(final int value) {
+            return this.write((long) value);
+        }
+
+        @Override
+        public JsonGenerator write(final long value) {
+            RtJsonGenerator.this.format(value);
+            RtJsonGenerator.this.separate();
+            RtJsonGenerator.this.digits();
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator write(final double value) {
+            RtJsonGenerator.this.format(value);
+            RtJsonGenerator.this.separate();
+            RtJsonGenerator.this.digits();
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator write(final boolean value) {
+            RtJsonGenerator.this.separate();
+            RtJsonGenerator.this.literal(value);
+            return RtJsonGenerator.this;
+        }
+
+        @Override
+        public JsonGenerator writeNull() {
+            RtJsonGenerator.this.separate();
+            RtJsonGenerator.this.append("null");
+            return RtJsonGenerator.this;
         }
 
         @Override
         public JsonGenerator writeEnd() {
-            try {
-                RtJsonGenerator.this.writer.write("],");
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to end the JsonObject", ex
-                );
-            }
-            return this.parent;
+            return RtJsonGenerator.this.end();
         }
 
         @Override
         public void close() {
-            this.parent.close();
+            RtJsonGenerator.this.close();
         }
 
         @Override
         public void flush() {
-            this.parent.flush();
+            RtJsonGenerator.this.flush();
         }
 
     }
@@ -409,38 +886,14 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
      */
     final class ExpectJsonValue extends ConvenientJsonGenerator {
 
-        /**
-         * Parent JsonGenerator which wrote the key for the JsonValue generated
-         * here.
-         */
-        private final JsonGenerator parent;
-        
-        /**
-         * Ctor.
-         * @param parent Parent generator.
-         */
-        ExpectJsonValue(final JsonGenerator parent) {
-            this.parent = parent;
-        }
-        
         @Override
         public JsonGenerator writeStartObject() {
-            try {
-                RtJsonGenerator.this.writer.write("{");
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to start JsonObject", ex
-                );
-            }
-            return new ContinueObject(this.parent);
+            return RtJsonGenerator.this.begin(RtJsonGenerator.OBJECT);
         }
 
         @Override
-        public JsonGenerator writeStartObject(final String name) {
-            throw new IllegalStateException(
-                "After a Json key, there cannot be named Json strucutres, "
-              + "only unnamed JsonArray, JsonObjects or other JsonValues"
-            );
+        public JsonGenerator writeStartArray() {
+            return RtJsonGenerator.this.begin(RtJsonGenerator.ARRAY);
         }
 
         @Override
@@ -451,15 +904,11 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
         }
 
         @Override
-        public JsonGenerator writeStartArray() {
-            try {
-                RtJsonGenerator.this.writer.write("[");
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to start JsonArray", ex
-                );
-            }
-            return new ContinueArray(this.parent);
+        public JsonGenerator writeStartObject(final String name) {
+            throw new IllegalStateException(
+                "After a Json key, there cannot be named Json strucutres, "
+              + "only unnamed JsonArray, JsonObjects or other JsonValues"
+            );
         }
 
         @Override
@@ -480,16 +929,45 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
 
         @Override
         public JsonGenerator write(final JsonValue value) {
-            try {
-                RtJsonGenerator.this.writer.write(value.toString());
-            } catch (final IOException ex) {
-                throw new IllegalStateException(
-                    "IOException when trying to write JsonValue \""
-                  + value.toString() + "\".",
-                    ex
-                );
-            }
-            return this.parent;
+            RtJsonGenerator.this.json(value);
+            return RtJsonGenerator.this.valued();
+        }
+
+        @Override
+        public JsonGenerator write(final String value) {
+            RtJsonGenerator.this.quoted(value);
+            return RtJsonGenerator.this.valued();
+        }
+
+        @Override
+        public JsonGenerator write(final int value) {
+            return this.write((long) value);
+        }
+
+        @Override
+        public JsonGenerator write(final long value) {
+            RtJsonGenerator.this.format(value);
+            RtJsonGenerator.this.digits();
+            return RtJsonGenerator.this.valued();
+        }
+
+        @Override
+        public JsonGenerator write(final double value) {
+            RtJsonGenerator.this.format(value);
+            RtJsonGenerator.this.digits();
+            return RtJsonGenerator.this.valued();
+        }
+
+        @Override
+        public JsonGenerator write(final boolean value) {
+            RtJsonGenerator.this.literal(value);
+            return RtJsonGenerator.this.valued();
+        }
+
+        @Override
+        public JsonGenerator writeNull() {
+            RtJsonGenerator.this.append("null");
+            return RtJsonGenerator.this.valued();
         }
 
         @Override
@@ -501,14 +979,14 @@ final class RtJsonGenerator extends ConvenientJsonGenerator {
 
         @Override
         public void close() {
-            this.parent.close();
+            RtJsonGenerator.this.close();
         }
 
         @Override
         public void flush() {
-            this.parent.flush();
+            RtJsonGenerator.this.flush();
         }
 
     }
-    
+
 }
@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+
+/**
+ * Factory of RtJsonGenerator. The configuration is read and validated once,
+ * for all the generators it creates. It is thread-safe and the generators
+ * take their output buffers from a pool shared by all of them, giving them
+ * back when they are closed, so creating a generator is cheap even when
+ * many are created concurrently. Besides the standard methods, it creates
+ * outputs for NIO channels, which never block the generating thread and
+ * report when the channel does not keep up, and generators which hand their
+ * pooled buffers over as chunks.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class RtJsonGeneratorFactory implements JsonGeneratorFactory {
+
+    /**
+     * Config key for the size of each generator's buffer, in chars or bytes.
+     * This is the number of chars or bytes after which the output is handed
+     * to the Writer or OutputStream.
+     */
+    static final String BUFFER_SIZE =
+        "com.amihaiemil.eojsonp.generator.bufferSize";
+
+    /**
+     * Config key for the number of buffers of each kind kept in the pool.
+     */
+    static final String POOL_SIZE =
+        "com.amihaiemil.eojsonp.generator.poolSize";
+
+    /**
+     * Config key for escaping the solidus as well, true or false.
+     */
+    static final String ESCAPE_SOLIDUS =
+        "com.amihaiemil.eojsonp.generator.escapeSolidus";
+
+    /**
+     * Config key for escaping all the non-ASCII chars, true or false.
+     */
+    static final String ESCAPE_NON_ASCII =
+        "com.amihaiemil.eojsonp.generator.escapeNonAscii";
+
+    /**
+     * Config key for the number of bytes which may wait for a channel
+     * before its output reports congestion.
+     */
+    static final String BACKLOG =
+        "com.amihaiemil.eojsonp.generator.backlog";
+
+    /**
+     * Default number of pooled buffers of each kind.
+     */
+    static final int DEFAULT_POOL = 32;
+
+    /**
+     * Default backlog of the channel outputs, in bytes.
+     */
+    static final int DEFAULT_BACKLOG = 1 << 16;
+
+    /**
+     * The configuration in use.
+     */
+    private final Map<String, ?> config;
+
+    /**
+     * Pool of the buffers.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Backlog of the channel outputs.
+     */
+    private final int backlog;
+
+    /**
+     * Escaping, shared by all the generators.
+     */
+    private final JsonEscape escape;
+
+    /**
+     * Should the output be pretty printed?
+     */
+    private final boolean pretty;
+
+    /**
+     * Ctor.
+     * @param config Configuration, can be null. Pretty printing is on if
+     *  it contains the key {@link JsonGenerator#PRETTY_PRINTING}, whatever
+     *  its value.
+     */
+    RtJsonGeneratorFactory(final Map<String, ?> config) {
+        final int size = new IntConfig(
+            config, RtJsonGeneratorFactory.BUFFER_SIZE,
+            RtJsonGenerator.BUFFER_SIZE
+        ).value();
+        final int capacity = new IntConfig(
+            config, RtJsonGeneratorFactory.POOL_SIZE,
+            RtJsonGeneratorFactory.DEFAULT_POOL
+        ).value();
+        final boolean solidus = new FlagConfig(
+            config, RtJsonGeneratorFactory.ESCAPE_SOLIDUS
+        ).value();
+        final boolean ascii = new FlagConfig(
+            config, RtJsonGeneratorFactory.ESCAPE_NON_ASCII
+        ).value();
+        this.backlog = new IntConfig(
+            config, RtJsonGeneratorFactory.BACKLOG,
+            RtJsonGeneratorFactory.DEFAULT_BACKLOG
+        ).value();
+        this.pretty = config != null
+            && config.containsKey(JsonGenerator.PRETTY_PRINTING);
+        this.pool = new BufferPool(
+            Math.max(size, RtJsonGenerator.MIN_SIZE), capacity
+        );
+        this.escape = new JsonEscape(solidus, ascii);
+        final Map<String, Object> used = new HashMap<>();
+        used.put(RtJsonGeneratorFactory.BUFFER_SIZE, size);
+        used.put(RtJsonGeneratorFactory.POOL_SIZE, capacity);
+        used.put(RtJsonGeneratorFactory.ESCAPE_SOLIDUS, solidus);
+        used.put(RtJsonGeneratorFactory.ESCAPE_NON_ASCII, ascii);
+        used.put(RtJsonGeneratorFactory.BACKLOG, this.backlog);
+        if (this.pretty) {
+            used.put(JsonGenerator.PRETTY_PRINTING, true);
+        }
+        this.config = Collections.unmodifiableMap(used);
+    }
+
+    @Override
+    public JsonGenerator createGenerator(final Writer writer) {
+        return new RtJsonGenerator(
+            new WriterOutput(writer, this.pool), this.escape, this.pretty
+        );
+    }
+
+    @Override
+    public JsonGenerator createGenerator(final OutputStream out) {
+        return new RtJsonGenerator(
+            new Utf8Output(out, this.pool), this.escape, this.pretty
+        );
+    }
+
+    @Override
+    public JsonGenerator createGenerator(
+        final OutputStream out, final Charset charset
+    ) {
+        final JsonGenerator generator;
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            generator = this.createGenerator(out);
+        } else {
+            generator = this.createGenerator(
+                new OutputStreamWriter(out, charset)
+            );
+        }
+        return generator;
+    }
+
+    /**
+     * Create a generator for the given output, e.g. one of the channel
+     * outputs created by this factory.
+     * @param output Where to put the output.
+     * @return JsonGenerator.
+     */
+    JsonGenerator createGenerator(final JsonOutput output) {
+        return new RtJsonGenerator(output, this.escape, this.pretty);
+    }
+
+    /**
+     * Create a generator which encodes UTF-8 straight into chunks of the
+     * configured buffer size and hands them to the consumer, without
+     * copying them. The consumer should {@link #recycle(ByteBuffer)} each
+     * chunk once it is done with it.
+     * @param chunks Receives the heap chunks, from position 0 to limit.
+     * @return JsonGenerator.
+     */
+    JsonGenerator createGenerator(final Consumer<ByteBuffer> chunks) {
+        return this.createGenerator(
+            new Utf8Output(new ChunkSink(chunks, this.pool), this.pool)
+        );
+    }
+
+    /**
+     * Give back a chunk handed over by a generator, so another one can
+     * fill it.
+     * @param chunk Chunk which is not used anymore.
+     */
+    void recycle(final ByteBuffer chunk) {
+        this.pool.release(chunk);
+    }
+
+    /**
+     * Create an output for a WritableByteChannel, blocking or not.
+     * @param channel Channel to write to.
+     * @return ChannelOutput.
+     */
+    ChannelOutput createOutput(final WritableByteChannel channel) {
+        return new ChannelOutput(channel, this.pool, this.backlog);
+    }
+
+    /**
+     * Create an output for an AsynchronousSocketChannel.
+     * @param channel Channel to write to.
+     * @return AsyncChannelOutput.
+     */
+    AsyncChannelOutput createOutput(final AsynchronousSocketChannel channel) {
+        return new AsyncChannelOutput(channel, this.pool, this.backlog);
+    }
+
+    @Override
+    public Map<String, ?> getConfigInUse() {
+        return this.config;
+    }
+}
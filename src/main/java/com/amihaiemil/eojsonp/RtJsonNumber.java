@@ -27,16 +27,20 @@ package com.amihaiemil.eojsonp;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.Objects;
 import javax.json.JsonNumber;
 
 /**
  * Base JsonNumber implementation. Rt stands for "runtime".
+ *
+ * It holds a BigDecimal, so it can represent any JSON number. Values which
+ * fit in an int, a long or a double are cheaper as {@link IntJsonNumber},
+ * {@link LongJsonNumber} or {@link DoubleJsonNumber}.
+ *
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.1
  */
-final class RtJsonNumber implements JsonNumber {
+final class RtJsonNumber extends AbstractJsonNumber {
 
     /**
      * This JsonNumber's value as BigDecimal (see {@link JsonNumber} javadoc).
@@ -48,7 +52,15 @@ final class RtJsonNumber implements JsonNumber {
      * @param value This JsonNumber's value as String.
      */
     RtJsonNumber(final String value) {
-        this.value = new BigDecimal(value);
+        this(new BigDecimal(value));
+    }
+
+    /**
+     * Ctor.
+     * @param value This JsonNumber's value.
+     */
+    RtJsonNumber(final BigDecimal value) {
+        this.value = value;
     }
     
     @Override
@@ -97,33 +109,6 @@ final class RtJsonNumber implements JsonNumber {
         return this.value;
     }
 
-    @Override
-    public ValueType getValueType() {
-        return ValueType.NUMBER;
-    }
-
-    @Override
-    public int hashCode() {
-        int hash = 3;
-        hash = 97 * hash + Objects.hashCode(this.value);
-        return hash;
-    }
-
-    @Override
-    public boolean equals(final Object obj) {
-        if (this == obj) {
-            return true;
-        }
-        if (obj == null) {
-            return false;
-        }
-        if (!(obj instanceof JsonNumber)) {
-            return false;
-        }
-        final RtJsonNumber other = (RtJsonNumber) obj;
-        return this.value.equals(other.value);
-    }
-    
     @Override
     public String toString() {
         return String.valueOf(this.value);
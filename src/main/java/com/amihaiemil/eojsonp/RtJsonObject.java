@@ -0,0 +1,262 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Base JsonObject implementation. Rt stands for "runtime". It is immutable
+ * and compact: the keys, with their precomputed hashes, and the values are
+ * kept in parallel arrays, instead of a Map with an entry object for each
+ * pair. The pairs keep the order in which they were added. Use
+ * {@link JsonPairs} to put one together.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class RtJsonObject
+    extends AbstractMap<String, JsonValue> implements JsonObject {
+
+    /**
+     * The keys.
+     */
+    private final JsonKeys keys;
+
+    /**
+     * The value of each key.
+     */
+    private final JsonValue[] values;
+
+    /**
+     * Ctor. The values are not copied, nobody else should modify them.
+     * @param keys The keys.
+     * @param values The value of each key.
+     */
+    RtJsonObject(final JsonKeys keys, final JsonValue[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    @Override
+    public JsonArray getJsonArray(final String name) {
+        return (JsonArray) this.get(name);
+    }
+
+    @Override
+    public JsonObject getJsonObject(final String name) {
+        return (JsonObject) this.get(name);
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(final String name) {
+        return (JsonNumber) this.get(name);
+    }
+
+    @Override
+    public JsonString getJsonString(final String name) {
+        return (JsonString) this.get(name);
+    }
+
+    @Override
+    public String getString(final String name) {
+        return ((JsonString) this.existing(name)).getString();
+    }
+
+    @Override
+    public String getString(final String name, final String fallback) {
+        final JsonValue value = this.get(name);
+        final String result;
+        if (value instanceof JsonString) {
+            result = ((JsonString) value).getString();
+        } else {
+            result = fallback;
+        }
+        return result;
+    }
+
+    @Override
+    public int getInt(final String name) {
+        return ((JsonNumber) this.existing(name)).intValue();
+    }
+
+    @Override
+    public int getInt(final String name, final int fallback) {
+        final JsonValue value = this.get(name);
+        final int result;
+        if (value instanceof JsonNumber) {
+            result = ((JsonNumber) value).intValue();
+        } else {
+            result = fallback;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean getBoolean(final String name) {
+        final JsonValue value = this.existing(name);
+        final boolean result;
+        if (JsonValue.TRUE.equals(value)) {
+            result = true;
+        } else if (JsonValue.FALSE.equals(value)) {
+            result = false;
+        } else {
+            throw new ClassCastException(
+                "The value of " + name + " is not a boolean: " + value
+            );
+        }
+        return result;
+    }
+
+    @Override
+    public boolean getBoolean(final String name, final boolean fallback) {
+        final JsonValue value = this.get(name);
+        final boolean result;
+        if (JsonValue.TRUE.equals(value)) {
+            result = true;
+        } else if (JsonValue.FALSE.equals(value)) {
+            result = false;
+        } else {
+            result = fallback;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isNull(final String name) {
+        return JsonValue.NULL.equals(this.existing(name));
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.OBJECT;
+    }
+
+    @Override
+    public JsonValue get(final Object key) {
+        final int pos = this.keys.find(key);
+        JsonValue value = null;
+        if (pos >= 0) {
+            value = this.values[pos];
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.keys.find(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public Set<Entry<String, JsonValue>> entrySet() {
+        return new Pairs();
+    }
+
+    @Override
+    public String toString() {
+        final TextOutput text = new TextOutput();
+        final JsonGenerator gen = new RtJsonGenerator(text).writeStartObject();
+        for (int pos = 0; pos < this.values.length; ++pos) {
+            gen.write(this.keys.name(pos), this.values[pos]);
+        }
+        gen.writeEnd();
+        return text.toString();
+    }
+
+    /**
+     * The value of the given key, which must exist.
+     * @param name Key.
+     * @return JsonValue.
+     * @throws NullPointerException If there is no such key.
+     */
+    private JsonValue existing(final String name) {
+        final JsonValue value = this.get(name);
+        if (value == null) {
+            throw new NullPointerException("There is no key " + name);
+        }
+        return value;
+    }
+
+    /**
+     * The pairs, as a Set of Map entries.
+     */
+    private final class Pairs extends AbstractSet<Entry<String, JsonValue>> {
+
+        @Override
+        public Iterator<Entry<String, JsonValue>> iterator() {
+            return new PairIterator();
+        }
+
+        @Override
+        public int size() {
+            return RtJsonObject.this.values.length;
+        }
+    }
+
+    /**
+     * Iterates over the pairs, in the order in which they were added.
+     */
+    private final class PairIterator
+        implements Iterator<Entry<String, JsonValue>> {
+
+        /**
+         * Position of the next pair.
+         */
+        private int pos;
+
+        @Override
+        public boolean hasNext() {
+            return this.pos < RtJsonObject.this.values.length;
+        }
+
+        @Override
+        public Entry<String, JsonValue> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException("There are no more pairs.");
+            }
+            final Entry<String, JsonValue> pair = new SimpleImmutableEntry<>(
+                RtJsonObject.this.keys.name(this.pos),
+                RtJsonObject.this.values[this.pos]
+            );
+            this.pos = this.pos + 1;
+            return pair;
+        }
+    }
+}
@@ -27,80 +27,130 @@ package com.amihaiemil.eojsonp;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Objects;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonValue;
 
 /**
- * Base JsonObjectBuilder implementation. Rt stands for "runtime".
+ * Base JsonObjectBuilder implementation. Rt stands for "runtime". The pairs
+ * are gathered in {@link JsonPairs}, so the built JsonObject is the compact
+ * {@link RtJsonObject}. The JsonObjects with the same keys, in the same
+ * order, share their keys through {@link Shapes}. After {@link #build()},
+ * the builder is empty and can be used for the next JsonObject.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.1
  */
 final class RtJsonObjectBuilder implements JsonObjectBuilder {
 
+    /**
+     * Pairs added so far.
+     */
+    private final JsonPairs pairs;
+
+    /**
+     * Ctor.
+     */
+    RtJsonObjectBuilder() {
+        this(Shapes.COMMON);
+    }
+
+    /**
+     * Ctor.
+     * @param shapes Where the keys of the built JsonObjects come from.
+     */
+    RtJsonObjectBuilder(final Shapes shapes) {
+        this.pairs = new JsonPairs(JsonKeys.THRESHOLD, shapes);
+    }
+
     @Override
     public JsonObjectBuilder add(final String name, final JsonValue value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        this.pairs.put(
+            Objects.requireNonNull(name, "The name cannot be null."),
+            Objects.requireNonNull(value, "The value cannot be null.")
+        );
+        return this;
     }
 
     @Override
     public JsonObjectBuilder add(final String name, final String value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(
+            name,
+            new RtJsonString(
+                Objects.requireNonNull(value, "The value cannot be null.")
+            )
+        );
     }
 
     @Override
     public JsonObjectBuilder add(final String name, final BigInteger value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(name, new RtJsonNumber(new BigDecimal(value)));
     }
 
     @Override
     public JsonObjectBuilder add(final String name, final BigDecimal value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(
+            name,
+            new RtJsonNumber(
+                Objects.requireNonNull(value, "The value cannot be null.")
+            )
+        );
     }
 
     @Override
     public JsonObjectBuilder add(final String name, final int value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(name, new IntJsonNumber(value));
     }
 
     @Override
     public JsonObjectBuilder add(final String name, final long value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(name, new LongJsonNumber(value));
     }
 
     @Override
     public JsonObjectBuilder add(final String name, final double value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(name, new DoubleJsonNumber(value));
     }
 
     @Override
     public JsonObjectBuilder add(final String name, final boolean value) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        //@checkstyle AvoidInlineConditionals (1 line)
+        return this.add(name, value ? JsonValue.TRUE : JsonValue.FALSE);
     }
 
     @Override
     public JsonObjectBuilder addNull(final String name) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(name, JsonValue.NULL);
     }
 
     @Override
     public JsonObjectBuilder add(
         final String name, final JsonObjectBuilder builder
     ) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(
+            name,
+            Objects.requireNonNull(builder, "The builder cannot be null.")
+                .build()
+        );
     }
 
     @Override
     public JsonObjectBuilder add(
         final String name, final JsonArrayBuilder builder
     ) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.add(
+            name,
+            Objects.requireNonNull(builder, "The builder cannot be null.")
+                .build()
+        );
     }
 
     @Override
     public JsonObject build() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        final JsonObject obj = this.pairs.build();
+        this.pairs.clear();
+        return obj;
     }
 }
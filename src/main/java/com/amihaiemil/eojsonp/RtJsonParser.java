@@ -26,14 +26,24 @@
 package com.amihaiemil.eojsonp;
 
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import javax.json.JsonNumber;
 import javax.json.stream.JsonLocation;
 import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
 
 /**
  * Base JsonParser implementation. Rt stands for "runtime".
+ *
+ * This JsonParser pulls tokens from a {@link JsonLexer} and checks that they
+ * follow the JSON grammar, without building any tree. The only state it keeps
+ * is the last Event and a stack with the types of the currently open Json
+ * structures, so memory depends on the nesting depth and not on the size of
+ * the input.
+ *
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.1
@@ -41,69 +51,331 @@ import javax.json.stream.JsonParser;
 final class RtJsonParser implements JsonParser {
 
     /**
-     * Read the Json from somewhere.
+     * Marks a JsonObject on the stack.
      */
-    private final Reader reader;
-    
+    private static final byte OBJECT = 1;
+
     /**
-     * Ctor.
+     * Marks a JsonArray on the stack.
+     */
+    private static final byte ARRAY = 2;
+
+    /**
+     * Tokens of the JSON input.
+     */
+    private final JsonLexer lexer;
+
+    /**
+     * Types of the currently open Json structures.
+     */
+    private byte[] stack;
+
+    /**
+     * How many Json structures are currently open.
+     */
+    private int depth;
+
+    /**
+     * Last Event returned by {@link #next()}.
+     */
+    private Event event;
+
+    /**
+     * Ctor. The encoding is detected from the first bytes; UTF-8 is
+     * tokenized directly, without decoding it to chars first.
      * @param input InputStream to read from.
      */
     RtJsonParser(final InputStream input) {
-        this(new InputStreamReader(input));
+        this(new DetectingLexer(input));
     }
-    
+
     /**
      * Ctor.
      * @param reader Provided reader.
      */
     RtJsonParser(final Reader reader) {
-        this.reader = reader;
+        this(new ReaderLexer(reader));
+    }
+
+    /**
+     * Ctor.
+     * @param lexer Lexer giving the tokens.
+     */
+    RtJsonParser(final JsonLexer lexer) {
+        this.lexer = lexer;
+        this.stack = new byte[16];
     }
-    
+
     @Override
     public boolean hasNext() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        boolean more = true;
+        if (this.depth == 0 && this.event != null) {
+            if (!this.lexer.done()) {
+                throw new JsonParsingException(
+                    "Expected the end of the input, but found more JSON.",
+                    this.lexer.location()
+                );
+            }
+            more = false;
+        }
+        return more;
     }
 
     @Override
     public Event next() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        if (!this.hasNext()) {
+            throw new NoSuchElementException(
+                "There are no more parsing events."
+            );
+        }
+        final JsonToken token = this.lexer.next();
+        if (this.depth == 0) {
+            this.event = this.value(token);
+        } else if (this.stack[this.depth - 1] == RtJsonParser.OBJECT) {
+            this.event = this.inObject(token);
+        } else {
+            this.event = this.inArray(token);
+        }
+        return this.event;
     }
 
     @Override
     public String getString() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        if (this.event != Event.KEY_NAME && this.event != Event.VALUE_STRING
+            && this.event != Event.VALUE_NUMBER) {
+            throw new IllegalStateException(
+                "#getString() can only be called after KEY_NAME, "
+              + "VALUE_STRING or VALUE_NUMBER, but the current event is "
+              + this.event
+            );
+        }
+        final String text;
+        if (this.event == Event.KEY_NAME) {
+            text = this.lexer.key();
+        } else {
+            text = this.lexer.text();
+        }
+        return text;
     }
 
     @Override
     public boolean isIntegralNumber() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        this.expectNumber();
+        return this.lexer.integral() || this.lexer.decimal().scale() == 0;
     }
 
     @Override
     public int getInt() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        this.expectNumber();
+        final int value;
+        if (this.lexer.fitsLong()) {
+            value = (int) this.lexer.longValue();
+        } else {
+            value = this.lexer.decimal().intValue();
+        }
+        return value;
     }
 
     @Override
     public long getLong() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        this.expectNumber();
+        final long value;
+        if (this.lexer.fitsLong()) {
+            value = this.lexer.longValue();
+        } else {
+            value = this.lexer.decimal().longValue();
+        }
+        return value;
     }
 
     @Override
     public BigDecimal getBigDecimal() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        this.expectNumber();
+        final BigDecimal value;
+        if (this.lexer.fitsLong()) {
+            value = BigDecimal.valueOf(this.lexer.longValue());
+        } else {
+            value = this.lexer.decimal();
+        }
+        return value;
     }
 
     @Override
     public JsonLocation getLocation() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return this.lexer.location();
     }
 
     @Override
     public void close() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        this.lexer.close();
+    }
+
+    /**
+     * The current number as a JsonNumber, in its most compact form: an
+     * int or a long when it surely fits, a BigDecimal otherwise.
+     * @return JsonNumber.
+     */
+    JsonNumber number() {
+        this.expectNumber();
+        final JsonNumber number;
+        if (this.lexer.fitsLong()) {
+            final long value = this.lexer.longValue();
+            if ((int) value == value) {
+                number = new IntJsonNumber((int) value);
+            } else {
+                number = new LongJsonNumber(value);
+            }
+        } else {
+            number = new RtJsonNumber(this.lexer.decimal());
+        }
+        return number;
+    }
+
+    /**
+     * Make sure the current event is a number. Numbers are read straight
+     * from the lexer: small integers come as a long, accumulated while
+     * scanning the digits, and a BigDecimal is only built if needed.
+     */
+    private void expectNumber() {
+        if (this.event != Event.VALUE_NUMBER) {
+            throw new IllegalStateException(
+                "Numbers can only be read after VALUE_NUMBER, but the "
+              + "current event is " + this.event
+            );
+        }
+    }
+
+    /**
+     * Next Event inside a JsonObject.
+     * @param token Current token.
+     * @return Event.
+     */
+    private Event inObject(final JsonToken token) {
+        final Event next;
+        if (this.event == Event.KEY_NAME) {
+            this.expect(token, JsonToken.COLON);
+            next = this.value(this.lexer.next());
+        } else if (token == JsonToken.END_OBJECT) {
+            next = this.end();
+        } else {
+            final JsonToken key;
+            if (this.event == Event.START_OBJECT) {
+                key = token;
+            } else {
+                this.expect(token, JsonToken.COMMA);
+                key = this.lexer.next();
+            }
+            this.expect(key, JsonToken.STRING);
+            next = Event.KEY_NAME;
+        }
+        return next;
+    }
+
+    /**
+     * Next Event inside a JsonArray.
+     * @param token Current token.
+     * @return Event.
+     */
+    private Event inArray(final JsonToken token) {
+        final Event next;
+        if (token == JsonToken.END_ARRAY) {
+            next = this.end();
+        } else if (this.event == Event.START_ARRAY) {
+            next = this.value(token);
+        } else {
+            this.expect(token, JsonToken.COMMA);
+            next = this.value(this.lexer.next());
+        }
+        return next;
+    }
+
+    /**
+     * Event for a token which has to be a JsonValue.
+     * @param token Current token.
+     * @return Event.
+     */
+    private Event value(final JsonToken token) {
+        final Event value;
+        switch (token) {
+            case BEGIN_OBJECT:
+                this.push(RtJsonParser.OBJECT);
+                value = Event.START_OBJECT;
+                break;
+            case BEGIN_ARRAY:
+                this.push(RtJsonParser.ARRAY);
+                value = Event.START_ARRAY;
+                break;
+            case STRING:
+                value = Event.VALUE_STRING;
+                break;
+            case NUMBER:
+                value = Event.VALUE_NUMBER;
+                break;
+            case TRUE:
+                value = Event.VALUE_TRUE;
+                break;
+            case FALSE:
+                value = Event.VALUE_FALSE;
+                break;
+            case NULL:
+                value = Event.VALUE_NULL;
+                break;
+            default:
+                throw this.unexpected(token, "a JSON value");
+        }
+        return value;
+    }
+
+    /**
+     * Open a Json structure.
+     * @param type Type of the structure.
+     */
+    private void push(final byte type) {
+        if (this.depth == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.depth * 2);
+        }
+        this.stack[this.depth] = type;
+        ++this.depth;
+    }
+
+    /**
+     * Close the current Json structure.
+     * @return END_OBJECT or END_ARRAY.
+     */
+    private Event end() {
+        --this.depth;
+        final Event end;
+        if (this.stack[this.depth] == RtJsonParser.OBJECT) {
+            end = Event.END_OBJECT;
+        } else {
+            end = Event.END_ARRAY;
+        }
+        return end;
+    }
+
+    /**
+     * Make sure the token is the expected one.
+     * @param token Actual token.
+     * @param expected Expected token.
+     */
+    private void expect(final JsonToken token, final JsonToken expected) {
+        if (token != expected) {
+            throw this.unexpected(token, expected.name());
+        }
+    }
+
+    /**
+     * Build the exception for an unexpected token.
+     * @param token Actual token.
+     * @param expected What was expected instead.
+     * @return JsonParsingException.
+     */
+    private JsonParsingException unexpected(
+        final JsonToken token, final String expected
+    ) {
+        return new JsonParsingException(
+            "Unexpected token " + token + ", expected " + expected + ".",
+            this.lexer.location()
+        );
     }
-    
 }
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * Factory of RtJsonParser. It is thread-safe and the parsers it creates
+ * take their buffers from a pool shared by all of them, giving them back
+ * when they are closed, so short-lived parsers do not allocate new
+ * buffers every time. Besides the standard methods, it can parse a file
+ * by mapping it into memory, a ByteBuffer in place or a ReadableByteChannel,
+ * and it can create non-blocking parsers which are fed chunks of bytes.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class RtJsonParserFactory implements JsonParserFactory {
+
+    /**
+     * Config key for the size of the parsers' buffers, in chars or bytes.
+     */
+    static final String BUFFER_SIZE =
+        "com.amihaiemil.eojsonp.parser.bufferSize";
+
+    /**
+     * Config key for the number of buffers of each kind kept in the pool.
+     */
+    static final String POOL_SIZE = "com.amihaiemil.eojsonp.parser.poolSize";
+
+    /**
+     * Config key for the size of the windows in which files are mapped,
+     * in bytes.
+     */
+    static final String MAP_SIZE = "com.amihaiemil.eojsonp.parser.mapSize";
+
+    /**
+     * Default number of pooled buffers of each kind.
+     */
+    static final int DEFAULT_POOL = 32;
+
+    /**
+     * Size of the buffers.
+     */
+    private final int size;
+
+    /**
+     * Number of pooled buffers.
+     */
+    private final int capacity;
+
+    /**
+     * Size of the mapped windows.
+     */
+    private final int window;
+
+    /**
+     * The pool.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Ctor.
+     * @param config Configuration, can be null.
+     */
+    RtJsonParserFactory(final Map<String, ?> config) {
+        this.size = new IntConfig(
+            config, RtJsonParserFactory.BUFFER_SIZE, StreamInput.BUFFER_SIZE
+        ).value();
+        this.capacity = new IntConfig(
+            config, RtJsonParserFactory.POOL_SIZE,
+            RtJsonParserFactory.DEFAULT_POOL
+        ).value();
+        this.window = new IntConfig(
+            config, RtJsonParserFactory.MAP_SIZE, MappedInput.WINDOW_SIZE
+        ).value();
+        this.pool = new BufferPool(this.size, this.capacity);
+    }
+
+    /**
+     * Create a parser for a UTF-8 file, which is mapped into memory
+     * instead of being read through a stream.
+     * @param path Path of the file.
+     * @return JsonParser, which closes the file when it is closed.
+     * @throws JsonException If the file cannot be opened.
+     */
+    JsonParser createParser(final Path path) {
+        try {
+            return this.createParser(
+                FileChannel.open(path, StandardOpenOption.READ)
+            );
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to open the JSON file.", ex
+            );
+        }
+    }
+
+    /**
+     * Create a parser for a UTF-8 file, which is mapped into memory from
+     * the beginning, regardless of the channel's position.
+     * @param channel The file.
+     * @return JsonParser, which closes the channel when it is closed.
+     */
+    JsonParser createParser(final FileChannel channel) {
+        return new RtJsonParser(
+            new Utf8Lexer(new MappedInput(channel, this.window), this.pool)
+        );
+    }
+
+    /**
+     * Create a parser for the UTF-8 JSON in a ByteBuffer, heap or direct,
+     * from its position up to its limit. The bytes are tokenized in place
+     * and the buffer's position is not changed.
+     * @param buffer The JSON.
+     * @return JsonParser.
+     */
+    JsonParser createParser(final ByteBuffer buffer) {
+        return new RtJsonParser(
+            new Utf8Lexer(new BufferInput(buffer), this.pool)
+        );
+    }
+
+    /**
+     * Create a parser reading UTF-8 JSON from a channel, into a pooled
+     * direct buffer.
+     * @param channel Channel in blocking mode.
+     * @return JsonParser, which closes the channel when it is closed.
+     */
+    JsonParser createParser(final ReadableByteChannel channel) {
+        return new RtJsonParser(
+            new Utf8Lexer(new ChannelInput(channel, this.pool), this.pool)
+        );
+    }
+
+    /**
+     * Create a non-blocking parser, which is fed chunks of UTF-8 JSON as
+     * they arrive.
+     * @return FeedJsonParser.
+     */
+    FeedJsonParser createFeedParser() {
+        return new FeedJsonParser(this.pool);
+    }
+
+    @Override
+    public JsonParser createParser(final Reader reader) {
+        return new RtJsonParser(new ReaderLexer(reader, this.pool));
+    }
+
+    @Override
+    public JsonParser createParser(final InputStream input) {
+        return new RtJsonParser(new DetectingLexer(input, this.pool));
+    }
+
+    @Override
+    public JsonParser createParser(
+        final InputStream input, final Charset charset
+    ) {
+        final JsonLexer lexer;
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            lexer = new Utf8Lexer(new StreamInput(input, this.pool), this.pool);
+        } else {
+            lexer = new ReaderLexer(
+                new InputStreamReader(input, charset), this.pool
+            );
+        }
+        return new RtJsonParser(lexer);
+    }
+
+    @Override
+    public JsonParser createParser(final JsonObject obj) {
+        return this.createParser(new StringReader(obj.toString()));
+    }
+
+    @Override
+    public JsonParser createParser(final JsonArray array) {
+        return this.createParser(new StringReader(array.toString()));
+    }
+
+    @Override
+    public Map<String, ?> getConfigInUse() {
+        final Map<String, Object> config = new HashMap<>();
+        config.put(RtJsonParserFactory.BUFFER_SIZE, this.size);
+        config.put(RtJsonParserFactory.POOL_SIZE, this.capacity);
+        config.put(RtJsonParserFactory.MAP_SIZE, this.window);
+        return Collections.unmodifiableMap(config);
+    }
+}
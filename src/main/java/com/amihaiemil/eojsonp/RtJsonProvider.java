@@ -29,12 +29,17 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.stream.Stream;
+import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonBuilderFactory;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonReader;
 import javax.json.JsonReaderFactory;
+import javax.json.JsonValue;
 import javax.json.JsonWriter;
 import javax.json.JsonWriterFactory;
 import javax.json.spi.JsonProvider;
@@ -54,6 +59,19 @@ import javax.json.stream.JsonParserFactory;
  */
 final class RtJsonProvider extends JsonProvider {
 
+    /**
+     * Readers of NDJSON and large arrays, sharing their pooled buffers.
+     */
+    private final RtJsonReaderFactory readers;
+
+    /**
+     * Ctor.
+     */
+    RtJsonProvider() {
+        super();
+        this.readers = new RtJsonReaderFactory(null);
+    }
+
     @Override
     public JsonParser createParser(final Reader reader) {
         return new RtJsonParser(reader);
@@ -64,6 +82,47 @@ final class RtJsonProvider extends JsonProvider {
         return new RtJsonParser(input);
     }
 
+    /**
+     * Create a parser for a UTF-8 file, which is mapped into memory
+     * instead of being read through a stream. Use
+     * {@link RtJsonParserFactory#createParser(Path)} to parse many files.
+     * @param path Path of the file.
+     * @return JsonParser, which closes the file when it is closed.
+     */
+    public JsonParser createParser(final Path path) {
+        return new RtJsonParserFactory(null).createParser(path);
+    }
+
+    /**
+     * Read a newline-delimited JSON file as a parallel Stream of values,
+     * one per line. All the files read by this provider share the same
+     * pooled buffers.
+     * @param path Path of the UTF-8 NDJSON file.
+     * @return Parallel, ordered Stream of JsonValue.
+     */
+    public Stream<JsonValue> readLines(final Path path) {
+        return this.readers.lines(path);
+    }
+
+    /**
+     * Read newline-delimited JSON as a parallel Stream of values, one per
+     * line.
+     * @param ndjson The UTF-8 NDJSON, from its position up to its limit.
+     * @return Parallel, ordered Stream of JsonValue.
+     */
+    public Stream<JsonValue> readLines(final ByteBuffer ndjson) {
+        return this.readers.lines(ndjson);
+    }
+
+    /**
+     * Read one large JSON array, parsing its elements in parallel.
+     * @param json The UTF-8 JSON array, from its position up to its limit.
+     * @return JsonArray.
+     */
+    public JsonArray readArray(final ByteBuffer json) {
+        return this.readers.array(json);
+    }
+
     @Override
     public JsonObjectBuilder createObjectBuilder() {
         return new RtJsonObjectBuilder();
@@ -76,7 +135,7 @@ final class RtJsonProvider extends JsonProvider {
 
     @Override
     public JsonParserFactory createParserFactory(final Map<String, ?> config) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return new RtJsonParserFactory(config);
     }
 
     @Override
@@ -93,17 +152,17 @@ final class RtJsonProvider extends JsonProvider {
     public JsonGeneratorFactory createGeneratorFactory(
         final Map<String, ?> config
     ) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return new RtJsonGeneratorFactory(config);
     }
 
     @Override
     public JsonReader createReader(final Reader reader) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return new RtJsonReader(new RtJsonParser(reader));
     }
 
     @Override
     public JsonReader createReader(final InputStream input) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return new RtJsonReader(new RtJsonParser(input));
     }
 
     @Override
@@ -127,14 +186,14 @@ final class RtJsonProvider extends JsonProvider {
     public JsonReaderFactory createReaderFactory(
         final Map<String, ?> config
     ) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return new RtJsonReaderFactory(config);
     }
 
     @Override
     public JsonBuilderFactory createBuilderFactory(
         final Map<String, ?> config
     ) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return new RtJsonBuilderFactory(config);
     }
 
 }
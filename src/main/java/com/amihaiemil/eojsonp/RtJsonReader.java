@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * Base JsonReader implementation. Rt stands for "runtime". It builds the
+ * tree from the events of a JsonParser, with a {@link JsonTree}, so
+ * deeply nested input cannot overflow the thread's stack.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class RtJsonReader implements JsonReader {
+
+    /**
+     * The events come from here.
+     */
+    private final JsonParser parser;
+
+    /**
+     * Was something read already or was the reader closed?
+     */
+    private boolean used;
+
+    /**
+     * Ctor.
+     * @param parser Parser giving the events.
+     */
+    RtJsonReader(final JsonParser parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    public JsonStructure read() {
+        final Event first = this.start();
+        if (first != Event.START_OBJECT && first != Event.START_ARRAY) {
+            throw new JsonParsingException(
+                "Expected a JsonObject or a JsonArray, found " + first,
+                this.parser.getLocation()
+            );
+        }
+        return (JsonStructure) this.tree(first);
+    }
+
+    @Override
+    public JsonObject readObject() {
+        final Event first = this.start();
+        if (first != Event.START_OBJECT) {
+            throw new JsonParsingException(
+                "Expected a JsonObject, found " + first,
+                this.parser.getLocation()
+            );
+        }
+        return (JsonObject) this.tree(first);
+    }
+
+    @Override
+    public JsonArray readArray() {
+        final Event first = this.start();
+        if (first != Event.START_ARRAY) {
+            throw new JsonParsingException(
+                "Expected a JsonArray, found " + first,
+                this.parser.getLocation()
+            );
+        }
+        return (JsonArray) this.tree(first);
+    }
+
+    @Override
+    public JsonValue readValue() {
+        return this.tree(this.start());
+    }
+
+    @Override
+    public void close() {
+        this.used = true;
+        this.parser.close();
+    }
+
+    /**
+     * Read the first event, making sure nothing was read before.
+     * @return First event of the input.
+     */
+    private Event start() {
+        if (this.used) {
+            throw new IllegalStateException(
+                "This JsonReader was already read from or closed."
+            );
+        }
+        this.used = true;
+        return this.parser.next();
+    }
+
+    /**
+     * Build the tree starting with the given event and make sure nothing
+     * follows it in the input: the parser's hasNext() complains about
+     * anything after the base value.
+     * @param first First event, already read.
+     * @return JsonValue.
+     */
+    private JsonValue tree(final Event first) {
+        final JsonValue value = new JsonTree(this.parser).build(first);
+        this.parser.hasNext();
+        return value;
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonValue;
+
+/**
+ * Factory of RtJsonReader. The readers are built on the parsers of a
+ * {@link RtJsonParserFactory}, with the same configuration, so they share
+ * its pooled buffers.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class RtJsonReaderFactory implements JsonReaderFactory {
+
+    /**
+     * Size of the regions in which an NDJSON file is mapped, in bytes.
+     */
+    static final int REGION = 1 << 30;
+
+    /**
+     * Parsers of the readers.
+     */
+    private final RtJsonParserFactory parsers;
+
+    /**
+     * Ctor.
+     * @param config Configuration, can be null.
+     */
+    RtJsonReaderFactory(final Map<String, ?> config) {
+        this.parsers = new RtJsonParserFactory(config);
+    }
+
+    @Override
+    public JsonReader createReader(final Reader reader) {
+        return new RtJsonReader(this.parsers.createParser(reader));
+    }
+
+    @Override
+    public JsonReader createReader(final InputStream input) {
+        return new RtJsonReader(this.parsers.createParser(input));
+    }
+
+    @Override
+    public JsonReader createReader(
+        final InputStream input, final Charset charset
+    ) {
+        return new RtJsonReader(this.parsers.createParser(input, charset));
+    }
+
+    /**
+     * Read the values of newline-delimited JSON, one per line. The Stream
+     * is parallel and ordered; each line is parsed in place, by a parser
+     * with pooled buffers, on the thread which reaches it. The buffers go
+     * back to the pool after every line.
+     * @param ndjson The UTF-8 NDJSON, from its position up to its limit.
+     * @return Parallel Stream of JsonValue.
+     * @throws javax.json.stream.JsonParsingException When the Stream
+     *  reaches a line which is not valid JSON.
+     */
+    Stream<JsonValue> lines(final ByteBuffer ndjson) {
+        return StreamSupport.stream(
+            new JsonLines(ndjson, this::value),
+            true
+        );
+    }
+
+    /**
+     * Read the values of a newline-delimited JSON file, one per line. The
+     * file is mapped into memory in regions which end at a newline and
+     * the Stream goes through them in order, parsing them in parallel.
+     * @param path Path of the UTF-8 NDJSON file.
+     * @return Parallel Stream of JsonValue.
+     * @throws JsonException If the file cannot be mapped.
+     */
+    Stream<JsonValue> lines(final Path path) {
+        try (FileChannel channel = FileChannel.open(
+            path, StandardOpenOption.READ
+        )) {
+            final long size = channel.size();
+            Stream<JsonValue> lines = Stream.empty();
+            long start = 0;
+            while (start < size) {
+                final ByteBuffer region = this.region(channel, start);
+                lines = Stream.concat(lines, this.lines(region));
+                start = start + region.limit();
+            }
+            return lines;
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to map the NDJSON file.", ex
+            );
+        }
+    }
+
+    /**
+     * Read one large JSON array, parsing its elements in parallel. A
+     * {@link StructuralIndex} finds where the top-level elements start and
+     * end, then each of them is parsed in place by its own parser, with
+     * pooled buffers which go back to the pool after every element, and
+     * the values are put back in order.
+     * @param json The UTF-8 JSON array, from its position up to its limit.
+     * @return JsonArray.
+     * @throws javax.json.stream.JsonParsingException If the JSON is not an
+     *  array or one of its elements is not valid JSON.
+     */
+    JsonArray array(final ByteBuffer json) {
+        final int[] bounds = new StructuralIndex(json).elements();
+        return new RtJsonArray(
+            IntStream.range(0, bounds.length / 2).parallel().mapToObj(
+                idx -> {
+                    final ByteBuffer element = json.duplicate();
+                    element.limit(bounds[idx * 2 + 1]);
+                    element.position(bounds[idx * 2]);
+                    return this.value(element);
+                }
+            ).toArray(JsonValue[]::new)
+        );
+    }
+
+    @Override
+    public Map<String, ?> getConfigInUse() {
+        return this.parsers.getConfigInUse();
+    }
+
+    /**
+     * Read the value of a slice of a buffer, giving the pooled buffers of
+     * the reader back afterwards.
+     * @param json The UTF-8 JSON, from its position up to its limit.
+     * @return JsonValue.
+     */
+    private JsonValue value(final ByteBuffer json) {
+        try (JsonReader reader = new RtJsonReader(
+            this.parsers.createParser(json)
+        )) {
+            return reader.readValue();
+        }
+    }
+
+    /**
+     * Map the region of a file which starts at the given offset and ends
+     * after the last newline which fits in {@link #REGION} bytes, or at
+     * the end of the file.
+     * @param channel The file.
+     * @param start Offset of the region.
+     * @return Mapped region, limited to whole lines.
+     * @throws IOException If the file cannot be mapped.
+     */
+    private ByteBuffer region(final FileChannel channel, final long start)
+        throws IOException {
+        final long rest = channel.size() - start;
+        final ByteBuffer region = channel.map(
+            FileChannel.MapMode.READ_ONLY, start,
+            Math.min(rest, RtJsonReaderFactory.REGION)
+        );
+        if (region.limit() < rest) {
+            int cut = region.limit();
+            while (cut > 0 && region.get(cut - 1) != '\n') {
+                --cut;
+            }
+            if (cut == 0) {
+                throw new JsonException(
+                    "A line of the NDJSON file is longer than 1GB."
+                );
+            }
+            region.limit(cut);
+        }
+        return region;
+    }
+}
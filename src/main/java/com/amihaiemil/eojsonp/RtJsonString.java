@@ -82,6 +82,8 @@ final class RtJsonString implements JsonString {
 
     @Override
     public String toString() {
-        return "\"" + this.value + "\"";
+        final TextOutput text = new TextOutput();
+        new JsonEscape().write(String.valueOf(this.value), text);
+        return text.toString();
     }
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Interned layouts ("shapes") of JsonObjects: their keys, in order. Objects
+ * with the same keys in the same order, such as the rows of an API
+ * response, share one {@link JsonKeys}, index included, and only keep
+ * their own array of values, like the hidden classes of JavaScript
+ * engines.
+ *
+ * It is a lock-free, direct-mapped cache: each layout has one slot and a
+ * newer layout simply replaces an older one, so it stays bounded and can
+ * be shared by any number of threads. Objects with more than
+ * {@link #MAX_KEYS} keys are usually maps rather than records, so their
+ * keys are not interned.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class Shapes {
+
+    /**
+     * Default number of slots.
+     */
+    static final int DEFAULT_SIZE = 1024;
+
+    /**
+     * Layouts with more keys are not interned.
+     */
+    static final int MAX_KEYS = 32;
+
+    /**
+     * Shapes used by the builders and readers which are not given their
+     * own.
+     */
+    static final Shapes COMMON = new Shapes(Shapes.DEFAULT_SIZE);
+
+    /**
+     * The slots.
+     */
+    private final AtomicReferenceArray<JsonKeys> slots;
+
+    /**
+     * Ctor.
+     * @param size Number of slots, rounded up to a power of two.
+     */
+    Shapes(final int size) {
+        this.slots = new AtomicReferenceArray<>(
+            Integer.highestOneBit(Math.max(size - 1, 1)) << 1
+        );
+    }
+
+    /**
+     * The interned copy of the given keys.
+     * @param keys Keys which are still being added to.
+     * @return Immutable JsonKeys, maybe shared with other objects.
+     */
+    JsonKeys intern(final JsonKeys keys) {
+        JsonKeys shape;
+        if (keys.size() > Shapes.MAX_KEYS) {
+            shape = keys.copy();
+        } else {
+            final int slot = keys.layout() & this.slots.length() - 1;
+            shape = this.slots.get(slot);
+            if (shape == null || !shape.same(keys)) {
+                shape = keys.copy();
+                this.slots.lazySet(slot, shape);
+            }
+        }
+        return shape;
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import javax.json.JsonException;
+
+/**
+ * ByteInput reading fixed-size blocks from an InputStream into one reusable
+ * heap buffer.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class StreamInput implements ByteInput {
+
+    /**
+     * Default size of the buffer, in bytes.
+     */
+    static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The bytes come from here.
+     */
+    private final InputStream stream;
+
+    /**
+     * Reusable buffer, wrapping a heap array.
+     */
+    private ByteBuffer window;
+
+    /**
+     * Where the buffer comes from and goes back to.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Was the buffer given back to the pool?
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param stream InputStream to read from.
+     */
+    StreamInput(final InputStream stream) {
+        this(stream, StreamInput.BUFFER_SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param stream InputStream to read from.
+     * @param size Size of the buffer, in bytes.
+     */
+    StreamInput(final InputStream stream, final int size) {
+        this(stream, new BufferPool(size));
+    }
+
+    /**
+     * Ctor.
+     * @param stream InputStream to read from.
+     * @param pool Pool of buffers; the buffer goes back to it on close.
+     */
+    StreamInput(final InputStream stream, final BufferPool pool) {
+        this.stream = stream;
+        this.pool = pool;
+        this.window = pool.bytes();
+        this.window.limit(0);
+    }
+
+    @Override
+    public ByteBuffer refill(final ByteBuffer buffer, final int keep) {
+        final int kept = buffer.limit() - keep;
+        if (buffer != this.window) {
+            final ByteBuffer old = buffer.duplicate();
+            old.position(keep);
+            old.get(this.window.array(), 0, kept);
+        } else if (keep == 0 && kept == this.window.capacity()) {
+            final ByteBuffer bigger = ByteBuffer.allocate(kept * 2);
+            System.arraycopy(this.window.array(), 0, bigger.array(), 0, kept);
+            this.window = bigger;
+        } else {
+            System.arraycopy(
+                this.window.array(), keep, this.window.array(), 0, kept
+            );
+        }
+        try {
+            final int read = this.stream.read(
+                this.window.array(), kept, this.window.capacity() - kept
+            );
+            this.window.limit(kept + Math.max(read, 0));
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to read the JSON input.", ex
+            );
+        }
+        return this.window;
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.pool.release(this.window);
+            this.window = ByteBuffer.allocate(0);
+        }
+        try {
+            this.stream.close();
+        } catch (final IOException ex) {
+            throw new JsonException(
+                "IOException when trying to close the InputStream.", ex
+            );
+        }
+    }
+}
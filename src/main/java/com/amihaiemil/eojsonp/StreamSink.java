@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * ByteSink writing the bytes to an OutputStream, so the same buffer is
+ * reused.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class StreamSink implements ByteSink {
+
+    /**
+     * The bytes go here.
+     */
+    private final OutputStream stream;
+
+    /**
+     * Ctor.
+     * @param stream OutputStream to use.
+     */
+    StreamSink(final OutputStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public ByteBuffer send(final ByteBuffer full) {
+        try {
+            this.stream.write(full.array(), 0, full.limit());
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "IOException when trying to write to the OutputStream.", ex
+            );
+        } finally {
+            full.clear();
+        }
+        return full;
+    }
+
+    @Override
+    public boolean finish(final ByteBuffer last) {
+        this.send(last);
+        return false;
+    }
+
+    @Override
+    public void flush() {
+        try {
+            this.stream.flush();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "IOException when trying to flush the OutputStream.", ex
+            );
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.stream.close();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "IOException when trying to close the OutputStream.", ex
+            );
+        }
+    }
+}
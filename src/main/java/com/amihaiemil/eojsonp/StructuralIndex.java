@@ -0,0 +1,374 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * Structural index of a UTF-8 JSON array, locating its top-level elements
+ * without tokenizing them, so they can be parsed in parallel.<br><br>
+ * The input is scanned in blocks of 64 bytes, each read as 8 longs. SWAR
+ * (SIMD within a register) comparisons turn every block into 64-bit masks,
+ * one bit per byte, for quotes, backslashes, brackets and commas. Escaped
+ * quotes are removed (backslashes are rare, so they are walked one by one),
+ * a prefix XOR of the quotes gives the bytes inside Strings and only the
+ * structural characters outside of them are visited, to track the depth
+ * and collect the commas of the top level.<br><br>
+ * Nothing is validated except the nesting; the elements are validated when
+ * they are parsed.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class StructuralIndex {
+
+    /**
+     * Bytes in a block.
+     */
+    private static final int BLOCK = 64;
+
+    /**
+     * The low 7 bits of every byte.
+     */
+    private static final long LOW = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * The high bit of every byte.
+     */
+    private static final long HIGH = 0x8080808080808080L;
+
+    /**
+     * Multiplier gathering the high bits of the 8 bytes into the top byte.
+     */
+    private static final long GATHER = 0x0002040810204081L;
+
+    /**
+     * Bit which turns '[' into '{' and ']' into '}'.
+     */
+    private static final long CASE = 0x2020202020202020L;
+
+    /**
+     * A quote in every byte.
+     */
+    private static final long QUOTES = 0x2222222222222222L;
+
+    /**
+     * A backslash in every byte.
+     */
+    private static final long SLASHES = 0x5C5C5C5C5C5C5C5CL;
+
+    /**
+     * An opening brace in every byte.
+     */
+    private static final long OPENS = 0x7B7B7B7B7B7B7B7BL;
+
+    /**
+     * A closing brace in every byte.
+     */
+    private static final long CLOSES = 0x7D7D7D7D7D7D7D7DL;
+
+    /**
+     * A comma in every byte.
+     */
+    private static final long COMMAS = 0x2C2C2C2C2C2C2C2CL;
+
+    /**
+     * The JSON, read as little-endian longs, so byte i of a long is the
+     * i-th byte of the input.
+     */
+    private final ByteBuffer json;
+
+    /**
+     * Masks of the current block: quotes, backslashes, opening brackets,
+     * closing brackets and commas.
+     */
+    private final long[] masks;
+
+    /**
+     * Did the last block end inside a String?
+     */
+    private boolean quoted;
+
+    /**
+     * Did the last block end with a backslash which escapes the next byte?
+     */
+    private boolean escaping;
+
+    /**
+     * Current nesting depth.
+     */
+    private int depth;
+
+    /**
+     * Indexes of the opening bracket, the top-level commas and the closing
+     * bracket of the array.
+     */
+    private int[] separators;
+
+    /**
+     * How many separators were found.
+     */
+    private int count;
+
+    /**
+     * Ctor.
+     * @param json The JSON, from its position up to its limit.
+     */
+    StructuralIndex(final ByteBuffer json) {
+        this.json = json.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.masks = new long[5];
+        this.separators = new int[16];
+    }
+
+    /**
+     * Find the elements of the array.
+     * @return Start (inclusive) and end (exclusive) index of every
+     *  element, one after the other.
+     * @throws JsonParsingException If the JSON is not an array or the
+     *  brackets are not balanced.
+     */
+    int[] elements() {
+        final int limit = this.json.limit();
+        final int start = this.skip(this.json.position());
+        if (start == limit || this.json.get(start) != '[') {
+            throw this.error("Expected a JSON array", start);
+        }
+        int idx = start;
+        while (idx + StructuralIndex.BLOCK <= limit) {
+            this.block(this.json, idx, idx);
+            idx = idx + StructuralIndex.BLOCK;
+        }
+        if (idx < limit) {
+            final ByteBuffer tail = ByteBuffer.allocate(StructuralIndex.BLOCK)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            while (tail.hasRemaining()) {
+                tail.put((byte) ' ');
+            }
+            final ByteBuffer rest = this.json.duplicate();
+            rest.position(idx);
+            tail.position(0);
+            tail.put(rest);
+            this.block(tail, 0, idx);
+        }
+        if (this.depth != 0) {
+            throw this.error("Unexpected end of input inside the array", limit);
+        }
+        final int end = this.separators[this.count - 1] + 1;
+        if (this.skip(end) != limit) {
+            throw this.error("Expected the end of the input", this.skip(end));
+        }
+        return this.pairs();
+    }
+
+    /**
+     * Index a block of 64 bytes.
+     * @param bytes Buffer holding the block.
+     * @param from Index of the block in that buffer.
+     * @param offset Index of the block in the JSON.
+     */
+    private void block(
+        final ByteBuffer bytes, final int from, final int offset
+    ) {
+        Arrays.fill(this.masks, 0L);
+        for (int word = 0; word < 8; ++word) {
+            final long value = bytes.getLong(from + word * 8);
+            final long folded = value | StructuralIndex.CASE;
+            final int shift = word * 8;
+            this.masks[0] |= find(value, StructuralIndex.QUOTES) << shift;
+            this.masks[1] |= find(value, StructuralIndex.SLASHES) << shift;
+            this.masks[2] |= find(folded, StructuralIndex.OPENS) << shift;
+            this.masks[3] |= find(folded, StructuralIndex.CLOSES) << shift;
+            this.masks[4] |= find(value, StructuralIndex.COMMAS) << shift;
+        }
+        final long strings = this.strings(
+            this.masks[0] & ~this.escaped(this.masks[1])
+        );
+        this.walk(
+            (this.masks[2] | this.masks[3] | this.masks[4]) & ~strings,
+            offset
+        );
+    }
+
+    /**
+     * Bytes which follow an unescaped backslash.
+     * @param slashes Backslashes of the block.
+     * @return Mask of the escaped bytes.
+     */
+    private long escaped(final long slashes) {
+        long escaped = 0L;
+        long rest = slashes;
+        if (this.escaping) {
+            escaped = 1L;
+            rest = rest & ~1L;
+        }
+        this.escaping = false;
+        while (rest != 0) {
+            final int bit = Long.numberOfTrailingZeros(rest);
+            if (bit == 63) {
+                this.escaping = true;
+            } else {
+                escaped = escaped | 1L << bit + 1;
+            }
+            rest = rest & ~(3L << bit);
+        }
+        return escaped;
+    }
+
+    /**
+     * Bytes inside Strings: the prefix XOR of the unescaped quotes, carried
+     * over from the previous block.
+     * @param quotes Unescaped quotes of the block.
+     * @return Mask of the bytes inside Strings, with the opening quotes.
+     */
+    private long strings(final long quotes) {
+        long mask = quotes;
+        for (int shift = 1; shift < 64; shift = shift * 2) {
+            mask = mask ^ mask << shift;
+        }
+        if (this.quoted) {
+            mask = ~mask;
+        }
+        this.quoted = mask < 0;
+        return mask;
+    }
+
+    /**
+     * Visit the structural characters outside of Strings.
+     * @param structural Their mask.
+     * @param offset Index of the block in the JSON.
+     */
+    private void walk(final long structural, final int offset) {
+        long rest = structural;
+        while (rest != 0) {
+            final long flag = rest & -rest;
+            final int pos = offset + Long.numberOfTrailingZeros(rest);
+            if ((this.masks[2] & flag) != 0) {
+                if (this.depth == 0 && this.count > 0) {
+                    throw this.error("Expected the end of the input", pos);
+                }
+                this.depth = this.depth + 1;
+                this.mark(pos, 1);
+            } else if ((this.masks[3] & flag) != 0) {
+                this.depth = this.depth - 1;
+                if (this.depth == 0 && this.json.get(pos) != ']') {
+                    throw this.error("Expected ]", pos);
+                }
+                this.mark(pos, 0);
+            } else {
+                this.mark(pos, 1);
+            }
+            rest = rest & rest - 1;
+        }
+    }
+
+    /**
+     * Remember a separator, if it is at the given depth.
+     * @param pos Index of the separator.
+     * @param level Depth at which it separates top-level elements.
+     */
+    private void mark(final int pos, final int level) {
+        if (this.depth < 0) {
+            throw this.error("Unbalanced closing bracket", pos);
+        }
+        if (this.depth == level) {
+            if (this.count == this.separators.length) {
+                this.separators = Arrays.copyOf(
+                    this.separators, this.count * 2
+                );
+            }
+            this.separators[this.count] = pos;
+            this.count = this.count + 1;
+        }
+    }
+
+    /**
+     * Turn the separators into the bounds of the elements.
+     * @return Start and end of every element.
+     */
+    private int[] pairs() {
+        final int[] pairs;
+        final int first = this.separators[0] + 1;
+        if (this.count == 2 && this.skip(first) == this.separators[1]) {
+            pairs = new int[0];
+        } else {
+            pairs = new int[(this.count - 1) * 2];
+            for (int idx = 0; idx < this.count - 1; ++idx) {
+                pairs[idx * 2] = this.separators[idx] + 1;
+                pairs[idx * 2 + 1] = this.separators[idx + 1];
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Skip whitespace.
+     * @param from Where to start.
+     * @return Index of the first byte which is not whitespace, or the limit.
+     */
+    private int skip(final int from) {
+        int idx = from;
+        boolean blank = true;
+        while (blank && idx < this.json.limit()) {
+            final byte chr = this.json.get(idx);
+            blank = chr == ' ' || chr == '\n' || chr == '\r' || chr == '\t';
+            if (blank) {
+                ++idx;
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * Build a parsing exception.
+     * @param message What is wrong, without the final period.
+     * @param pos Where it is wrong.
+     * @return JsonParsingException.
+     */
+    private JsonParsingException error(final String message, final int pos) {
+        return new JsonParsingException(
+            message + " at offset " + pos + ".",
+            new RtJsonLocation(-1, -1, pos)
+        );
+    }
+
+    /**
+     * Find a byte in a word.
+     * @param word Eight bytes.
+     * @param pattern The byte, repeated eight times.
+     * @return Eight bits, bit i set if byte i of the word is the one
+     *  searched for.
+     */
+    private static long find(final long word, final long pattern) {
+        final long diff = word ^ pattern;
+        final long nonzero = (diff & StructuralIndex.LOW)
+            + StructuralIndex.LOW | diff;
+        return (~nonzero & StructuralIndex.HIGH) * StructuralIndex.GATHER
+            >>> 56;
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Scans of UTF-8 bytes. The bytes of a heap buffer are looked at one by
+ * one, straight from its array: the JIT compiles that loop better than any
+ * read through the ByteBuffer, a long at a time or not. Direct and mapped
+ * buffers are read 8 bytes at a time, as a long, using SWAR (SIMD within a
+ * register) bit tricks instead of a branch per byte. Every comparison sets
+ * the high bit of the bytes which match, without carries from one byte
+ * into the next, so the first match is found by counting zeros. The bytes
+ * which do not fill a whole long are looked at one by one.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class SwarScan {
+
+    /**
+     * The low 7 bits of every byte.
+     */
+    private static final long LOW = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * The high bit of every byte.
+     */
+    private static final long HIGH = 0x8080808080808080L;
+
+    /**
+     * Added to the low 7 bits of every byte, it carries into the high bit
+     * exactly when the byte is not a control character.
+     */
+    private static final long CONTROL = 0x6060606060606060L;
+
+    /**
+     * A quote in every byte.
+     */
+    private static final long QUOTES = 0x2222222222222222L;
+
+    /**
+     * A backslash in every byte.
+     */
+    private static final long SLASHES = 0x5C5C5C5C5C5C5C5CL;
+
+    /**
+     * Bytes which end the plain part of a String (quote, backslash and
+     * control characters), indexed by the unsigned byte.
+     */
+    private static final boolean[] SPECIAL = new boolean[256];
+
+    static {
+        for (int chr = 0; chr < ' '; ++chr) {
+            SPECIAL[chr] = true;
+        }
+        SPECIAL['"'] = true;
+        SPECIAL['\\'] = true;
+    }
+
+    /**
+     * Hidden ctor.
+     */
+    private SwarScan() {
+    }
+
+    /**
+     * Find the first quote, backslash or control character.
+     * @param buf The bytes.
+     * @param from Index where to start.
+     * @param until Index where to stop (exclusive).
+     * @return Index of the first special byte, or until if there is none.
+     */
+    static int special(final ByteBuffer buf, final int from, final int until) {
+        final int idx;
+        if (buf.hasArray()) {
+            final int offset = buf.arrayOffset();
+            idx = SwarScan.special(
+                buf.array(), offset + from, offset + until
+            ) - offset;
+        } else {
+            idx = SwarScan.specialWords(buf, from, until);
+        }
+        return idx;
+    }
+
+    /**
+     * Are the bytes all ASCII, without backslashes? Then each of them is
+     * a char of its own and they can be copied without decoding.
+     * @param buf The bytes.
+     * @param from Index of the first byte.
+     * @param until Index after the last byte.
+     * @return True or false.
+     */
+    static boolean plain(
+        final ByteBuffer buf, final int from, final int until
+    ) {
+        final boolean plain;
+        if (buf.hasArray()) {
+            final int offset = buf.arrayOffset();
+            plain = SwarScan.plain(
+                buf.array(), offset + from, offset + until
+            );
+        } else {
+            plain = SwarScan.plainWords(buf, from, until);
+        }
+        return plain;
+    }
+
+    /**
+     * Find the first quote, backslash or control character, byte by byte.
+     * @param bytes The bytes.
+     * @param from Index where to start.
+     * @param until Index where to stop (exclusive).
+     * @return Index of the first special byte, or until if there is none.
+     */
+    private static int special(
+        final byte[] bytes, final int from, final int until
+    ) {
+        int idx = from;
+        while (idx < until && !SPECIAL[bytes[idx] & 0xFF]) {
+            ++idx;
+        }
+        return idx;
+    }
+
+    /**
+     * Are the bytes all ASCII, without backslashes? Byte by byte.
+     * @param bytes The bytes.
+     * @param from Index of the first byte.
+     * @param until Index after the last byte.
+     * @return True or false.
+     */
+    private static boolean plain(
+        final byte[] bytes, final int from, final int until
+    ) {
+        int idx = from;
+        while (idx < until && bytes[idx] >= 0 && bytes[idx] != '\\') {
+            ++idx;
+        }
+        return idx == until;
+    }
+
+    /**
+     * Find the first quote, backslash or control character, 8 bytes at
+     * a time.
+     * @param buf The bytes.
+     * @param from Index where to start.
+     * @param until Index where to stop (exclusive).
+     * @return Index of the first special byte, or until if there is none.
+     */
+    private static int specialWords(
+        final ByteBuffer buf, final int from, final int until
+    ) {
+        int idx = from;
+        long found = 0L;
+        while (found == 0L && idx + Long.BYTES <= until) {
+            found = SwarScan.special(buf.getLong(idx));
+            idx = idx + Long.BYTES;
+        }
+        if (found == 0L) {
+            while (idx < until && !SPECIAL[buf.get(idx) & 0xFF]) {
+                ++idx;
+            }
+        } else if (buf.order() == ByteOrder.BIG_ENDIAN) {
+            idx = idx - Long.BYTES + (Long.numberOfLeadingZeros(found) >>> 3);
+        } else {
+            idx = idx - Long.BYTES
+                + (Long.numberOfTrailingZeros(found) >>> 3);
+        }
+        return idx;
+    }
+
+    /**
+     * Are the bytes all ASCII, without backslashes? 8 bytes at a time.
+     * @param buf The bytes.
+     * @param from Index of the first byte.
+     * @param until Index after the last byte.
+     * @return True or false.
+     */
+    private static boolean plainWords(
+        final ByteBuffer buf, final int from, final int until
+    ) {
+        int idx = from;
+        long seen = 0L;
+        while (idx + Long.BYTES <= until) {
+            final long word = buf.getLong(idx);
+            seen = seen | word & HIGH | SwarScan.zero(word ^ SLASHES);
+            idx = idx + Long.BYTES;
+        }
+        while (idx < until) {
+            final byte chr = buf.get(idx);
+            if (chr < 0 || chr == '\\') {
+                seen = HIGH;
+            }
+            ++idx;
+        }
+        return seen == 0L;
+    }
+
+    /**
+     * Quotes, backslashes and control characters in a word. The three
+     * sums carry into the high bit of every byte which is not a quote,
+     * not a backslash and not a control character, respectively; the
+     * bytes which carry in none of them, and are not above 0x7F, are
+     * the special ones.
+     * @param word Eight bytes.
+     * @return The high bit of every such byte.
+     */
+    private static long special(final long word) {
+        final long low = word & LOW;
+        final long quote = (low ^ QUOTES) + LOW;
+        final long slash = (low ^ SLASHES) + LOW;
+        final long control = low + CONTROL;
+        final long carried = quote & slash & control | word;
+        return ~carried & HIGH;
+    }
+
+    /**
+     * Zero bytes in a word.
+     * @param word Eight bytes.
+     * @return The high bit of every zero byte.
+     */
+    private static long zero(final long word) {
+        return ~((word & LOW) + LOW | word) & HIGH;
+    }
+}
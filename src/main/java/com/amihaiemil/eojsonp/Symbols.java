@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Symbol table of object keys, so a key which repeats throughout a document
+ * (or across documents, since the lexers recycle their tables through the
+ * {@link BufferPool}) is decoded and allocated only once. It is keyed on the
+ * raw span of the key in the lexer's buffer: a known key is found by hashing
+ * and comparing that span, without decoding it.<br><br>
+ * The table is direct-mapped and bounded: each span hashes to a single slot
+ * and a new key simply replaces whatever was there. Long keys are rarely
+ * repeated, so they are not remembered at all.<br><br>
+ * It is not thread-safe; a table is used by one lexer at a time.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class Symbols {
+
+    /**
+     * Default number of slots.
+     */
+    static final int DEFAULT_SIZE = 512;
+
+    /**
+     * Longest span, in bytes or chars, which is remembered.
+     */
+    static final int MAX_LENGTH = 64;
+
+    /**
+     * Hash of the span in each slot.
+     */
+    private final int[] hashes;
+
+    /**
+     * Raw UTF-8 span in each slot, null if the key came from chars.
+     */
+    private final byte[][] raw;
+
+    /**
+     * Decoded key in each slot.
+     */
+    private final String[] names;
+
+    /**
+     * Slot of the last span which was not found, -1 if it cannot be
+     * remembered.
+     */
+    private int last;
+
+    /**
+     * Ctor.
+     */
+    Symbols() {
+        this(Symbols.DEFAULT_SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param size Number of slots, rounded up to a power of two.
+     */
+    Symbols(final int size) {
+        final int slots = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        this.hashes = new int[slots];
+        this.raw = new byte[slots][];
+        this.names = new String[slots];
+        this.last = -1;
+    }
+
+    /**
+     * Find the key with the given UTF-8 span. If it is not found, the span
+     * is noted, so the decoded key can be given to {@link #remember(String)}
+     * right after.
+     * @param bytes Buffer holding the span.
+     * @param from Index of the first byte of the span.
+     * @param until Index after the last byte of the span.
+     * @return The key or null, if it is not known.
+     */
+    String find(final ByteBuffer bytes, final int from, final int until) {
+        String found = null;
+        this.last = -1;
+        final int length = until - from;
+        if (length <= Symbols.MAX_LENGTH) {
+            final int hash = Symbols.hash(bytes, from, until);
+            final int slot = this.slot(hash);
+            final byte[] span = this.raw[slot];
+            if (this.hashes[slot] == hash && span != null
+                && span.length == length
+                && Symbols.matches(span, bytes, from)) {
+                found = this.names[slot];
+            }
+            if (found == null) {
+                this.note(slot, hash);
+                if (span == null || span.length != length) {
+                    this.raw[slot] = new byte[length];
+                }
+                for (int idx = 0; idx < length; ++idx) {
+                    this.raw[slot][idx] = bytes.get(from + idx);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Find the key with the given span of chars, which must not contain
+     * escape sequences. If it is not found, the span is noted, so the key
+     * can be given to {@link #remember(String)} right after.
+     * @param chars Buffer holding the span.
+     * @param from Index of the first char of the span.
+     * @param until Index after the last char of the span.
+     * @return The key or null, if it is not known.
+     */
+    String find(final char[] chars, final int from, final int until) {
+        String found = null;
+        this.last = -1;
+        if (until - from <= Symbols.MAX_LENGTH) {
+            int hash = 0;
+            for (int idx = from; idx < until; ++idx) {
+                hash = 31 * hash + chars[idx];
+            }
+            final int slot = this.slot(hash);
+            final String name = this.names[slot];
+            if (this.hashes[slot] == hash && name != null
+                && name.length() == until - from
+                && Symbols.matches(name, chars, from)) {
+                found = name;
+            } else {
+                this.note(slot, hash);
+                this.raw[slot] = null;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Remember the key of the last span which was not found.
+     * @param name The decoded key.
+     * @return The same key.
+     */
+    String remember(final String name) {
+        if (this.last >= 0) {
+            this.names[this.last] = name;
+            this.last = -1;
+        }
+        return name;
+    }
+
+    /**
+     * Slot of a hash.
+     * @param hash Hash of a span.
+     * @return Index of the slot.
+     */
+    private int slot(final int hash) {
+        return (hash ^ hash >>> 16) & this.hashes.length - 1;
+    }
+
+    /**
+     * Empty a slot and note it as the one to be filled next.
+     * @param slot Index of the slot.
+     * @param hash Hash of the span going into it.
+     */
+    private void note(final int slot, final int hash) {
+        this.hashes[slot] = hash;
+        this.names[slot] = null;
+        this.last = slot;
+    }
+
+    /**
+     * Hash of a UTF-8 span. For ASCII, it is the same as the hash of the
+     * chars.
+     * @param bytes Buffer.
+     * @param from Index of the first byte of the span.
+     * @param until Index after the last byte of the span.
+     * @return Hash.
+     */
+    private static int hash(
+        final ByteBuffer bytes, final int from, final int until
+    ) {
+        int hash = 0;
+        for (int idx = from; idx < until; ++idx) {
+            hash = 31 * hash + bytes.get(idx);
+        }
+        return hash;
+    }
+
+    /**
+     * Do the bytes of a remembered span match the ones in the buffer?
+     * @param span Remembered span.
+     * @param bytes Buffer.
+     * @param from Where the span starts in the buffer.
+     * @return True or false.
+     */
+    private static boolean matches(
+        final byte[] span, final ByteBuffer bytes, final int from
+    ) {
+        boolean same = true;
+        for (int idx = 0; same && idx < span.length; ++idx) {
+            same = span[idx] == bytes.get(from + idx);
+        }
+        return same;
+    }
+
+    /**
+     * Do the chars in the buffer match a remembered key?
+     * @param name Remembered key.
+     * @param chars Buffer.
+     * @param from Where the span starts in the buffer.
+     * @return True or false.
+     */
+    private static boolean matches(
+        final String name, final char[] chars, final int from
+    ) {
+        boolean same = true;
+        for (int idx = 0; same && idx < name.length(); ++idx) {
+            same = name.charAt(idx) == chars[from + idx];
+        }
+        return same;
+    }
+}
@@ -0,0 +1,732 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import javax.json.stream.JsonLocation;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * JsonLexer which tokenizes UTF-8 bytes directly, without decoding them
+ * to chars first. Structural characters, numbers and literals are all ASCII
+ * and in UTF-8 no byte of a multi-byte sequence can be mistaken for a quote
+ * or a backslash, so Strings are only scanned for their end while
+ * tokenizing. They are decoded when {@link #text()} is called, so the
+ * content of a String which is never read is also never validated as UTF-8.
+ * Columns and offsets in the location are counted in bytes.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class Utf8Lexer implements JsonLexer {
+
+    /**
+     * Tokens made of a single character, indexed by that character.
+     */
+    private static final JsonToken[] PUNCTUATION = new JsonToken[128];
+
+    /**
+     * Characters which can follow a backslash in a String.
+     */
+    private static final String ESCAPES = "\"\\/bfnrt";
+
+    /**
+     * What each of the ESCAPES stands for.
+     */
+    private static final String UNESCAPED = "\"\\/\b\f\n\r\t";
+
+    static {
+        PUNCTUATION['{'] = JsonToken.BEGIN_OBJECT;
+        PUNCTUATION['}'] = JsonToken.END_OBJECT;
+        PUNCTUATION['['] = JsonToken.BEGIN_ARRAY;
+        PUNCTUATION[']'] = JsonToken.END_ARRAY;
+        PUNCTUATION[':'] = JsonToken.COLON;
+        PUNCTUATION[','] = JsonToken.COMMA;
+    }
+
+    /**
+     * Where the bytes come from.
+     */
+    private final ByteInput input;
+
+    /**
+     * Where the chars buffer comes from and goes back to.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Bytes read so far and not yet consumed, from index 0 to limit.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Index of the next byte to look at.
+     */
+    private int pos;
+
+    /**
+     * How many bytes in the buffer are valid.
+     */
+    private int limit;
+
+    /**
+     * Index where the current token starts. Everything from here on is
+     * kept when the buffer is refilled.
+     */
+    private int start;
+
+    /**
+     * Index where the content of the current token ends (exclusive).
+     */
+    private int end;
+
+    /**
+     * Current token.
+     */
+    private JsonToken token;
+
+    /**
+     * Does the current number have no fraction and no exponent?
+     */
+    private boolean integral;
+
+    /**
+     * Does the current number surely fit in a long?
+     */
+    private boolean fits;
+
+    /**
+     * Value of the current number, if it fits in a long.
+     */
+    private long value;
+
+    /**
+     * Is the input over?
+     */
+    private boolean eof;
+
+    /**
+     * How many bytes were discarded from the beginning of the input.
+     */
+    private long consumed;
+
+    /**
+     * Current line, starting from 1.
+     */
+    private long line;
+
+    /**
+     * Offset at which the current line starts.
+     */
+    private long bol;
+
+    /**
+     * Reusable buffer for decoding Strings.
+     */
+    private char[] chars;
+
+    /**
+     * How many chars were decoded in the chars buffer.
+     */
+    private int count;
+
+    /**
+     * Known object keys, taken from the pool when the first key is read.
+     */
+    private Symbols symbols;
+
+    /**
+     * Index to which {@link #rewind()} goes back, -1 if there is no mark.
+     * Bytes from here on are kept when the buffer is refilled.
+     */
+    private int mark;
+
+    /**
+     * Line at the mark.
+     */
+    private long markLine;
+
+    /**
+     * Offset at which the line of the mark starts.
+     */
+    private long markBol;
+
+    /**
+     * Was the chars buffer given back to the pool?
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param input Where the bytes come from.
+     */
+    Utf8Lexer(final ByteInput input) {
+        this(input, new BufferPool(64));
+    }
+
+    /**
+     * Ctor.
+     * @param input Where the bytes come from.
+     * @param pool Pool of buffers; the chars buffer goes back to it on
+     *  close.
+     */
+    Utf8Lexer(final ByteInput input, final BufferPool pool) {
+        this.input = input;
+        this.pool = pool;
+        this.buffer = ByteBuffer.allocate(0);
+        this.chars = pool.chars();
+        this.line = 1;
+        this.mark = -1;
+    }
+
+    @Override
+    public JsonToken next() {
+        this.skip();
+        this.start = this.pos;
+        final JsonToken next;
+        if (this.pos == this.limit) {
+            next = JsonToken.EOF;
+        } else {
+            final byte chr = this.buffer.get(this.pos);
+            if (chr >= 0 && PUNCTUATION[chr] != null) {
+                next = PUNCTUATION[chr];
+                ++this.pos;
+            } else if (chr == '"') {
+                next = this.string();
+            } else if (chr == '-' || chr >= '0' && chr <= '9') {
+                next = this.number();
+            } else {
+                next = this.literal(chr);
+            }
+        }
+        this.token = next;
+        return next;
+    }
+
+    @Override
+    public boolean done() {
+        this.skip();
+        return this.pos == this.limit;
+    }
+
+    @Override
+    public String text() {
+        if (this.token == JsonToken.STRING) {
+            this.decode(this.start + 1, this.end);
+        } else {
+            this.decode(this.start, this.end);
+        }
+        return new String(this.chars, 0, this.count);
+    }
+
+    @Override
+    public String key() {
+        if (this.symbols == null) {
+            this.symbols = this.pool.symbols();
+        }
+        String key = this.symbols.find(this.buffer, this.start + 1, this.end);
+        if (key == null) {
+            key = this.symbols.remember(this.text());
+        }
+        return key;
+    }
+
+    @Override
+    public BigDecimal decimal() {
+        this.decode(this.start, this.end);
+        return new BigDecimal(this.chars, 0, this.count);
+    }
+
+    @Override
+    public boolean integral() {
+        return this.integral;
+    }
+
+    @Override
+    public boolean fitsLong() {
+        return this.fits;
+    }
+
+    @Override
+    public long longValue() {
+        return this.value;
+    }
+
+    @Override
+    public JsonLocation location() {
+        return new RtJsonLocation(
+            this.line,
+            this.consumed + this.pos - this.bol + 1,
+            this.consumed + this.pos
+        );
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.pool.release(this.chars);
+            if (this.symbols != null) {
+                this.pool.release(this.symbols);
+                this.symbols = null;
+            }
+            this.chars = new char[0];
+            this.buffer = ByteBuffer.allocate(0);
+            this.pos = 0;
+            this.limit = 0;
+            this.start = 0;
+            this.end = 0;
+            this.eof = true;
+        }
+        this.input.close();
+    }
+
+    /**
+     * Remember the current position, so the lexer can go back to it if
+     * the input runs out before the tokens which follow are complete.
+     */
+    void mark() {
+        this.mark = this.pos;
+        this.markLine = this.line;
+        this.markBol = this.bol;
+    }
+
+    /**
+     * Go back to the last mark. The current token is not valid anymore.
+     */
+    void rewind() {
+        this.pos = this.mark;
+        this.line = this.markLine;
+        this.bol = this.markBol;
+        this.token = null;
+    }
+
+    /**
+     * Skip whitespace, counting lines. Afterwards, pos either points to
+     * a non-whitespace byte or is equal to limit, meaning the input is over.
+     */
+    private void skip() {
+        boolean blank = true;
+        while (blank && (this.pos < this.limit || this.fill())) {
+            final byte chr = this.buffer.get(this.pos);
+            if (chr == '\n') {
+                ++this.line;
+                this.bol = this.consumed + this.pos + 1;
+            }
+            blank = chr == ' ' || chr == '\n' || chr == '\r' || chr == '\t';
+            if (blank) {
+                ++this.pos;
+            }
+        }
+    }
+
+    /**
+     * Scan a String token. Escape sequences are validated, but nothing
+     * is decoded.
+     * @return JsonToken.STRING.
+     */
+    private JsonToken string() {
+        ++this.pos;
+        byte chr = this.plain();
+        while (chr != '"') {
+            if (chr == '\\') {
+                this.escape();
+            } else {
+                throw this.error("Unescaped control character in String");
+            }
+            chr = this.plain();
+        }
+        this.end = this.pos;
+        ++this.pos;
+        return JsonToken.STRING;
+    }
+
+    /**
+     * Skip over the bytes of a String which need no special attention,
+     * eight at a time.
+     * @return The first special byte (quote, backslash or control char),
+     *  at which pos points afterwards.
+     */
+    private byte plain() {
+        boolean found = false;
+        while (!found) {
+            if (this.pos == this.limit && !this.fill()) {
+                throw this.error("Unexpected end of input inside a String");
+            }
+            this.pos = SwarScan.special(this.buffer, this.pos, this.limit);
+            found = this.pos < this.limit;
+        }
+        return this.buffer.get(this.pos);
+    }
+
+    /**
+     * Validate an escape sequence. Pos points to the backslash.
+     */
+    private void escape() {
+        ++this.pos;
+        final int chr = this.current();
+        if (chr == 'u') {
+            ++this.pos;
+            for (int idx = 0; idx < 4; ++idx) {
+                if (Hex.value(this.current()) < 0) {
+                    throw this.error("Invalid unicode escape sequence");
+                }
+                ++this.pos;
+            }
+        } else if (chr < 0 || ESCAPES.indexOf(chr) < 0) {
+            throw this.error("Invalid escape sequence");
+        } else {
+            ++this.pos;
+        }
+    }
+
+    /**
+     * Decode UTF-8 bytes which may contain escape sequences into the chars
+     * buffer. Plain ASCII, the usual case, is copied without decoding.
+     * @param from Index of the first byte.
+     * @param until Index after the last byte.
+     */
+    private void decode(final int from, final int until) {
+        if (this.chars.length < until - from) {
+            this.chars = new char[
+                Math.max(until - from, this.chars.length * 2)
+            ];
+        }
+        if (SwarScan.plain(this.buffer, from, until)) {
+            for (int idx = from; idx < until; ++idx) {
+                this.chars[idx - from] = (char) this.buffer.get(idx);
+            }
+            this.count = until - from;
+        } else {
+            this.escaped(from, until);
+        }
+    }
+
+    /**
+     * Decode UTF-8 bytes with escape sequences or multi-byte sequences
+     * into the chars buffer, which is big enough.
+     * @param from Index of the first byte.
+     * @param until Index after the last byte.
+     */
+    private void escaped(final int from, final int until) {
+        this.count = 0;
+        int idx = from;
+        while (idx < until) {
+            final byte chr = this.buffer.get(idx);
+            if (chr == '\\') {
+                idx = this.unescape(idx);
+            } else if (chr >= 0) {
+                this.append((char) chr);
+                ++idx;
+            } else {
+                idx = this.multibyte(idx, until);
+            }
+        }
+    }
+
+    /**
+     * Decode an escape sequence.
+     * @param idx Index of the backslash.
+     * @return Index after the escape sequence.
+     */
+    private int unescape(final int idx) {
+        final int kind = this.buffer.get(idx + 1);
+        final int after;
+        if (kind == 'u') {
+            int code = 0;
+            for (int hex = idx + 2; hex < idx + 6; ++hex) {
+                code = code * 16 + Hex.value(this.buffer.get(hex));
+            }
+            this.append((char) code);
+            after = idx + 6;
+        } else {
+            this.append(UNESCAPED.charAt(ESCAPES.indexOf(kind)));
+            after = idx + 2;
+        }
+        return after;
+    }
+
+    /**
+     * Decode a multi-byte UTF-8 sequence.
+     * @param idx Index of the first byte of the sequence.
+     * @param until Index after the last byte of the String.
+     * @return Index after the sequence.
+     */
+    private int multibyte(final int idx, final int until) {
+        final int lead = this.buffer.get(idx) & 0xFF;
+        final int length;
+        if (lead >= 0xC2 && lead < 0xE0) {
+            length = 2;
+        } else if (lead >= 0xE0 && lead < 0xF0) {
+            length = 3;
+        } else if (lead >= 0xF0 && lead < 0xF5) {
+            length = 4;
+        } else {
+            throw this.error("Invalid UTF-8 byte in String");
+        }
+        if (idx + length > until) {
+            throw this.error("Truncated UTF-8 sequence in String");
+        }
+        int code = lead & (0x7F >> length);
+        for (int next = idx + 1; next < idx + length; ++next) {
+            final int cont = this.buffer.get(next);
+            if ((cont & 0xC0) != 0x80) {
+                throw this.error("Invalid UTF-8 sequence in String");
+            }
+            code = (code << 6) | (cont & 0x3F);
+        }
+        this.codepoint(code, length);
+        return idx + length;
+    }
+
+    /**
+     * Append a code point decoded from a multi-byte sequence, rejecting
+     * overlong encodings and surrogates.
+     * @param code Code point.
+     * @param length How many bytes it was encoded in.
+     */
+    private void codepoint(final int code, final int length) {
+        final boolean overlong = length == 3 && code < 0x800
+            || length == 4 && code < 0x10000;
+        if (overlong || code > Character.MAX_CODE_POINT
+            || length == 3 && Character.isSurrogate((char) code)) {
+            throw this.error("Invalid UTF-8 sequence in String");
+        }
+        if (length == 4) {
+            this.append(Character.highSurrogate(code));
+            this.append(Character.lowSurrogate(code));
+        } else {
+            this.append((char) code);
+        }
+    }
+
+    /**
+     * Append a decoded char.
+     * @param chr Char.
+     */
+    private void append(final char chr) {
+        if (this.count == this.chars.length) {
+            final char[] bigger = new char[this.count * 2];
+            System.arraycopy(this.chars, 0, bigger, 0, this.count);
+            this.chars = bigger;
+        }
+        this.chars[this.count] = chr;
+        ++this.count;
+    }
+
+    /**
+     * Scan a number token, validating it against the JSON grammar. The
+     * digits of the integer part are accumulated into a long on the way,
+     * so small integers can be read without building a BigDecimal.
+     * @return JsonToken.NUMBER.
+     */
+    private JsonToken number() {
+        final boolean negative = this.current() == '-';
+        if (negative) {
+            ++this.pos;
+        }
+        final int digits;
+        if (this.current() == '0') {
+            ++this.pos;
+            this.value = 0;
+            digits = 1;
+        } else {
+            digits = this.integer();
+        }
+        if (digits == 0) {
+            throw this.error("Invalid number, expected a digit");
+        }
+        final boolean fraction = this.fraction();
+        final boolean exponent = this.exponent();
+        this.integral = !fraction && !exponent;
+        this.fits = this.integral && digits < 19;
+        if (negative) {
+            this.value = -this.value;
+        }
+        this.end = this.pos;
+        return JsonToken.NUMBER;
+    }
+
+    /**
+     * Skip over the digits of the integer part of a number, accumulating
+     * them into the value. The value overflows after 18 digits, but then
+     * it is not used anymore.
+     * @return How many digits were skipped.
+     */
+    private int integer() {
+        int digits = 0;
+        long acc = 0;
+        int chr = this.current();
+        while (chr >= '0' && chr <= '9') {
+            acc = acc * 10 + chr - '0';
+            ++digits;
+            ++this.pos;
+            chr = this.current();
+        }
+        this.value = acc;
+        return digits;
+    }
+
+    /**
+     * Skip over the fraction of a number, if there is one.
+     * @return True if there was a fraction.
+     */
+    private boolean fraction() {
+        final boolean fraction = this.current() == '.';
+        if (fraction) {
+            ++this.pos;
+            this.mandatoryDigits();
+        }
+        return fraction;
+    }
+
+    /**
+     * Skip over the exponent of a number, if there is one.
+     * @return True if there was an exponent.
+     */
+    private boolean exponent() {
+        final int chr = this.current();
+        final boolean exponent = chr == 'e' || chr == 'E';
+        if (exponent) {
+            ++this.pos;
+            final int sign = this.current();
+            if (sign == '+' || sign == '-') {
+                ++this.pos;
+            }
+            this.mandatoryDigits();
+        }
+        return exponent;
+    }
+
+    /**
+     * Skip over at least one digit.
+     */
+    private void mandatoryDigits() {
+        if (this.digits() == 0) {
+            throw this.error("Invalid number, expected a digit");
+        }
+    }
+
+    /**
+     * Skip over digits.
+     * @return How many digits were skipped.
+     */
+    private int digits() {
+        int digits = 0;
+        int chr = this.current();
+        while (chr >= '0' && chr <= '9') {
+            ++digits;
+            ++this.pos;
+            chr = this.current();
+        }
+        return digits;
+    }
+
+    /**
+     * Scan one of the literals true, false or null.
+     * @param first First byte of the literal.
+     * @return JsonToken.
+     */
+    private JsonToken literal(final byte first) {
+        final JsonToken literal;
+        final String word;
+        if (first == 't') {
+            literal = JsonToken.TRUE;
+            word = "true";
+        } else if (first == 'f') {
+            literal = JsonToken.FALSE;
+            word = "false";
+        } else if (first == 'n') {
+            literal = JsonToken.NULL;
+            word = "null";
+        } else {
+            throw this.error(
+                "Unexpected byte 0x" + Integer.toHexString(first & 0xFF)
+            );
+        }
+        for (int idx = 0; idx < word.length(); ++idx) {
+            if (this.current() != word.charAt(idx)) {
+                throw this.error("Invalid literal, expected " + word);
+            }
+            ++this.pos;
+        }
+        return literal;
+    }
+
+    /**
+     * The byte at pos, reading more input if needed.
+     * @return The byte or -1 if the input is over. Bytes of multi-byte
+     *  sequences are negative as well.
+     */
+    private int current() {
+        final int chr;
+        if (this.pos < this.limit || this.fill()) {
+            chr = this.buffer.get(this.pos);
+        } else {
+            chr = -1;
+        }
+        return chr;
+    }
+
+    /**
+     * Ask the input for more bytes. Whatever is before the start of
+     * the current token and before the mark is discarded.
+     * @return True if there are more bytes to look at, false if the input
+     *  is over.
+     */
+    private boolean fill() {
+        if (!this.eof) {
+            final int shift;
+            if (this.mark >= 0 && this.mark < this.start) {
+                shift = this.mark;
+            } else {
+                shift = this.start;
+            }
+            final int kept = this.limit - shift;
+            this.buffer = this.input.refill(this.buffer, shift);
+            if (this.mark >= 0) {
+                this.mark = this.mark - shift;
+            }
+            this.consumed = this.consumed + shift;
+            this.limit = this.buffer.limit();
+            this.pos = this.pos - shift;
+            this.end = this.end - shift;
+            this.start = this.start - shift;
+            this.eof = this.limit == kept;
+        }
+        return this.pos < this.limit;
+    }
+
+    /**
+     * Build a parsing exception for the current location.
+     * @param message Error message.
+     * @return JsonParsingException.
+     */
+    private JsonParsingException error(final String message) {
+        return new JsonParsingException(message, this.location());
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * JsonOutput encoding UTF-8 bytes straight into a buffer for a
+ * {@link ByteSink} (usually an OutputStream), without going through a
+ * CharsetEncoder. ASCII chars, which include all the structural tokens, take
+ * one store each. Unpaired surrogates are written as '?', like the JDK
+ * encoder does. The buffer can come from a {@link BufferPool}, to which it
+ * is given back on close.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class Utf8Output implements JsonOutput {
+
+    /**
+     * Maximum number of bytes of an UTF-8 encoded code point.
+     */
+    private static final int MAX_BYTES = 4;
+
+    /**
+     * The bytes go here.
+     */
+    private final ByteSink sink;
+
+    /**
+     * Where the buffer comes from and goes back to.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Reusable buffer, heap or direct, handed to the sink only when full,
+     * flushed or closed. It is empty after close.
+     */
+    private ByteBuffer window;
+
+    /**
+     * How many bytes of the buffer are in use.
+     */
+    private int size;
+
+    /**
+     * Ctor.
+     * @param stream OutputStream to use.
+     * @param size Size of the buffer, in bytes.
+     */
+    Utf8Output(final OutputStream stream, final int size) {
+        this(stream, new BufferPool(Math.max(size, Utf8Output.MAX_BYTES)));
+    }
+
+    /**
+     * Ctor.
+     * @param stream OutputStream to use.
+     * @param pool Pool of the buffer, with buffers of at least 4 bytes.
+     */
+    Utf8Output(final OutputStream stream, final BufferPool pool) {
+        this(new StreamSink(stream), pool);
+    }
+
+    /**
+     * Ctor.
+     * @param sink Where the bytes go.
+     * @param pool Pool of the buffer, with buffers of at least 4 bytes.
+     */
+    Utf8Output(final ByteSink sink, final BufferPool pool) {
+        this(sink, pool, pool.bytes());
+    }
+
+    /**
+     * Ctor.
+     * @param sink Where the bytes go.
+     * @param pool Pool of the buffer, with buffers of at least 4 bytes.
+     * @param window First buffer, from the pool, of the kind the sink
+     *  works with (e.g. direct, for channels).
+     */
+    Utf8Output(
+        final ByteSink sink, final BufferPool pool, final ByteBuffer window
+    ) {
+        this.sink = sink;
+        this.pool = pool;
+        this.window = window;
+    }
+
+    @Override
+    public void write(final char chr) {
+        if (chr < 0x80) {
+            if (this.size == this.window.capacity()) {
+                this.drain();
+            }
+            this.put(chr);
+        } else if (Character.isSurrogate(chr)) {
+            this.write('?');
+        } else {
+            this.encode(chr);
+        }
+    }
+
+    @Override
+    public void write(final CharSequence text, final int start, final int end) {
+        int idx = start;
+        while (idx < end) {
+            final int stop = Math.min(
+                end, idx + this.window.capacity() - this.size
+            );
+            while (idx < stop && text.charAt(idx) < 0x80) {
+                this.put(text.charAt(idx));
+                idx = idx + 1;
+            }
+            if (idx < end) {
+                if (this.size == this.window.capacity()) {
+                    this.drain();
+                } else {
+                    idx = this.multibyte(text, idx, end);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        this.drain();
+        this.sink.flush();
+    }
+
+    @Override
+    public void close() {
+        if (this.window.capacity() > 0) {
+            boolean kept = false;
+            try {
+                kept = this.finish();
+            } finally {
+                if (!kept) {
+                    this.pool.release(this.window);
+                }
+                this.window = ByteBuffer.allocate(0);
+                this.sink.close();
+            }
+        }
+    }
+
+    /**
+     * Write the non-ASCII char at the given index, together with the next
+     * one if they are a surrogate pair.
+     * @param text Text.
+     * @param idx Index of the char.
+     * @param end Index after the last char which can be written.
+     * @return Index of the next char to write.
+     */
+    private int multibyte(final CharSequence text, final int idx,
+        final int end) {
+        final char chr = text.charAt(idx);
+        int next = idx + 1;
+        if (!Character.isSurrogate(chr)) {
+            this.encode(chr);
+        } else if (Character.isHighSurrogate(chr) && next < end
+            && Character.isLowSurrogate(text.charAt(next))) {
+            this.encode(Character.toCodePoint(chr, text.charAt(next)));
+            next = next + 1;
+        } else {
+            this.write('?');
+        }
+        return next;
+    }
+
+    /**
+     * Encode a code point which is not ASCII.
+     * @param code Code point.
+     */
+    private void encode(final int code) {
+        if (this.size + Utf8Output.MAX_BYTES > this.window.capacity()) {
+            this.drain();
+        }
+        if (code < 0x800) {
+            this.put(0xC0 | code >> 6);
+        } else if (code < 0x10000) {
+            this.put(0xE0 | code >> 12);
+            this.put(0x80 | code >> 6 & 0x3F);
+        } else {
+            this.put(0xF0 | code >> 18);
+            this.put(0x80 | code >> 12 & 0x3F);
+            this.put(0x80 | code >> 6 & 0x3F);
+        }
+        this.put(0x80 | code & 0x3F);
+    }
+
+    /**
+     * Put a byte in the buffer, which is known to have room for it.
+     * @param value Byte value.
+     */
+    private void put(final int value) {
+        this.window.put(this.size, (byte) value);
+        this.size = this.size + 1;
+    }
+
+    /**
+     * Hand the last buffered bytes to the sink, without asking it for a
+     * buffer to continue with.
+     * @return True if the sink kept the buffer.
+     */
+    private boolean finish() {
+        boolean kept = false;
+        if (this.size > 0) {
+            this.window.position(0);
+            this.window.limit(this.size);
+            this.size = 0;
+            kept = this.sink.finish(this.window);
+        }
+        return kept;
+    }
+
+    /**
+     * Hand the buffered bytes to the sink and continue with the empty
+     * buffer it gives back.
+     * @throws IllegalStateException If the output is closed.
+     */
+    private void drain() {
+        if (this.window.capacity() == 0) {
+            throw new IllegalStateException("The output is closed.");
+        }
+        if (this.size > 0) {
+            this.window.position(0);
+            this.window.limit(this.size);
+            this.size = 0;
+            this.window = this.sink.send(this.window);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * JsonOutput buffering chars for a Writer. The buffer can come from a
+ * {@link BufferPool}, to which it is given back on close.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+final class WriterOutput implements JsonOutput {
+
+    /**
+     * Write it somewhere.
+     */
+    private final Writer writer;
+
+    /**
+     * Where the buffer comes from and goes back to.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Reusable buffer, handed to the Writer only when full, flushed or
+     * closed. It is empty after close.
+     */
+    private char[] buffer;
+
+    /**
+     * How many chars of the buffer are in use.
+     */
+    private int size;
+
+    /**
+     * Ctor.
+     * @param writer Writer to use.
+     * @param size Size of the buffer, in chars.
+     */
+    WriterOutput(final Writer writer, final int size) {
+        this(writer, new BufferPool(size));
+    }
+
+    /**
+     * Ctor.
+     * @param writer Writer to use.
+     * @param pool Pool of the buffer.
+     */
+    WriterOutput(final Writer writer, final BufferPool pool) {
+        this.writer = writer;
+        this.pool = pool;
+        this.buffer = pool.chars();
+    }
+
+    @Override
+    public void write(final char chr) {
+        if (this.size == this.buffer.length) {
+            this.drain();
+        }
+        this.buffer[this.size] = chr;
+        this.size = this.size + 1;
+    }
+
+    @Override
+    public void write(final CharSequence text, final int start, final int end) {
+        final int len = end - start;
+        if (this.size + len > this.buffer.length) {
+            this.drain();
+        }
+        if (len > this.buffer.length) {
+            try {
+                this.writer.append(text, start, end);
+            } catch (final IOException ex) {
+                throw new IllegalStateException(
+                    "IOException when trying to write to the Writer.", ex
+                );
+            }
+        } else if (text instanceof String) {
+            ((String) text).getChars(start, end, this.buffer, this.size);
+            this.size = this.size + len;
+        } else {
+            for (int idx = start; idx < end; ++idx) {
+                this.buffer[this.size] = text.charAt(idx);
+                this.size = this.size + 1;
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        this.drain();
+        try {
+            this.writer.flush();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "IOException when trying to flush the Writer.", ex
+            );
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.buffer.length > 0) {
+            try {
+                this.drain();
+            } finally {
+                this.pool.release(this.buffer);
+                this.buffer = new char[0];
+                this.shut();
+            }
+        }
+    }
+
+    /**
+     * Close the Writer, even if the last chars could not be written.
+     */
+    private void shut() {
+        try {
+            this.writer.close();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "IOException when trying to close the Writer.", ex
+            );
+        }
+    }
+
+    /**
+     * Hand the buffered chars to the Writer and empty the buffer.
+     * @throws IllegalStateException If the output is closed.
+     */
+    private void drain() {
+        if (this.buffer.length == 0) {
+            throw new IllegalStateException("The output is closed.");
+        }
+        if (this.size > 0) {
+            try {
+                this.writer.write(this.buffer, 0, this.size);
+            } catch (final IOException ex) {
+                throw new IllegalStateException(
+                    "IOException when trying to write to the Writer.", ex
+                );
+            } finally {
+                this.size = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.json.stream.JsonGenerator;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AsyncChannelOutput}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class AsyncChannelOutputTestCase {
+
+    /**
+     * AsyncChannelOutput writes everything to the socket, in order, and
+     * closes it once everything was written.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void writesToSocket() throws Exception {
+        try (AsynchronousServerSocketChannel server =
+            AsynchronousServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress("127.0.0.1", 0));
+            final Future<AsynchronousSocketChannel> accepted = server.accept();
+            final AsynchronousSocketChannel client =
+                AsynchronousSocketChannel.open();
+            client.connect(server.getLocalAddress()).get(5, TimeUnit.SECONDS);
+            final RtJsonGeneratorFactory factory =
+                new RtJsonGeneratorFactory(null);
+            final AsyncChannelOutput output = factory.createOutput(client);
+            final JsonGenerator generator = factory.createGenerator(output);
+            generator.writeStartArray();
+            for (int idx = 0; idx < 50000; ++idx) {
+                generator.write(idx);
+            }
+            generator.writeEnd().close();
+            final String json = AsyncChannelOutputTestCase.read(
+                accepted.get(5, TimeUnit.SECONDS)
+            );
+            MatcherAssert.assertThat(json, Matchers.startsWith("[0,1,2,"));
+            MatcherAssert.assertThat(json, Matchers.endsWith(",49999]"));
+            MatcherAssert.assertThat(output.pending(), Matchers.equalTo(0L));
+            MatcherAssert.assertThat(output.congested(), Matchers.is(false));
+            MatcherAssert.assertThat(client.isOpen(), Matchers.is(false));
+        }
+    }
+
+    /**
+     * AsyncChannelOutput calls back once the congestion clears, so the
+     * producer does not have to poll.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void callsBackWhenUncongested() throws Exception {
+        try (AsynchronousServerSocketChannel server =
+            AsynchronousServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress("127.0.0.1", 0));
+            final Future<AsynchronousSocketChannel> accepted = server.accept();
+            final AsynchronousSocketChannel client =
+                AsynchronousSocketChannel.open();
+            client.connect(server.getLocalAddress()).get(5, TimeUnit.SECONDS);
+            final AsyncChannelOutput output = new AsyncChannelOutput(
+                client, new BufferPool(1024), 4096
+            );
+            final JsonGenerator generator = new RtJsonGenerator(output);
+            AsyncChannelOutputTestCase.congest(generator, output);
+            final CountDownLatch uncongested = new CountDownLatch(1);
+            output.whenUncongested(uncongested::countDown);
+            final ExecutorService reader = Executors.newSingleThreadExecutor();
+            final Future<String> json = reader.submit(
+                () -> AsyncChannelOutputTestCase.read(
+                    accepted.get(5, TimeUnit.SECONDS)
+                )
+            );
+            MatcherAssert.assertThat(
+                uncongested.await(5, TimeUnit.SECONDS), Matchers.is(true)
+            );
+            generator.writeEnd().close();
+            MatcherAssert.assertThat(
+                json.get(5, TimeUnit.SECONDS), Matchers.endsWith("\"]")
+            );
+            reader.shutdown();
+        }
+    }
+
+    /**
+     * Write until the output is congested, because nobody reads the
+     * other side of the socket.
+     * @param generator Generator to write with.
+     * @param output Its output.
+     */
+    private static void congest(
+        final JsonGenerator generator, final AsyncChannelOutput output
+    ) {
+        final char[] text = new char[1000];
+        Arrays.fill(text, 'x');
+        generator.writeStartArray();
+        while (!output.congested()) {
+            generator.write(new String(text));
+            generator.flush();
+        }
+    }
+
+    /**
+     * Read everything from the socket, until the other side closes it.
+     * @param peer Accepted socket, which is closed afterwards.
+     * @return Text which was read.
+     * @throws Exception If something goes wrong.
+     */
+    private static String read(final AsynchronousSocketChannel peer)
+        throws Exception {
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        try {
+            final ByteBuffer buffer = ByteBuffer.allocate(4096);
+            int read = peer.read(buffer).get(5, TimeUnit.SECONDS);
+            while (read >= 0) {
+                received.write(buffer.array(), 0, read);
+                buffer.clear();
+                read = peer.read(buffer).get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            peer.close();
+        }
+        return new String(received.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BufferInput}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class BufferInputTestCase {
+
+    /**
+     * BufferInput gives the bytes between position and limit, without
+     * moving the position.
+     */
+    @Test
+    public void respectsPositionAndLimit() {
+        final ByteBuffer source = ByteBuffer.wrap(
+            "xx[1, \"a\"]yy".getBytes(StandardCharsets.UTF_8)
+        );
+        source.position(2);
+        source.limit(10);
+        final JsonLexer lexer = new Utf8Lexer(new BufferInput(source));
+        final JsonToken[] expected = {
+            JsonToken.BEGIN_ARRAY, JsonToken.NUMBER, JsonToken.COMMA,
+            JsonToken.STRING, JsonToken.END_ARRAY, JsonToken.EOF,
+        };
+        for (final JsonToken token : expected) {
+            MatcherAssert.assertThat(lexer.next(), Matchers.is(token));
+        }
+        MatcherAssert.assertThat(source.position(), Matchers.equalTo(2));
+    }
+
+    /**
+     * BufferInput works on direct buffers in place, skipping the byte
+     * order mark, and only gives back the kept bytes afterwards.
+     */
+    @Test
+    public void readsDirectBuffers() {
+        final byte[] json = "\ufeff\"h\u00e9llo\"".getBytes(
+            StandardCharsets.UTF_8
+        );
+        final ByteBuffer source = ByteBuffer.allocateDirect(json.length);
+        source.put(json);
+        source.flip();
+        final ByteInput input = new BufferInput(source);
+        final ByteBuffer buffer = input.refill(ByteBuffer.allocate(0), 0);
+        MatcherAssert.assertThat(buffer.isDirect(), Matchers.is(true));
+        MatcherAssert.assertThat(buffer.get(0), Matchers.is((byte) '"'));
+        MatcherAssert.assertThat(
+            input.refill(buffer, 2).limit(),
+            Matchers.equalTo(buffer.limit() - 2)
+        );
+        final JsonLexer lexer = new Utf8Lexer(new BufferInput(source));
+        lexer.next();
+        MatcherAssert.assertThat(lexer.text(), Matchers.equalTo("h\u00e9llo"));
+    }
+}
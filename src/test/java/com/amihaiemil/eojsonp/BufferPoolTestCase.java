@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import javax.json.stream.JsonParser;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BufferPool}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class BufferPoolTestCase {
+
+    /**
+     * BufferPool recycles the buffers of its size.
+     */
+    @Test
+    public void recyclesBuffers() {
+        final BufferPool pool = new BufferPool(16, 1);
+        final char[] chars = pool.chars();
+        final ByteBuffer bytes = pool.bytes();
+        bytes.put((byte) 1);
+        pool.release(chars);
+        pool.release(bytes);
+        MatcherAssert.assertThat(pool.chars(), Matchers.sameInstance(chars));
+        final ByteBuffer again = pool.bytes();
+        MatcherAssert.assertThat(again, Matchers.sameInstance(bytes));
+        MatcherAssert.assertThat(again.position(), Matchers.equalTo(0));
+        MatcherAssert.assertThat(again.limit(), Matchers.equalTo(16));
+    }
+
+    /**
+     * BufferPool leaves the buffers of other sizes to the garbage
+     * collector.
+     */
+    @Test
+    public void dropsOtherSizes() {
+        final BufferPool pool = new BufferPool(16, 1);
+        final char[] chars = new char[32];
+        pool.release(chars);
+        MatcherAssert.assertThat(
+            pool.chars(), Matchers.not(Matchers.sameInstance(chars))
+        );
+        MatcherAssert.assertThat(pool.chars().length, Matchers.equalTo(16));
+    }
+
+    /**
+     * BufferPool gets its buffers back from closed lexers, only once.
+     */
+    @Test
+    public void getsBuffersBackFromLexers() {
+        final BufferPool pool = new BufferPool(16, 2);
+        final char[] chars = pool.chars();
+        pool.release(chars);
+        final JsonLexer lexer = new ReaderLexer(new StringReader("[]"), pool);
+        lexer.next();
+        lexer.close();
+        lexer.close();
+        MatcherAssert.assertThat(pool.chars(), Matchers.sameInstance(chars));
+        MatcherAssert.assertThat(
+            pool.chars(), Matchers.not(Matchers.sameInstance(chars))
+        );
+        final ByteBuffer bytes = pool.bytes();
+        pool.release(bytes);
+        final JsonLexer utf = new Utf8Lexer(
+            new StreamInput(new ByteArrayInputStream(new byte[] {'1'}), pool),
+            pool
+        );
+        utf.next();
+        utf.close();
+        MatcherAssert.assertThat(pool.bytes(), Matchers.sameInstance(bytes));
+    }
+
+    /**
+     * BufferPool recycles the symbol tables of the lexers, so keys are
+     * known from one document to the next.
+     */
+    @Test
+    public void recyclesSymbols() {
+        final BufferPool pool = new BufferPool(16, 1);
+        final JsonParser first = new RtJsonParser(
+            new ReaderLexer(new StringReader("{\"key\":1}"), pool)
+        );
+        first.next();
+        first.next();
+        final String key = first.getString();
+        first.close();
+        final JsonParser second = new RtJsonParser(
+            new ReaderLexer(new StringReader("{\"key\":2}"), pool)
+        );
+        second.next();
+        second.next();
+        MatcherAssert.assertThat(
+            second.getString(), Matchers.sameInstance(key)
+        );
+        second.close();
+    }
+}
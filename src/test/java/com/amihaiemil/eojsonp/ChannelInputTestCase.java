@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import javax.json.JsonException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ChannelInput}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class ChannelInputTestCase {
+
+    /**
+     * ChannelInput reads into a direct buffer, keeping what the lexer
+     * still needs and growing the buffer for big tokens.
+     */
+    @Test
+    public void readsAcrossRefills() {
+        final JsonLexer lexer = new Utf8Lexer(
+            new ChannelInput(
+                ChannelInputTestCase.channel(
+                    "\ufeff{\"key\": [\"a longer string\", 12345, null]}"
+                ),
+                new BufferPool(4)
+            )
+        );
+        final JsonToken[] expected = {
+            JsonToken.BEGIN_OBJECT, JsonToken.STRING, JsonToken.COLON,
+            JsonToken.BEGIN_ARRAY, JsonToken.STRING, JsonToken.COMMA,
+            JsonToken.NUMBER, JsonToken.COMMA, JsonToken.NULL,
+            JsonToken.END_ARRAY, JsonToken.END_OBJECT, JsonToken.EOF,
+        };
+        final StringBuilder texts = new StringBuilder();
+        for (final JsonToken token : expected) {
+            MatcherAssert.assertThat(lexer.next(), Matchers.is(token));
+            if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                texts.append(lexer.text()).append(';');
+            }
+        }
+        MatcherAssert.assertThat(
+            texts.toString(),
+            Matchers.equalTo("key;a longer string;12345;")
+        );
+        lexer.close();
+    }
+
+    /**
+     * ChannelInput gives its direct buffer back to the pool on close.
+     */
+    @Test
+    public void givesBufferBack() {
+        final BufferPool pool = new BufferPool(16, 1);
+        final ByteBuffer direct = pool.direct();
+        pool.release(direct);
+        final ByteInput input = new ChannelInput(
+            ChannelInputTestCase.channel("[]"), pool
+        );
+        MatcherAssert.assertThat(
+            input.refill(ByteBuffer.allocate(0), 0),
+            Matchers.sameInstance(direct)
+        );
+        input.close();
+        input.close();
+        MatcherAssert.assertThat(pool.direct(), Matchers.sameInstance(direct));
+        MatcherAssert.assertThat(
+            pool.direct(), Matchers.not(Matchers.sameInstance(direct))
+        );
+    }
+
+    /**
+     * ChannelInput gives its pooled buffer back as soon as it replaces it
+     * with a bigger one.
+     */
+    @Test
+    public void givesBufferBackWhenGrowing() {
+        final BufferPool pool = new BufferPool(4, 1);
+        final ByteBuffer direct = pool.direct();
+        pool.release(direct);
+        final ByteInput input = new ChannelInput(
+            ChannelInputTestCase.channel("\"abcdefgh\""), pool
+        );
+        final ByteBuffer first = input.refill(ByteBuffer.allocate(0), 0);
+        final ByteBuffer bigger = input.refill(first, 0);
+        MatcherAssert.assertThat(bigger.capacity(), Matchers.is(8));
+        MatcherAssert.assertThat(pool.direct(), Matchers.sameInstance(direct));
+        input.close();
+    }
+
+    /**
+     * ChannelInput wraps the IOExceptions of the channel.
+     */
+    @Test(expected = JsonException.class)
+    public void complainsAboutFailedReads() {
+        new ChannelInput(
+            new ReadableByteChannel() {
+                @Override
+                public int read(final ByteBuffer dst) throws IOException {
+                    throw new IOException("broken");
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                    // nothing to close
+                }
+            }
+        ).refill(ByteBuffer.allocate(0), 0);
+    }
+
+    /**
+     * Channel over the UTF-8 bytes of the given text.
+     * @param text Text.
+     * @return ReadableByteChannel.
+     */
+    private static ReadableByteChannel channel(final String text) {
+        return Channels.newChannel(
+            new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
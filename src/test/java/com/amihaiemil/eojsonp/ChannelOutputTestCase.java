@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import javax.json.stream.JsonGenerator;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ChannelOutput}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class ChannelOutputTestCase {
+
+    /**
+     * ChannelOutput writes UTF-8 to a blocking channel.
+     */
+    @Test
+    public void writesToBlockingChannels() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final WritableByteChannel channel = Channels.newChannel(out);
+        final RtJsonGeneratorFactory factory = new RtJsonGeneratorFactory(
+            Collections.singletonMap(RtJsonGeneratorFactory.BUFFER_SIZE, 64)
+        );
+        final ChannelOutput output = factory.createOutput(channel);
+        final JsonGenerator generator = factory.createGenerator(output);
+        generator.writeStartArray();
+        for (int idx = 0; idx < 100; ++idx) {
+            generator.write("v\u00e4lue");
+        }
+        generator.writeEnd().close();
+        MatcherAssert.assertThat(output.pending(), Matchers.equalTo(0L));
+        MatcherAssert.assertThat(channel.isOpen(), Matchers.is(false));
+        final String json = new String(
+            out.toByteArray(), StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(json, Matchers.startsWith("[\"v\u00e4lue\","));
+        MatcherAssert.assertThat(json.length(), Matchers.equalTo(801));
+    }
+
+    /**
+     * ChannelOutput queues what a non-blocking channel does not take and
+     * reports congestion, instead of blocking.
+     */
+    @Test
+    public void reportsBackpressure() {
+        final Trickle channel = new Trickle();
+        final ChannelOutput output = new ChannelOutput(
+            channel, new BufferPool(8), 10
+        );
+        output.write("0123456789abcdef", 0, 16);
+        output.flush();
+        MatcherAssert.assertThat(output.pending(), Matchers.equalTo(16L));
+        MatcherAssert.assertThat(output.congested(), Matchers.is(true));
+        output.write("ghij", 0, 4);
+        output.close();
+        MatcherAssert.assertThat(channel.isOpen(), Matchers.is(true));
+        channel.open(3);
+        MatcherAssert.assertThat(output.send(), Matchers.is(false));
+        MatcherAssert.assertThat(output.pending(), Matchers.equalTo(17L));
+        MatcherAssert.assertThat(output.congested(), Matchers.is(true));
+        channel.open(100);
+        MatcherAssert.assertThat(output.send(), Matchers.is(true));
+        MatcherAssert.assertThat(output.congested(), Matchers.is(false));
+        MatcherAssert.assertThat(
+            channel.written(), Matchers.equalTo("0123456789abcdefghij")
+        );
+        MatcherAssert.assertThat(channel.isOpen(), Matchers.is(false));
+    }
+
+    /**
+     * ChannelOutput encodes straight into the direct segments which the
+     * channel writes, including non-ASCII chars split between segments.
+     */
+    @Test
+    public void encodesIntoDirectSegments() {
+        final Trickle channel = new Trickle();
+        channel.open(1000);
+        final ChannelOutput output = new ChannelOutput(
+            channel, new BufferPool(8), 1000
+        );
+        output.write("caf\u00e9 cr\u00e8me", 0, 10);
+        output.close();
+        MatcherAssert.assertThat(
+            new String(
+                channel.written().getBytes(StandardCharsets.ISO_8859_1),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("caf\u00e9 cr\u00e8me")
+        );
+        MatcherAssert.assertThat(channel.direct(), Matchers.is(true));
+    }
+
+    /**
+     * Non-blocking channel which takes only as many bytes as it is
+     * allowed to.
+     */
+    private static final class Trickle implements WritableByteChannel {
+
+        /**
+         * What was written.
+         */
+        private final StringBuilder text = new StringBuilder();
+
+        /**
+         * How many more bytes it takes.
+         */
+        private int room;
+
+        /**
+         * Is it open?
+         */
+        private boolean opened = true;
+
+        /**
+         * Were all the buffers it was given direct?
+         */
+        private boolean direct = true;
+
+        @Override
+        public int write(final ByteBuffer src) {
+            this.direct = this.direct && src.isDirect();
+            int count = 0;
+            while (src.hasRemaining() && this.room > 0) {
+                this.text.append((char) (src.get() & 0xFF));
+                --this.room;
+                ++count;
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.opened;
+        }
+
+        @Override
+        public void close() {
+            this.opened = false;
+        }
+
+        /**
+         * Let it take more bytes.
+         * @param bytes How many.
+         */
+        public void open(final int bytes) {
+            this.room = bytes;
+        }
+
+        /**
+         * Were all the buffers it was given direct?
+         * @return True or false.
+         */
+        public boolean direct() {
+            return this.direct;
+        }
+
+        /**
+         * What was written so far.
+         * @return Text.
+         */
+        public String written() {
+            return this.text.toString();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.json.stream.JsonGenerator;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ChunkSink}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class ChunkSinkTestCase {
+
+    /**
+     * ChunkSink hands over the buffer itself and continues with a
+     * fresh one.
+     */
+    @Test
+    public void handsOverBuffers() {
+        final List<ByteBuffer> chunks = new ArrayList<>();
+        final BufferPool pool = new BufferPool(8, 1);
+        final ByteSink sink = new ChunkSink(chunks::add, pool);
+        final ByteBuffer full = pool.bytes();
+        final ByteBuffer next = sink.send(full);
+        MatcherAssert.assertThat(chunks, Matchers.contains(full));
+        MatcherAssert.assertThat(
+            next, Matchers.not(Matchers.sameInstance(full))
+        );
+        MatcherAssert.assertThat(next.remaining(), Matchers.equalTo(8));
+    }
+
+    /**
+     * ChunkSink hands over the last chunk on close without taking a fresh
+     * buffer to continue with.
+     */
+    @Test
+    public void finishesWithoutFreshBuffer() {
+        final List<ByteBuffer> chunks = new ArrayList<>();
+        final AtomicInteger fresh = new AtomicInteger();
+        final BufferPool pool = new BufferPool(8, 1);
+        final JsonOutput output = new Utf8Output(
+            new ChunkSink(
+                chunks::add,
+                () -> {
+                    fresh.incrementAndGet();
+                    return pool.bytes();
+                }
+            ),
+            pool
+        );
+        output.write("[1]", 0, 3);
+        output.close();
+        MatcherAssert.assertThat(chunks, Matchers.hasSize(1));
+        MatcherAssert.assertThat(chunks.get(0).limit(), Matchers.is(3));
+        MatcherAssert.assertThat(fresh.get(), Matchers.is(0));
+    }
+
+    /**
+     * Generators created for a consumer hand over chunks which are full,
+     * except for the last one.
+     */
+    @Test
+    public void generatesChunks() {
+        final RtJsonGeneratorFactory factory = new RtJsonGeneratorFactory(
+            Collections.singletonMap(RtJsonGeneratorFactory.BUFFER_SIZE, 64)
+        );
+        final List<ByteBuffer> chunks = new ArrayList<>();
+        final JsonGenerator generator = factory.createGenerator(chunks::add);
+        generator.writeStartArray();
+        for (int idx = 0; idx < 100; ++idx) {
+            generator.write("caf\u00e9");
+        }
+        generator.writeEnd().close();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (int idx = 0; idx < chunks.size(); ++idx) {
+            final ByteBuffer chunk = chunks.get(idx);
+            if (idx < chunks.size() - 1) {
+                MatcherAssert.assertThat(
+                    chunk.limit(), Matchers.greaterThan(60)
+                );
+            }
+            body.write(chunk.array(), 0, chunk.limit());
+        }
+        final String json = new String(
+            body.toByteArray(), StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(json, Matchers.startsWith("[\"caf\u00e9\","));
+        MatcherAssert.assertThat(json.length(), Matchers.equalTo(701));
+    }
+
+    /**
+     * Chunks which are recycled as soon as they are sent are filled again.
+     */
+    @Test
+    public void reusesRecycledChunks() {
+        final RtJsonGeneratorFactory factory = new RtJsonGeneratorFactory(
+            Collections.singletonMap(RtJsonGeneratorFactory.BUFFER_SIZE, 64)
+        );
+        final Set<ByteBuffer> seen = Collections.newSetFromMap(
+            new IdentityHashMap<>()
+        );
+        final JsonGenerator generator = factory.createGenerator(
+            chunk -> {
+                seen.add(chunk);
+                factory.recycle(chunk);
+            }
+        );
+        generator.writeStartArray();
+        for (int idx = 0; idx < 1000; ++idx) {
+            generator.write(idx);
+        }
+        generator.writeEnd().close();
+        MatcherAssert.assertThat(seen, Matchers.hasSize(1));
+    }
+}
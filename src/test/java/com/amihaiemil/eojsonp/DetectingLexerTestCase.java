@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import javax.json.stream.JsonParsingException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DetectingLexer}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class DetectingLexerTestCase {
+
+    /**
+     * JSON used in the tests.
+     */
+    private static final String JSON = "{\"k\u00e9y\":\"v\u20acl\"}";
+
+    /**
+     * DetectingLexer reads UTF-8.
+     */
+    @Test
+    public void readsUtfEight() {
+        DetectingLexerTestCase.assertReads(
+            DetectingLexerTestCase.JSON.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * DetectingLexer reads UTF-8 with a byte order mark.
+     */
+    @Test
+    public void readsUtfEightWithBom() {
+        DetectingLexerTestCase.assertReads(
+            ("\ufeff" + DetectingLexerTestCase.JSON)
+                .getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * DetectingLexer reads UTF-16, big and little endian, with or without
+     * byte order mark.
+     */
+    @Test
+    public void readsUtfSixteen() {
+        DetectingLexerTestCase.assertReads(
+            DetectingLexerTestCase.JSON.getBytes(StandardCharsets.UTF_16BE)
+        );
+        DetectingLexerTestCase.assertReads(
+            DetectingLexerTestCase.JSON.getBytes(StandardCharsets.UTF_16LE)
+        );
+        DetectingLexerTestCase.assertReads(
+            DetectingLexerTestCase.JSON.getBytes(StandardCharsets.UTF_16)
+        );
+        DetectingLexerTestCase.assertReads(
+            ("\ufeff" + DetectingLexerTestCase.JSON)
+                .getBytes(StandardCharsets.UTF_16LE)
+        );
+    }
+
+    /**
+     * DetectingLexer reads UTF-32, big and little endian, with or without
+     * byte order mark.
+     */
+    @Test
+    public void readsUtfThirtyTwo() {
+        DetectingLexerTestCase.assertReads(
+            DetectingLexerTestCase.JSON.getBytes(Charset.forName("UTF-32BE"))
+        );
+        DetectingLexerTestCase.assertReads(
+            DetectingLexerTestCase.JSON.getBytes(Charset.forName("UTF-32LE"))
+        );
+        DetectingLexerTestCase.assertReads(
+            ("\ufeff" + DetectingLexerTestCase.JSON)
+                .getBytes(Charset.forName("UTF-32LE"))
+        );
+    }
+
+    /**
+     * DetectingLexer reads inputs shorter than 4 bytes.
+     */
+    @Test
+    public void readsShortInput() {
+        final JsonLexer utf = new DetectingLexer(
+            new ByteArrayInputStream("1".getBytes(StandardCharsets.UTF_8))
+        );
+        MatcherAssert.assertThat(utf.next(), Matchers.is(JsonToken.NUMBER));
+        MatcherAssert.assertThat(utf.text(), Matchers.equalTo("1"));
+        final JsonLexer sixteen = new DetectingLexer(
+            new ByteArrayInputStream("1".getBytes(StandardCharsets.UTF_16LE))
+        );
+        MatcherAssert.assertThat(
+            sixteen.next(), Matchers.is(JsonToken.NUMBER)
+        );
+        MatcherAssert.assertThat(sixteen.text(), Matchers.equalTo("1"));
+    }
+
+    /**
+     * DetectingLexer reports the end of empty input.
+     */
+    @Test
+    public void readsEmptyInput() {
+        MatcherAssert.assertThat(
+            new DetectingLexer(new ByteArrayInputStream(new byte[0])).next(),
+            Matchers.is(JsonToken.EOF)
+        );
+    }
+
+    /**
+     * RtJsonParser built from an InputStream rejects invalid JSON.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void parserRejectsInvalidJson() {
+        final RtJsonParser parser = new RtJsonParser(
+            new ByteArrayInputStream("[1 2]".getBytes(StandardCharsets.UTF_8))
+        );
+        while (parser.hasNext()) {
+            parser.next();
+        }
+    }
+
+    /**
+     * Make sure the bytes are read as {@link #JSON}.
+     * @param bytes Encoded JSON.
+     */
+    private static void assertReads(final byte[] bytes) {
+        final JsonLexer lexer = new DetectingLexer(
+            new ByteArrayInputStream(bytes)
+        );
+        MatcherAssert.assertThat(
+            lexer.next(), Matchers.is(JsonToken.BEGIN_OBJECT)
+        );
+        MatcherAssert.assertThat(lexer.next(), Matchers.is(JsonToken.STRING));
+        MatcherAssert.assertThat(lexer.text(), Matchers.equalTo("k\u00e9y"));
+        MatcherAssert.assertThat(lexer.next(), Matchers.is(JsonToken.COLON));
+        MatcherAssert.assertThat(lexer.next(), Matchers.is(JsonToken.STRING));
+        MatcherAssert.assertThat(lexer.text(), Matchers.equalTo("v\u20acl"));
+        MatcherAssert.assertThat(
+            lexer.next(), Matchers.is(JsonToken.END_OBJECT)
+        );
+        MatcherAssert.assertThat(lexer.next(), Matchers.is(JsonToken.EOF));
+        lexer.close();
+    }
+}
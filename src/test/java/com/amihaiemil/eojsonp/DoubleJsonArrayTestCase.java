@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import javax.json.JsonArray;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DoubleJsonArray}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class DoubleJsonArrayTestCase {
+
+    /**
+     * DoubleJsonArray prints whole doubles with their fraction, unlike
+     * IntJsonArray.
+     */
+    @Test
+    public void printsWholeDoubles() {
+        MatcherAssert.assertThat(
+            new DoubleJsonArray(1.0, -0.0).toString(),
+            Matchers.equalTo("[1.0,-0.0]")
+        );
+        MatcherAssert.assertThat(
+            new IntJsonArray(1).toString(), Matchers.equalTo("[1]")
+        );
+    }
+
+    /**
+     * DoubleJsonArray holding 1.0 is not equal to an array holding 1,
+     * just like their BigDecimals are not.
+     */
+    @Test
+    public void differsFromIntegers() {
+        MatcherAssert.assertThat(
+            new DoubleJsonArray(1.0),
+            Matchers.not(Matchers.<JsonArray>equalTo(new IntJsonArray(1)))
+        );
+        MatcherAssert.assertThat(
+            new DoubleJsonArray(1.0),
+            Matchers.<JsonArray>equalTo(
+                new RtJsonArray(new RtJsonNumber("1.0"))
+            )
+        );
+    }
+
+    /**
+     * RtJsonArrayBuilder refuses NaN and infinity after doubles, so they
+     * never reach a DoubleJsonArray.
+     */
+    @Test
+    public void neverHoldsNaN() {
+        final RtJsonArrayBuilder builder = new RtJsonArrayBuilder();
+        builder.add(0.5);
+        int failures = 0;
+        final double[] wrong = {
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+        };
+        for (final double value : wrong) {
+            try {
+                builder.add(value);
+            } catch (final NumberFormatException ex) {
+                failures = failures + 1;
+            }
+        }
+        MatcherAssert.assertThat(failures, Matchers.equalTo(wrong.length));
+        MatcherAssert.assertThat(
+            builder.build().toString(), Matchers.equalTo("[0.5]")
+        );
+    }
+}
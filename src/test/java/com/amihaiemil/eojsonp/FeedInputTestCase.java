@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link FeedInput}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class FeedInputTestCase {
+
+    /**
+     * FeedInput gives the kept bytes followed by the fed ones, growing
+     * its buffer if needed.
+     */
+    @Test
+    public void givesFedBytes() {
+        final FeedInput input = new FeedInput(new BufferPool(2));
+        input.feed(ByteBuffer.wrap(new byte[] {1, 2}));
+        ByteBuffer buffer = input.refill(ByteBuffer.allocate(0), 0);
+        MatcherAssert.assertThat(buffer.limit(), Matchers.equalTo(2));
+        final ByteBuffer chunk = ByteBuffer.wrap(new byte[] {3, 4, 5});
+        input.feed(chunk);
+        MatcherAssert.assertThat(chunk.hasRemaining(), Matchers.is(false));
+        buffer = input.refill(buffer, 1);
+        MatcherAssert.assertThat(buffer.limit(), Matchers.equalTo(4));
+        MatcherAssert.assertThat(buffer.get(0), Matchers.is((byte) 2));
+        MatcherAssert.assertThat(buffer.get(3), Matchers.is((byte) 5));
+        input.end();
+        MatcherAssert.assertThat(
+            input.refill(buffer, 4).limit(), Matchers.equalTo(0)
+        );
+    }
+
+    /**
+     * FeedInput says when it needs more bytes, unless it was ended.
+     */
+    @Test(expected = FeedInput.Starved.class)
+    public void starvesWithoutBytes() {
+        final FeedInput input = new FeedInput(new BufferPool(2));
+        input.feed(ByteBuffer.wrap(new byte[] {1}));
+        input.refill(input.refill(ByteBuffer.allocate(0), 0), 0);
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParsingException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link FeedJsonParser}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class FeedJsonParserTestCase {
+
+    /**
+     * JSON cut in every possible place: inside Strings, escapes, multi-byte
+     * characters, numbers and literals.
+     */
+    private static final String JSON = "{\"na\\u006de\" : \"h\u00e9llo "
+        + "\u20ac \ud83d\ude00\\n\", \"list\" :\n [-12.5e+3, 1234567890123, "
+        + "true, false, null, {}, [[]], \"\"], \"deep\": {\"x\": 0}}";
+
+    /**
+     * FeedJsonParser gives the same events as RtJsonParser, no matter how
+     * the input is split in chunks.
+     */
+    @Test
+    public void resumesInsideTokens() {
+        final byte[] json = JSON.getBytes(StandardCharsets.UTF_8);
+        final List<String> expected = FeedJsonParserTestCase.events(
+            new RtJsonParser(new ByteArrayInputStream(json))
+        );
+        for (int size = 1; size <= 7; ++size) {
+            final FeedJsonParser parser = new FeedJsonParser(
+                new BufferPool(4)
+            );
+            final List<String> actual = new ArrayList<>();
+            for (int idx = 0; idx < json.length; idx = idx + size) {
+                final byte[] chunk = new byte[
+                    Math.min(size, json.length - idx)
+                ];
+                System.arraycopy(json, idx, chunk, 0, chunk.length);
+                parser.feed(chunk);
+                FeedJsonParserTestCase.drain(parser, actual);
+            }
+            parser.end();
+            FeedJsonParserTestCase.drain(parser, actual);
+            MatcherAssert.assertThat(actual, Matchers.equalTo(expected));
+            MatcherAssert.assertThat(parser.hasNext(), Matchers.is(false));
+            parser.close();
+        }
+    }
+
+    /**
+     * FeedJsonParser waits for the end of the input when a number or the
+     * document could still continue.
+     */
+    @Test
+    public void waitsForTheEnd() {
+        final FeedJsonParser parser = new FeedJsonParser();
+        parser.feed("12".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(parser.poll(), Matchers.nullValue());
+        parser.feed("3 ".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            parser.poll(), Matchers.is(Event.VALUE_NUMBER)
+        );
+        MatcherAssert.assertThat(parser.getInt(), Matchers.is(123));
+        MatcherAssert.assertThat(parser.poll(), Matchers.nullValue());
+        MatcherAssert.assertThat(parser.hasNext(), Matchers.is(true));
+        parser.end();
+        MatcherAssert.assertThat(parser.poll(), Matchers.nullValue());
+        MatcherAssert.assertThat(parser.hasNext(), Matchers.is(false));
+    }
+
+    /**
+     * FeedJsonParser.next() complains when it needs more input.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void complainsWhenStarved() {
+        final FeedJsonParser parser = new FeedJsonParser();
+        parser.feed("[\"ab".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            parser.next(), Matchers.is(Event.START_ARRAY)
+        );
+        parser.next();
+    }
+
+    /**
+     * FeedJsonParser.next() complains when the document is over.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void complainsWhenOver() {
+        final FeedJsonParser parser = new FeedJsonParser();
+        parser.feed("[]".getBytes(StandardCharsets.UTF_8)).end();
+        parser.next();
+        parser.next();
+        parser.next();
+    }
+
+    /**
+     * FeedJsonParser reports invalid JSON, even if it is split in chunks.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void reportsInvalidJson() {
+        final FeedJsonParser parser = new FeedJsonParser();
+        parser.feed("[tr".getBytes(StandardCharsets.UTF_8));
+        FeedJsonParserTestCase.drain(parser, new ArrayList<>());
+        parser.feed("ie]".getBytes(StandardCharsets.UTF_8));
+        FeedJsonParserTestCase.drain(parser, new ArrayList<>());
+    }
+
+    /**
+     * FeedJsonParser does not accept bytes after the end.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void rejectsBytesAfterTheEnd() {
+        new FeedJsonParser().end().feed(new byte[] {'1'});
+    }
+
+    /**
+     * Poll all the events which are available.
+     * @param parser Parser.
+     * @param events Where to add the events, with their values.
+     */
+    private static void drain(
+        final FeedJsonParser parser, final List<String> events
+    ) {
+        Event event = parser.poll();
+        while (event != null) {
+            events.add(FeedJsonParserTestCase.describe(parser, event));
+            event = parser.poll();
+        }
+    }
+
+    /**
+     * All the events of a parser, with their values.
+     * @param parser Parser.
+     * @return Events.
+     */
+    private static List<String> events(final JsonParser parser) {
+        final List<String> events = new ArrayList<>();
+        while (parser.hasNext()) {
+            events.add(
+                FeedJsonParserTestCase.describe(parser, parser.next())
+            );
+        }
+        return events;
+    }
+
+    /**
+     * Describe an event.
+     * @param parser Parser.
+     * @param event The current event.
+     * @return Event, with its value if it has one.
+     */
+    private static String describe(
+        final JsonParser parser, final Event event
+    ) {
+        final String text;
+        if (event == Event.KEY_NAME || event == Event.VALUE_STRING
+            || event == Event.VALUE_NUMBER) {
+            text = event + ":" + parser.getString();
+        } else {
+            text = event.toString();
+        }
+        return text;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Collections;
+import javax.json.JsonException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link IntConfig}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class IntConfigTestCase {
+
+    /**
+     * IntConfig falls back to the default when the key is missing.
+     */
+    @Test
+    public void fallsBackWhenMissing() {
+        MatcherAssert.assertThat(
+            new IntConfig(Collections.emptyMap(), "size", 10).value(),
+            Matchers.equalTo(10)
+        );
+        MatcherAssert.assertThat(
+            new IntConfig(null, "size", 12).value(),
+            Matchers.equalTo(12)
+        );
+    }
+
+    /**
+     * IntConfig reads Numbers and Strings.
+     */
+    @Test
+    public void readsNumbersAndStrings() {
+        MatcherAssert.assertThat(
+            new IntConfig(Collections.singletonMap("size", 5L), "size", 1)
+                .value(),
+            Matchers.equalTo(5)
+        );
+        MatcherAssert.assertThat(
+            new IntConfig(Collections.singletonMap("size", " 7"), "size", 1)
+                .value(),
+            Matchers.equalTo(7)
+        );
+    }
+
+    /**
+     * IntConfig complains about a value which is not an int.
+     */
+    @Test(expected = JsonException.class)
+    public void rejectsText() {
+        new IntConfig(Collections.singletonMap("size", "big"), "size", 1)
+            .value();
+    }
+
+    /**
+     * IntConfig complains about a value which is not positive.
+     */
+    @Test(expected = JsonException.class)
+    public void rejectsZero() {
+        new IntConfig(Collections.singletonMap("size", 0), "size", 1).value();
+    }
+}
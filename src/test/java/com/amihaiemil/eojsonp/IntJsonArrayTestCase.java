@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import javax.json.JsonArray;
+import javax.json.JsonValue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link IntJsonArray}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class IntJsonArrayTestCase {
+
+    /**
+     * IntJsonArray gives its values as JsonNumbers.
+     */
+    @Test
+    public void givesNumbers() {
+        final JsonArray array = new IntJsonArray(3, -1, 7);
+        MatcherAssert.assertThat(array.size(), Matchers.equalTo(3));
+        MatcherAssert.assertThat(
+            array.get(1), Matchers.<JsonValue>equalTo(new IntJsonNumber(-1))
+        );
+        MatcherAssert.assertThat(array.getInt(0), Matchers.equalTo(3));
+        MatcherAssert.assertThat(array.getInt(3, 9), Matchers.equalTo(9));
+    }
+
+    /**
+     * IntJsonArray is equal to other JsonArrays with the same numbers.
+     */
+    @Test
+    public void equalsOtherArrays() {
+        MatcherAssert.assertThat(
+            new IntJsonArray(3, -1, 7),
+            Matchers.<JsonArray>equalTo(
+                new RtJsonArray(
+                    new RtJsonNumber("3"), new RtJsonNumber("-1"),
+                    new RtJsonNumber("7")
+                )
+            )
+        );
+    }
+
+    /**
+     * IntJsonArray prints itself as JSON.
+     */
+    @Test
+    public void printsJson() {
+        MatcherAssert.assertThat(
+            new IntJsonArray(3, -1, 7).toString(),
+            Matchers.equalTo("[3,-1,7]")
+        );
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import javax.json.JsonValue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link IntJsonNumber}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class IntJsonNumberTestCase {
+
+    /**
+     * IntJsonNumber returns its value in all the forms.
+     */
+    @Test
+    public void returnsValues() {
+        final IntJsonNumber number = new IntJsonNumber(-123);
+        MatcherAssert.assertThat(number.intValue(), Matchers.equalTo(-123));
+        MatcherAssert.assertThat(
+            number.intValueExact(), Matchers.equalTo(-123)
+        );
+        MatcherAssert.assertThat(number.longValue(), Matchers.equalTo(-123L));
+        MatcherAssert.assertThat(
+            number.longValueExact(), Matchers.equalTo(-123L)
+        );
+        MatcherAssert.assertThat(
+            number.doubleValue(), Matchers.equalTo(-123.0)
+        );
+        MatcherAssert.assertThat(
+            number.bigIntegerValueExact(),
+            Matchers.equalTo(BigInteger.valueOf(-123))
+        );
+        MatcherAssert.assertThat(
+            number.bigDecimalValue(), Matchers.equalTo(new BigDecimal("-123"))
+        );
+        MatcherAssert.assertThat(
+            number.numberValue(), Matchers.<Number>equalTo(-123)
+        );
+        MatcherAssert.assertThat(number.isIntegral(), Matchers.is(true));
+        MatcherAssert.assertThat(number.toString(), Matchers.equalTo("-123"));
+        MatcherAssert.assertThat(
+            number.getValueType(), Matchers.is(JsonValue.ValueType.NUMBER)
+        );
+    }
+
+    /**
+     * IntJsonNumber is equal to other JsonNumbers with the same value.
+     */
+    @Test
+    public void equalsOtherNumbers() {
+        final IntJsonNumber number = new IntJsonNumber(42);
+        MatcherAssert.assertThat(
+            number, Matchers.<Object>equalTo(new LongJsonNumber(42L))
+        );
+        MatcherAssert.assertThat(
+            number, Matchers.<Object>equalTo(new RtJsonNumber("42"))
+        );
+        MatcherAssert.assertThat(
+            number.hashCode(),
+            Matchers.equalTo(new RtJsonNumber("42").hashCode())
+        );
+        MatcherAssert.assertThat(
+            number, Matchers.not(Matchers.<Object>equalTo(new IntJsonNumber(7)))
+        );
+        MatcherAssert.assertThat(
+            number, Matchers.not(Matchers.<Object>equalTo("42"))
+        );
+    }
+}
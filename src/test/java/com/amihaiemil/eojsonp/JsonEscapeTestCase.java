@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JsonEscape}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class JsonEscapeTestCase {
+
+    /**
+     * JsonEscape quotes a text which needs no escaping.
+     */
+    @Test
+    public void quotesPlainText() {
+        MatcherAssert.assertThat(
+            JsonEscapeTestCase.escaped("plain text / \u00e9"),
+            Matchers.equalTo("\"plain text / \u00e9\"")
+        );
+        MatcherAssert.assertThat(
+            JsonEscapeTestCase.escaped(""), Matchers.equalTo("\"\"")
+        );
+    }
+
+    /**
+     * JsonEscape escapes quotation marks and reverse solidi.
+     */
+    @Test
+    public void escapesQuotesAndBackslashes() {
+        MatcherAssert.assertThat(
+            JsonEscapeTestCase.escaped("say \"hi\" \\o/"),
+            Matchers.equalTo("\"say \\\"hi\\\" \\\\o/\"")
+        );
+    }
+
+    /**
+     * JsonEscape escapes control chars, with the short forms where
+     * there are any.
+     */
+    @Test
+    public void escapesControlChars() {
+        MatcherAssert.assertThat(
+            JsonEscapeTestCase.escaped("\b\f\n\r\t\u0000\u001f\u007f"),
+            Matchers.equalTo("\"\\b\\f\\n\\r\\t\\u0000\\u001f\u007f\"")
+        );
+    }
+
+    /**
+     * JsonEscape copies the runs between escaped chars.
+     */
+    @Test
+    public void copiesRunsBetweenEscapes() {
+        MatcherAssert.assertThat(
+            JsonEscapeTestCase.escaped("\"first\"\nsecond\n\"\"third"),
+            Matchers.equalTo("\"\\\"first\\\"\\nsecond\\n\\\"\\\"third\"")
+        );
+    }
+
+    /**
+     * Escape the given text.
+     * @param text Text to escape.
+     * @return Escaped text, between quotes.
+     */
+    private static String escaped(final String text) {
+        final TextOutput output = new TextOutput();
+        new JsonEscape().write(text, output);
+        return output.toString();
+    }
+
+    /**
+     * JsonEscape can also escape the solidus and the non-ASCII chars.
+     */
+    @Test
+    public void escapesOptionalChars() {
+        final TextOutput output = new TextOutput();
+        new JsonEscape(true, true).write(
+            "</a> \u00e9\u20ac\ud83d\ude00", output
+        );
+        MatcherAssert.assertThat(
+            output.toString(),
+            Matchers.equalTo(
+                "\"<\\/a> \\u00e9\\u20ac\\ud83d\\ude00\""
+            )
+        );
+    }
+}
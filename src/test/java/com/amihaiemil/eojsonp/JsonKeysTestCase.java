@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JsonKeys}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class JsonKeysTestCase {
+
+    /**
+     * JsonKeys finds its keys, below and above the threshold.
+     */
+    @Test
+    public void findsKeys() {
+        final JsonKeys keys = new JsonKeys(1);
+        for (int idx = 0; idx < 50; ++idx) {
+            MatcherAssert.assertThat(
+                keys.add("k" + idx), Matchers.equalTo(idx)
+            );
+            for (int prev = 0; prev <= idx; ++prev) {
+                MatcherAssert.assertThat(
+                    keys.find("k" + prev), Matchers.equalTo(prev)
+                );
+            }
+            MatcherAssert.assertThat(
+                keys.find("missing"), Matchers.equalTo(-1)
+            );
+        }
+    }
+
+    /**
+     * JsonKeys finds keys with colliding hashes.
+     */
+    @Test
+    public void findsCollidingKeys() {
+        final JsonKeys keys = new JsonKeys(JsonKeys.THRESHOLD);
+        for (int idx = 0; idx < 20; ++idx) {
+            keys.add("Aa" + idx);
+            keys.add("BB" + idx);
+        }
+        final JsonKeys copy = keys.copy();
+        MatcherAssert.assertThat(copy.size(), Matchers.equalTo(40));
+        MatcherAssert.assertThat(copy.find("Aa7"), Matchers.equalTo(14));
+        MatcherAssert.assertThat(copy.find("BB7"), Matchers.equalTo(15));
+        MatcherAssert.assertThat(copy.name(15), Matchers.equalTo("BB7"));
+    }
+
+    /**
+     * JsonKeys can be cleared, while its copies stay as they were.
+     */
+    @Test
+    public void clearsKeys() {
+        final JsonKeys keys = new JsonKeys(2);
+        keys.add("a");
+        final JsonKeys copy = keys.copy();
+        keys.clear();
+        MatcherAssert.assertThat(keys.size(), Matchers.equalTo(0));
+        MatcherAssert.assertThat(keys.find("a"), Matchers.equalTo(-1));
+        MatcherAssert.assertThat(copy.find("a"), Matchers.equalTo(0));
+    }
+
+    /**
+     * JsonKeys knows whether other keys have the same layout.
+     */
+    @Test
+    public void comparesLayouts() {
+        final JsonKeys keys = new JsonKeys(2);
+        keys.add("a");
+        keys.add("b");
+        final JsonKeys same = new JsonKeys(1);
+        same.add("a");
+        same.add("b");
+        final JsonKeys other = new JsonKeys(2);
+        other.add("b");
+        other.add("a");
+        MatcherAssert.assertThat(keys.same(same), Matchers.is(true));
+        MatcherAssert.assertThat(
+            keys.layout(), Matchers.equalTo(same.layout())
+        );
+        MatcherAssert.assertThat(keys.same(other), Matchers.is(false));
+        MatcherAssert.assertThat(
+            keys.layout(), Matchers.not(Matchers.equalTo(other.layout()))
+        );
+    }
+}
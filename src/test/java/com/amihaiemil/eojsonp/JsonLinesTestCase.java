@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import javax.json.JsonValue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JsonLines}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class JsonLinesTestCase {
+
+    /**
+     * JsonLines gives the lines one by one, skipping the blank ones.
+     */
+    @Test
+    public void skipsBlankLines() {
+        final List<String> lines = new ArrayList<>();
+        final Spliterator<JsonValue> split = new JsonLines(
+            JsonLinesTestCase.bytes("1\n\n  \r\n{\"a\":2}\r\n[3] \n"),
+            line -> new RtJsonString(StandardCharsets.UTF_8.decode(line)
+                .toString())
+        );
+        split.forEachRemaining(value -> lines.add(value.toString()));
+        MatcherAssert.assertThat(
+            lines,
+            Matchers.contains("\"1\"", "\"{\\\"a\\\":2}\\r\"", "\"[3] \"")
+        );
+    }
+
+    /**
+     * JsonLines splits at a newline, only if the range is big enough.
+     */
+    @Test
+    public void splitsAtNewlines() {
+        final StringBuilder ndjson = new StringBuilder();
+        for (int idx = 0; idx < JsonLines.MIN_SPLIT; ++idx) {
+            ndjson.append("[1, 2, 3]\n");
+        }
+        final Spliterator<JsonValue> split = new JsonLines(
+            JsonLinesTestCase.bytes(ndjson.toString()),
+            line -> JsonValue.NULL
+        );
+        final long size = split.estimateSize();
+        final Spliterator<JsonValue> prefix = split.trySplit();
+        MatcherAssert.assertThat(prefix, Matchers.notNullValue());
+        MatcherAssert.assertThat(
+            prefix.estimateSize() % 10,
+            Matchers.equalTo(0L)
+        );
+        MatcherAssert.assertThat(
+            prefix.estimateSize() + split.estimateSize(),
+            Matchers.equalTo(size)
+        );
+        MatcherAssert.assertThat(
+            new JsonLines(JsonLinesTestCase.bytes("1\n2\n"), line -> null)
+                .trySplit(),
+            Matchers.nullValue()
+        );
+    }
+
+    /**
+     * A parallel Stream of JsonLines keeps the order of the lines.
+     */
+    @Test
+    public void parsesInParallel() {
+        final StringBuilder ndjson = new StringBuilder();
+        final List<Integer> expected = new ArrayList<>();
+        for (int idx = 0; idx < 50000; ++idx) {
+            ndjson.append("{\"id\": ").append(idx).append("}\n");
+            expected.add(idx);
+        }
+        final RtJsonReaderFactory factory = new RtJsonReaderFactory(null);
+        MatcherAssert.assertThat(
+            factory.lines(JsonLinesTestCase.bytes(ndjson.toString()))
+                .map(value -> value.asJsonObject().getInt("id"))
+                .collect(Collectors.toList()),
+            Matchers.equalTo(expected)
+        );
+        MatcherAssert.assertThat(
+            StreamSupport.stream(
+                new JsonLines(
+                    JsonLinesTestCase.bytes(ndjson.toString()),
+                    line -> JsonValue.TRUE
+                ), true
+            ).unordered().count(),
+            Matchers.equalTo(50000L)
+        );
+    }
+
+    /**
+     * Direct buffer with the UTF-8 bytes of the given text.
+     * @param text Text.
+     * @return ByteBuffer.
+     */
+    private static ByteBuffer bytes(final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        return buffer;
+    }
+}
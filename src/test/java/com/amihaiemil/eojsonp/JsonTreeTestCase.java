@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.StringReader;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JsonTree}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class JsonTreeTestCase {
+
+    /**
+     * JsonTree builds scalar values.
+     */
+    @Test
+    public void buildsScalars() {
+        MatcherAssert.assertThat(
+            JsonTreeTestCase.build("12345678901234567890.5"),
+            Matchers.<JsonValue>equalTo(
+                new RtJsonNumber("12345678901234567890.5")
+            )
+        );
+        MatcherAssert.assertThat(
+            JsonTreeTestCase.build("true"), Matchers.is(JsonValue.TRUE)
+        );
+        MatcherAssert.assertThat(
+            JsonTreeTestCase.build("false"), Matchers.is(JsonValue.FALSE)
+        );
+    }
+
+    /**
+     * JsonTree builds siblings of different sizes, keeping the order of
+     * the values.
+     */
+    @Test
+    public void buildsSiblings() {
+        final JsonArray array = (JsonArray) JsonTreeTestCase.build(
+            "[{\"a\":1,\"b\":2},{\"c\":3},{\"d\":4,\"e\":5,\"f\":6},[],[1,2]]"
+        );
+        MatcherAssert.assertThat(array.size(), Matchers.equalTo(5));
+        MatcherAssert.assertThat(
+            array.getJsonObject(0).keySet(), Matchers.contains("a", "b")
+        );
+        MatcherAssert.assertThat(
+            array.getJsonObject(1).keySet(), Matchers.contains("c")
+        );
+        MatcherAssert.assertThat(
+            array.getJsonObject(2).keySet(), Matchers.contains("d", "e", "f")
+        );
+        MatcherAssert.assertThat(
+            array.getJsonArray(4).toString(), Matchers.equalTo("[1,2]")
+        );
+    }
+
+    /**
+     * JsonTree keeps the last value of a repeated key.
+     */
+    @Test
+    public void keepsLastValueOfKey() {
+        final JsonObject obj = (JsonObject) JsonTreeTestCase.build(
+            "{\"a\":1,\"a\":2}"
+        );
+        MatcherAssert.assertThat(obj.getInt("a"), Matchers.equalTo(2));
+        MatcherAssert.assertThat(obj.size(), Matchers.equalTo(1));
+    }
+
+    /**
+     * JsonTree builds numbers in their most compact form, equal to the
+     * BigDecimal-backed ones.
+     */
+    @Test
+    public void buildsCompactNumbers() {
+        final JsonArray array = (JsonArray) JsonTreeTestCase.build(
+            "[7, -3000000000, 123456789012345678901, 1.50]"
+        );
+        MatcherAssert.assertThat(
+            array.get(0), Matchers.instanceOf(IntJsonNumber.class)
+        );
+        MatcherAssert.assertThat(
+            array.get(1), Matchers.instanceOf(LongJsonNumber.class)
+        );
+        MatcherAssert.assertThat(
+            array,
+            Matchers.contains(
+                new RtJsonNumber("7"), new RtJsonNumber("-3000000000"),
+                new RtJsonNumber("123456789012345678901"),
+                new RtJsonNumber("1.50")
+            )
+        );
+    }
+
+    /**
+     * Build the value of the given JSON.
+     * @param json JSON text.
+     * @return JsonValue.
+     */
+    private static JsonValue build(final String json) {
+        final JsonParser parser = new RtJsonParser(new StringReader(json));
+        return new JsonTree(parser).build(parser.next());
+    }
+}
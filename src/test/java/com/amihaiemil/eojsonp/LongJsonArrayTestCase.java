@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import javax.json.JsonValue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LongJsonArray}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class LongJsonArrayTestCase {
+
+    /**
+     * LongJsonArray gives the extreme longs back unchanged.
+     */
+    @Test
+    public void givesExtremeValues() {
+        final LongJsonArray array = new LongJsonArray(
+            Long.MAX_VALUE, Long.MIN_VALUE
+        );
+        MatcherAssert.assertThat(
+            array.get(0),
+            Matchers.<JsonValue>equalTo(new LongJsonNumber(Long.MAX_VALUE))
+        );
+        MatcherAssert.assertThat(
+            array.getJsonNumber(1).longValueExact(),
+            Matchers.equalTo(Long.MIN_VALUE)
+        );
+    }
+
+    /**
+     * LongJsonArray prints the extreme longs without losing digits.
+     */
+    @Test
+    public void printsExtremeValues() {
+        MatcherAssert.assertThat(
+            new LongJsonArray(Long.MAX_VALUE, Long.MIN_VALUE).toString(),
+            Matchers.equalTo("[9223372036854775807,-9223372036854775808]")
+        );
+    }
+
+    /**
+     * LongJsonArray narrows a long which does not fit in an int, the way
+     * any other JsonNumber does.
+     */
+    @Test
+    public void narrowsBigLongs() {
+        final long big = 1L << 32 | 5L;
+        final LongJsonArray array = new LongJsonArray(big);
+        MatcherAssert.assertThat(array.getInt(0), Matchers.equalTo(5));
+        MatcherAssert.assertThat(
+            array.getInt(0),
+            Matchers.equalTo(new RtJsonNumber(String.valueOf(big)).intValue())
+        );
+    }
+
+    /**
+     * LongJsonArray refuses to give exactly as an int a long which does not
+     * fit in one.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void complainsAboutExactBigLongs() {
+        new LongJsonArray(Long.MAX_VALUE).getJsonNumber(0).intValueExact();
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javax.json.JsonException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MappedInput}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class MappedInputTestCase {
+
+    /**
+     * MappedInput maps the next window, starting with the kept bytes.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void mapsWindows() throws IOException {
+        final Path file = MappedInputTestCase.file("0123456789");
+        try {
+            final ByteInput input = new MappedInput(
+                FileChannel.open(file, StandardOpenOption.READ), 4
+            );
+            ByteBuffer buffer = input.refill(ByteBuffer.allocate(0), 0);
+            MatcherAssert.assertThat(
+                MappedInputTestCase.text(buffer), Matchers.equalTo("0123")
+            );
+            buffer = input.refill(buffer, 3);
+            MatcherAssert.assertThat(
+                MappedInputTestCase.text(buffer), Matchers.equalTo("3456")
+            );
+            buffer = input.refill(buffer, 4);
+            MatcherAssert.assertThat(
+                MappedInputTestCase.text(buffer), Matchers.equalTo("789")
+            );
+            buffer = input.refill(buffer, 1);
+            MatcherAssert.assertThat(
+                MappedInputTestCase.text(buffer), Matchers.equalTo("89")
+            );
+            input.close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * MappedInput grows the window when a token does not fit in it and
+     * skips the byte order mark.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void growsWindowsAndSkipsBom() throws IOException {
+        final Path file = MappedInputTestCase.file("\ufeff0123456789");
+        try {
+            final ByteInput input = new MappedInput(
+                FileChannel.open(file, StandardOpenOption.READ), 4
+            );
+            ByteBuffer buffer = input.refill(ByteBuffer.allocate(0), 0);
+            MatcherAssert.assertThat(
+                MappedInputTestCase.text(buffer), Matchers.equalTo("0123")
+            );
+            buffer = input.refill(buffer, 0);
+            MatcherAssert.assertThat(
+                MappedInputTestCase.text(buffer), Matchers.equalTo("01234567")
+            );
+            input.close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * MappedInput complains if the file cannot be mapped.
+     * @throws IOException If something goes wrong.
+     */
+    @Test(expected = JsonException.class)
+    public void complainsAboutClosedFiles() throws IOException {
+        final Path file = MappedInputTestCase.file("[]");
+        try {
+            final FileChannel channel = FileChannel.open(
+                file, StandardOpenOption.READ
+            );
+            channel.close();
+            new MappedInput(channel).refill(ByteBuffer.allocate(0), 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Lexers tokenize mapped files, remapping as they go.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void tokenizesAcrossWindows() throws IOException {
+        final Path file = MappedInputTestCase.file(
+            "{\"k\u00e9y\" : [123456789, \"a long string\", true]}"
+        );
+        try {
+            final JsonLexer lexer = new Utf8Lexer(
+                new MappedInput(
+                    FileChannel.open(file, StandardOpenOption.READ), 2
+                )
+            );
+            lexer.next();
+            lexer.next();
+            MatcherAssert.assertThat(lexer.key(), Matchers.equalTo("k\u00e9y"));
+            lexer.next();
+            lexer.next();
+            lexer.next();
+            MatcherAssert.assertThat(
+                lexer.longValue(), Matchers.is(123456789L)
+            );
+            lexer.next();
+            lexer.next();
+            MatcherAssert.assertThat(
+                lexer.text(), Matchers.equalTo("a long string")
+            );
+            lexer.next();
+            lexer.next();
+            MatcherAssert.assertThat(
+                lexer.next(), Matchers.is(JsonToken.END_ARRAY)
+            );
+            MatcherAssert.assertThat(
+                lexer.next(), Matchers.is(JsonToken.END_OBJECT)
+            );
+            MatcherAssert.assertThat(lexer.next(), Matchers.is(JsonToken.EOF));
+            lexer.close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Temporary file with the given text, encoded as UTF-8.
+     * @param text Text.
+     * @return Path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    private static Path file(final String text) throws IOException {
+        final Path file = Files.createTempFile("eojsonp", ".json");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * Text in the buffer, from index 0 up to its limit.
+     * @param buffer Buffer.
+     * @return Text.
+     */
+    private static String text(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.limit()];
+        for (int idx = 0; idx < bytes.length; ++idx) {
+            bytes[idx] = buffer.get(idx);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Pool}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class PoolTestCase {
+
+    /**
+     * Pool gives back what it was given, until it is empty.
+     */
+    @Test
+    public void takesWhatWasGiven() {
+        final Pool<String> pool = new Pool<>(2);
+        MatcherAssert.assertThat(pool.take(), Matchers.nullValue());
+        MatcherAssert.assertThat(pool.give("first"), Matchers.is(true));
+        MatcherAssert.assertThat(pool.give("second"), Matchers.is(true));
+        MatcherAssert.assertThat(
+            pool.take(), Matchers.isOneOf("first", "second")
+        );
+        MatcherAssert.assertThat(
+            pool.take(), Matchers.isOneOf("first", "second")
+        );
+        MatcherAssert.assertThat(pool.take(), Matchers.nullValue());
+    }
+
+    /**
+     * Pool refuses objects when it is full.
+     */
+    @Test
+    public void refusesWhenFull() {
+        final Pool<String> pool = new Pool<>(1);
+        MatcherAssert.assertThat(pool.give("first"), Matchers.is(true));
+        MatcherAssert.assertThat(pool.give("second"), Matchers.is(false));
+        MatcherAssert.assertThat(pool.take(), Matchers.equalTo("first"));
+    }
+
+    /**
+     * Pool without slots pools nothing.
+     */
+    @Test
+    public void poolsNothingWithoutSlots() {
+        final Pool<String> pool = new Pool<>(0);
+        MatcherAssert.assertThat(pool.give("first"), Matchers.is(false));
+        MatcherAssert.assertThat(pool.take(), Matchers.nullValue());
+    }
+}
@@ -0,0 +1,289 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import javax.json.stream.JsonParsingException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ReaderLexer}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class ReaderLexerTestCase {
+
+    /**
+     * ReaderLexer can split the input into tokens.
+     */
+    @Test
+    public void splitsTokens() {
+        final JsonLexer lexer = new ReaderLexer(
+            new StringReader("{\"a\" : [1, true, false, null]}")
+        );
+        final JsonToken[] expected = {
+            JsonToken.BEGIN_OBJECT, JsonToken.STRING, JsonToken.COLON,
+            JsonToken.BEGIN_ARRAY, JsonToken.NUMBER, JsonToken.COMMA,
+            JsonToken.TRUE, JsonToken.COMMA, JsonToken.FALSE, JsonToken.COMMA,
+            JsonToken.NULL, JsonToken.END_ARRAY, JsonToken.END_OBJECT,
+            JsonToken.EOF,
+        };
+        for (final JsonToken token : expected) {
+            MatcherAssert.assertThat(lexer.next(), Matchers.is(token));
+        }
+    }
+
+    /**
+     * ReaderLexer gives the same instance for a key which repeats, unless
+     * it contains escape sequences.
+     */
+    @Test
+    public void internsKeys() {
+        final JsonLexer lexer = new ReaderLexer(
+            new StringReader("[\"id\", \"id\", \"i\\u0064\"]")
+        );
+        lexer.next();
+        lexer.next();
+        final String first = lexer.key();
+        lexer.next();
+        lexer.next();
+        MatcherAssert.assertThat(lexer.key(), Matchers.sameInstance(first));
+        lexer.next();
+        lexer.next();
+        final String escaped = lexer.key();
+        MatcherAssert.assertThat(escaped, Matchers.equalTo("id"));
+        MatcherAssert.assertThat(
+            escaped, Matchers.not(Matchers.sameInstance(first))
+        );
+    }
+
+    /**
+     * ReaderLexer reads tokens which are bigger than its buffer, or which
+     * cross the boundary between two reads.
+     */
+    @Test
+    public void readsAcrossBufferBoundaries() {
+        final StringBuilder big = new StringBuilder();
+        for (int idx = 0; idx < 100; ++idx) {
+            big.append("abc\\n");
+        }
+        final JsonLexer lexer = new ReaderLexer(
+            new OneCharReader("[\"" + big + "\", 12345.678e-2]"), 4
+        );
+        lexer.next();
+        MatcherAssert.assertThat(lexer.next(), Matchers.is(JsonToken.STRING));
+        MatcherAssert.assertThat(
+            lexer.text(),
+            Matchers.equalTo(big.toString().replace("\\n", "\n"))
+        );
+        lexer.next();
+        MatcherAssert.assertThat(lexer.next(), Matchers.is(JsonToken.NUMBER));
+        MatcherAssert.assertThat(
+            lexer.text(), Matchers.equalTo("12345.678e-2")
+        );
+        MatcherAssert.assertThat(lexer.done(), Matchers.is(false));
+        MatcherAssert.assertThat(
+            lexer.text(), Matchers.equalTo("12345.678e-2")
+        );
+        lexer.next();
+        MatcherAssert.assertThat(lexer.done(), Matchers.is(true));
+    }
+
+    /**
+     * ReaderLexer accumulates small integers into a long.
+     */
+    @Test
+    public void readsSmallIntegersAsLong() {
+        final JsonLexer lexer = new ReaderLexer(
+            new StringReader("-123456789012345678 1234567890123456789 1.0"),
+            4
+        );
+        lexer.next();
+        MatcherAssert.assertThat(lexer.fitsLong(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            lexer.longValue(), Matchers.equalTo(-123456789012345678L)
+        );
+        lexer.next();
+        MatcherAssert.assertThat(lexer.integral(), Matchers.is(true));
+        MatcherAssert.assertThat(lexer.fitsLong(), Matchers.is(false));
+        lexer.next();
+        MatcherAssert.assertThat(lexer.integral(), Matchers.is(false));
+        MatcherAssert.assertThat(lexer.fitsLong(), Matchers.is(false));
+    }
+
+    /**
+     * ReaderLexer decodes all the escape sequences.
+     */
+    @Test
+    public void decodesEscapes() {
+        final JsonLexer lexer = new ReaderLexer(
+            new StringReader("\"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u00e9\\u20AC\"")
+        );
+        lexer.next();
+        MatcherAssert.assertThat(
+            lexer.text(), Matchers.equalTo("\"\\/\b\f\n\r\t\u00e9\u20ac")
+        );
+    }
+
+    /**
+     * ReaderLexer rejects invalid escape sequences.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsInvalidEscape() {
+        new ReaderLexer(new StringReader("\"\\x\"")).next();
+    }
+
+    /**
+     * ReaderLexer rejects invalid unicode escape sequences.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsInvalidUnicodeEscape() {
+        new ReaderLexer(new StringReader("\"\\u12g4\"")).next();
+    }
+
+    /**
+     * ReaderLexer rejects unicode escape sequences with digits which are
+     * not ASCII, such as the fullwidth ones.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsNonAsciiHexDigits() {
+        new ReaderLexer(
+            new StringReader("\"\\u\uFF10\uFF10\uFF14\uFF11\"")
+        ).next();
+    }
+
+    /**
+     * ReaderLexer rejects unescaped control characters in Strings.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsControlCharacters() {
+        new ReaderLexer(new StringReader("\"a\tb\"")).next();
+    }
+
+    /**
+     * ReaderLexer rejects unterminated Strings.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsUnterminatedString() {
+        new ReaderLexer(new StringReader("\"abc")).next();
+    }
+
+    /**
+     * ReaderLexer rejects numbers without digits after the dot.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsNumberWithoutFraction() {
+        new ReaderLexer(new StringReader("1.")).next();
+    }
+
+    /**
+     * ReaderLexer rejects numbers without digits in the exponent.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsNumberWithoutExponent() {
+        new ReaderLexer(new StringReader("1e+")).next();
+    }
+
+    /**
+     * ReaderLexer rejects a lonely minus.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsLonelyMinus() {
+        new ReaderLexer(new StringReader("-")).next();
+    }
+
+    /**
+     * ReaderLexer rejects misspelled literals.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsMisspelledLiteral() {
+        new ReaderLexer(new StringReader("nul")).next();
+    }
+
+    /**
+     * ReaderLexer tracks lines and columns.
+     */
+    @Test
+    public void tracksLocation() {
+        final JsonLexer lexer = new ReaderLexer(
+            new StringReader("[\n1,\n  22]")
+        );
+        lexer.next();
+        lexer.next();
+        lexer.next();
+        lexer.next();
+        MatcherAssert.assertThat(
+            lexer.location().getLineNumber(), Matchers.equalTo(3L)
+        );
+        MatcherAssert.assertThat(
+            lexer.location().getColumnNumber(), Matchers.equalTo(5L)
+        );
+        MatcherAssert.assertThat(
+            lexer.location().getStreamOffset(), Matchers.equalTo(9L)
+        );
+    }
+
+    /**
+     * Reader which returns at most one char per read.
+     */
+    private static final class OneCharReader extends Reader {
+
+        /**
+         * Wrapped reader.
+         */
+        private final Reader origin;
+
+        /**
+         * Ctor.
+         * @param text Text to read.
+         */
+        OneCharReader(final String text) {
+            this.origin = new StringReader(text);
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len)
+            throws IOException {
+            final int read;
+            if (len == 0) {
+                read = 0;
+            } else {
+                read = this.origin.read(cbuf, off, 1);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.origin.close();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonValue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonArrayBuilder}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonArrayBuilderTestCase {
+
+    /**
+     * RtJsonArrayBuilder builds an IntJsonArray out of ints.
+     */
+    @Test
+    public void buildsIntArray() {
+        final JsonArrayBuilder builder = new RtJsonArrayBuilder(1);
+        for (int idx = 0; idx < 20; ++idx) {
+            builder.add(idx);
+        }
+        final JsonArray array = builder.build();
+        MatcherAssert.assertThat(
+            array, Matchers.instanceOf(IntJsonArray.class)
+        );
+        MatcherAssert.assertThat(array.size(), Matchers.equalTo(20));
+        MatcherAssert.assertThat(array.getInt(19), Matchers.equalTo(19));
+    }
+
+    /**
+     * RtJsonArrayBuilder builds a LongJsonArray out of ints and longs.
+     */
+    @Test
+    public void buildsLongArray() {
+        final JsonArray array = new RtJsonArrayBuilder()
+            .add(1).add(Long.MAX_VALUE).add(2).build();
+        MatcherAssert.assertThat(
+            array, Matchers.instanceOf(LongJsonArray.class)
+        );
+        MatcherAssert.assertThat(
+            array.toString(), Matchers.equalTo("[1,9223372036854775807,2]")
+        );
+    }
+
+    /**
+     * RtJsonArrayBuilder widens the ints it already holds when a long
+     * comes after them, past the initial capacity.
+     */
+    @Test
+    public void widensIntsToLongs() {
+        final JsonArrayBuilder builder = new RtJsonArrayBuilder(2);
+        builder.add(Integer.MIN_VALUE).add(0).add(Integer.MAX_VALUE);
+        final JsonArray array = builder.add(Long.MIN_VALUE).build();
+        MatcherAssert.assertThat(
+            array, Matchers.instanceOf(LongJsonArray.class)
+        );
+        MatcherAssert.assertThat(array.size(), Matchers.equalTo(4));
+        MatcherAssert.assertThat(
+            array.getInt(0), Matchers.equalTo(Integer.MIN_VALUE)
+        );
+        MatcherAssert.assertThat(
+            array.getInt(2), Matchers.equalTo(Integer.MAX_VALUE)
+        );
+        MatcherAssert.assertThat(
+            array.getJsonNumber(3).longValue(),
+            Matchers.equalTo(Long.MIN_VALUE)
+        );
+    }
+
+    /**
+     * RtJsonArrayBuilder builds a DoubleJsonArray out of doubles.
+     */
+    @Test
+    public void buildsDoubleArray() {
+        final JsonArray array = new RtJsonArrayBuilder()
+            .add(0.5).add(-2.0).build();
+        MatcherAssert.assertThat(
+            array, Matchers.instanceOf(DoubleJsonArray.class)
+        );
+        MatcherAssert.assertThat(
+            array.toString(), Matchers.equalTo("[0.5,-2.0]")
+        );
+    }
+
+    /**
+     * RtJsonArrayBuilder keeps the numbers added before values of other
+     * types.
+     */
+    @Test
+    public void buildsMixedArray() {
+        MatcherAssert.assertThat(
+            new RtJsonArrayBuilder().add(1).add(2L).add("three").add(4.0)
+                .build().toString(),
+            Matchers.equalTo("[1,2,\"three\",4.0]")
+        );
+        MatcherAssert.assertThat(
+            new RtJsonArrayBuilder().add(1.5).add(2).build().toString(),
+            Matchers.equalTo("[1.5,2]")
+        );
+        MatcherAssert.assertThat(
+            new RtJsonArrayBuilder().add(true).addNull()
+                .add(new RtJsonArrayBuilder().add(1))
+                .add(new RtJsonObjectBuilder().add("k", "v"))
+                .build().toString(),
+            Matchers.equalTo("[true,null,[1],{\"k\":\"v\"}]")
+        );
+    }
+
+    /**
+     * RtJsonArrayBuilder is empty after build, while the built JsonArray
+     * does not change.
+     */
+    @Test
+    public void isEmptyAfterBuild() {
+        final JsonArrayBuilder builder = new RtJsonArrayBuilder();
+        final JsonArray first = builder.add("a").build();
+        final JsonArray second = builder.add(2).build();
+        final JsonArray third = builder.build();
+        MatcherAssert.assertThat(first.toString(), Matchers.equalTo("[\"a\"]"));
+        MatcherAssert.assertThat(second.toString(), Matchers.equalTo("[2]"));
+        MatcherAssert.assertThat(third.isEmpty(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            third.getValueType(), Matchers.is(JsonValue.ValueType.ARRAY)
+        );
+    }
+
+    /**
+     * RtJsonArrayBuilder complains about NaN.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void complainsAboutNaN() {
+        new RtJsonArrayBuilder().add(Double.NaN);
+    }
+
+    /**
+     * RtJsonArrayBuilder complains about null values.
+     */
+    @Test(expected = NullPointerException.class)
+    public void complainsAboutNull() {
+        new RtJsonArrayBuilder().add((String) null);
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Collections;
+import java.util.List;
+import javax.json.JsonArray;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonArray}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonArrayTestCase {
+
+    /**
+     * RtJsonArray returns its values, or the fallbacks for indexes out of
+     * bounds and values of other types.
+     */
+    @Test
+    public void returnsValues() {
+        final JsonArray array = RtJsonArrayTestCase.sample();
+        MatcherAssert.assertThat(array.getString(0), Matchers.equalTo("v"));
+        MatcherAssert.assertThat(array.getInt(1), Matchers.equalTo(7));
+        MatcherAssert.assertThat(array.getBoolean(2), Matchers.is(false));
+        MatcherAssert.assertThat(array.isNull(3), Matchers.is(true));
+        MatcherAssert.assertThat(
+            array.getString(1, "none"), Matchers.equalTo("none")
+        );
+        MatcherAssert.assertThat(array.getInt(9, -1), Matchers.equalTo(-1));
+        MatcherAssert.assertThat(
+            array.getBoolean(-1, true), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            array.getValueType(), Matchers.is(JsonValue.ValueType.ARRAY)
+        );
+    }
+
+    /**
+     * RtJsonArray can be seen as a list of a given JsonValue type.
+     */
+    @Test
+    public void returnsValuesAs() {
+        final List<JsonString> strings = new RtJsonArray(
+            new RtJsonString("a")
+        ).getValuesAs(JsonString.class);
+        MatcherAssert.assertThat(
+            strings.get(0).getString(), Matchers.equalTo("a")
+        );
+    }
+
+    /**
+     * RtJsonArray complains about values of other types.
+     */
+    @Test(expected = ClassCastException.class)
+    public void complainsAboutOtherTypes() {
+        RtJsonArrayTestCase.sample().getBoolean(0);
+    }
+
+    /**
+     * RtJsonArray cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void isImmutable() {
+        RtJsonArrayTestCase.sample().add(JsonValue.NULL);
+    }
+
+    /**
+     * RtJsonArray is equal to any List with the same values.
+     */
+    @Test
+    public void equalsOtherLists() {
+        final List<JsonValue> values = Collections.singletonList(
+            JsonValue.TRUE
+        );
+        MatcherAssert.assertThat(
+            new RtJsonArray(JsonValue.TRUE), Matchers.equalTo(values)
+        );
+    }
+
+    /**
+     * RtJsonArray prints itself as JSON.
+     */
+    @Test
+    public void printsJson() {
+        MatcherAssert.assertThat(
+            RtJsonArrayTestCase.sample().toString(),
+            Matchers.equalTo("[\"v\",7,false,null]")
+        );
+    }
+
+    /**
+     * A sample JsonArray.
+     * @return JsonArray.
+     */
+    private static JsonArray sample() {
+        return new RtJsonArray(
+            new RtJsonString("v"), new RtJsonNumber("7"),
+            JsonValue.FALSE, JsonValue.NULL
+        );
+    }
+}
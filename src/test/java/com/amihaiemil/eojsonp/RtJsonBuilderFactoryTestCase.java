@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Collections;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonBuilderFactory}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonBuilderFactoryTestCase {
+
+    /**
+     * RtJsonBuilderFactory creates builders for rows with the same keys.
+     */
+    @Test
+    public void buildsRows() {
+        final JsonBuilderFactory factory = new RtJsonBuilderFactory(null);
+        final JsonObject first = factory.createObjectBuilder()
+            .add("id", 1).add("name", "a").build();
+        final JsonObject second = factory.createObjectBuilder()
+            .add("id", 2).add("name", "b").build();
+        MatcherAssert.assertThat(
+            factory.createArrayBuilder().add(first).add(second).build()
+                .toString(),
+            Matchers.equalTo(
+                "[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"}]"
+            )
+        );
+        MatcherAssert.assertThat(second.getInt("id"), Matchers.equalTo(2));
+    }
+
+    /**
+     * RtJsonBuilderFactory reports the configuration it uses.
+     */
+    @Test
+    public void reportsConfig() {
+        MatcherAssert.assertThat(
+            new RtJsonBuilderFactory(
+                Collections.singletonMap(RtJsonBuilderFactory.SHAPES, "64")
+            ).getConfigInUse(),
+            Matchers.<String, Object>hasEntry(RtJsonBuilderFactory.SHAPES, 64)
+        );
+    }
+
+    /**
+     * RtJsonBuilderFactory complains about an invalid number of shapes.
+     */
+    @Test(expected = JsonException.class)
+    public void rejectsInvalidShapes() {
+        new RtJsonBuilderFactory(
+            Collections.singletonMap(RtJsonBuilderFactory.SHAPES, 0)
+        );
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.json.JsonException;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonGeneratorFactory}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonGeneratorFactoryTestCase {
+
+    /**
+     * RtJsonGeneratorFactory uses the default buffer size when it is not
+     * configured.
+     */
+    @Test
+    public void usesDefaultBufferSize() {
+        MatcherAssert.assertThat(
+            new RtJsonGeneratorFactory(null).getConfigInUse(),
+            Matchers.<String, Object>hasEntry(
+                RtJsonGeneratorFactory.BUFFER_SIZE,
+                RtJsonGenerator.BUFFER_SIZE
+            )
+        );
+    }
+
+    /**
+     * RtJsonGeneratorFactory creates generators which hand their output to
+     * the Writer once the configured number of chars is buffered.
+     */
+    @Test
+    public void createsGeneratorsWithConfiguredBuffer() {
+        final Map<String, ?> config = Collections.singletonMap(
+            RtJsonGeneratorFactory.BUFFER_SIZE, "100"
+        );
+        final Writer written = new StringWriter();
+        final JsonGenerator gen = new RtJsonGeneratorFactory(config)
+            .createGenerator(written).writeStartArray();
+        for (int idx = 0; idx < 30; ++idx) {
+            gen.write(idx);
+        }
+        MatcherAssert.assertThat(written.toString(), Matchers.isEmptyString());
+        for (int idx = 30; idx < 60; ++idx) {
+            gen.write(idx);
+        }
+        MatcherAssert.assertThat(
+            written.toString(), Matchers.startsWith("[0,1,2,")
+        );
+    }
+
+    /**
+     * RtJsonGeneratorFactory creates generators writing to an OutputStream
+     * with the given charset.
+     */
+    @Test
+    public void createsGeneratorsWithCharset() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final JsonGeneratorFactory factory = new RtJsonGeneratorFactory(
+            Collections.<String, Object>emptyMap()
+        );
+        factory.createGenerator(out, StandardCharsets.UTF_16BE)
+            .writeStartArray().write(1).writeEnd().close();
+        MatcherAssert.assertThat(
+            new String(out.toByteArray(), StandardCharsets.UTF_16BE),
+            Matchers.equalTo("[1]")
+        );
+    }
+
+    /**
+     * RtJsonGeneratorFactory complains about an invalid buffer size.
+     */
+    @Test(expected = JsonException.class)
+    public void rejectsInvalidBufferSize() {
+        new RtJsonGeneratorFactory(
+            Collections.singletonMap(RtJsonGeneratorFactory.BUFFER_SIZE, -1)
+        );
+    }
+
+    /**
+     * RtJsonGeneratorFactory creates pretty printing generators.
+     */
+    @Test
+    public void createsPrettyGenerators() {
+        final Writer written = new StringWriter();
+        new RtJsonGeneratorFactory(
+            Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, "yes")
+        ).createGenerator(written)
+            .writeStartObject()
+            .write("name", "eo")
+            .writeStartArray("list")
+            .write(1)
+            .writeStartObject()
+            .writeEnd()
+            .writeEnd()
+            .writeStartArray("empty")
+            .writeEnd()
+            .writeKey("nested")
+            .writeStartObject()
+            .write("flag", true)
+            .writeEnd()
+            .writeEnd()
+            .close();
+        MatcherAssert.assertThat(
+            written.toString(),
+            Matchers.equalTo(
+                "{\n    \"name\": \"eo\",\n    \"list\": [\n        1,"
+                + "\n        {}\n    ],\n    \"empty\": [],"
+                + "\n    \"nested\": {\n        \"flag\": true\n    }\n}"
+            )
+        );
+    }
+
+    /**
+     * RtJsonGeneratorFactory creates generators with the configured
+     * escaping.
+     */
+    @Test
+    public void createsEscapingGenerators() {
+        final Map<String, Object> config = new HashMap<>();
+        config.put(RtJsonGeneratorFactory.ESCAPE_SOLIDUS, true);
+        config.put(RtJsonGeneratorFactory.ESCAPE_NON_ASCII, "true");
+        final JsonGeneratorFactory factory = new RtJsonGeneratorFactory(
+            config
+        );
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        factory.createGenerator(out)
+            .writeStartArray().write("</\u00e9>").writeEnd().close();
+        MatcherAssert.assertThat(
+            new String(out.toByteArray(), StandardCharsets.US_ASCII),
+            Matchers.equalTo("[\"<\\/\\u00e9>\"]")
+        );
+        MatcherAssert.assertThat(
+            factory.getConfigInUse(),
+            Matchers.allOf(
+                Matchers.<String, Object>hasEntry(
+                    RtJsonGeneratorFactory.ESCAPE_SOLIDUS, true
+                ),
+                Matchers.<String, Object>hasEntry(
+                    RtJsonGeneratorFactory.ESCAPE_NON_ASCII, true
+                ),
+                Matchers.not(
+                    Matchers.hasKey(JsonGenerator.PRETTY_PRINTING)
+                )
+            )
+        );
+    }
+
+    /**
+     * RtJsonGeneratorFactory can be used by many threads at once, while its
+     * generators share the pooled buffers.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void worksConcurrently() throws Exception {
+        final JsonGeneratorFactory factory = new RtJsonGeneratorFactory(
+            Collections.singletonMap(RtJsonGeneratorFactory.POOL_SIZE, 2)
+        );
+        final ExecutorService threads = Executors.newFixedThreadPool(8);
+        final List<Future<String>> results = new ArrayList<>();
+        for (int idx = 0; idx < 400; ++idx) {
+            final int value = idx;
+            final Callable<String> generate = () -> {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                factory.createGenerator(out, StandardCharsets.UTF_8)
+                    .writeStartArray().write(value).writeEnd().close();
+                final Writer written = new StringWriter();
+                factory.createGenerator(written)
+                    .writeStartArray().write(value).writeEnd().close();
+                return new String(out.toByteArray(), StandardCharsets.UTF_8)
+                    + written;
+            };
+            results.add(threads.submit(generate));
+        }
+        for (int idx = 0; idx < results.size(); ++idx) {
+            MatcherAssert.assertThat(
+                results.get(idx).get(),
+                Matchers.equalTo("[" + idx + "][" + idx + "]")
+            );
+        }
+        threads.shutdown();
+    }
+}
@@ -25,15 +25,23 @@
  */
 package com.amihaiemil.eojsonp;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import javax.json.JsonException;
+import javax.json.JsonString;
 import javax.json.stream.JsonGenerator;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import com.sun.management.ThreadMXBean;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 /**
@@ -53,11 +61,10 @@ public final class RtJsonGeneratorTestCase {
         final JsonGenerator gen = new RtJsonGenerator(written);
         MatcherAssert.assertThat(
             gen.writeStartObject(),
-            Matchers.allOf(
-                Matchers.notNullValue(),
-                Matchers.instanceOf(RtJsonGenerator.ContinueObject.class)
-            )
+            Matchers.sameInstance(gen)
         );
+        MatcherAssert.assertThat(written.toString(), Matchers.isEmptyString());
+        gen.flush();
         MatcherAssert.assertThat(written.toString(), Matchers.equalTo("{"));
     }
     
@@ -70,11 +77,10 @@ public final class RtJsonGeneratorTestCase {
         final JsonGenerator gen = new RtJsonGenerator(written);
         MatcherAssert.assertThat(
             gen.writeStartArray(),
-            Matchers.allOf(
-                Matchers.notNullValue(),
-                Matchers.instanceOf(RtJsonGenerator.ContinueArray.class)
-            )
+            Matchers.sameInstance(gen)
         );
+        MatcherAssert.assertThat(written.toString(), Matchers.isEmptyString());
+        gen.flush();
         MatcherAssert.assertThat(written.toString(), Matchers.equalTo("["));
     }
     
@@ -196,16 +202,21 @@ public final class RtJsonGeneratorTestCase {
     public void startArrayThrowsIoException() throws Exception {
         final Writer writer = Mockito.mock(Writer.class);
         Mockito.doThrow(new IOException("#startArray()"))
-            .when(writer).write("[");
+            .when(writer).write(
+                Mockito.any(char[].class), Mockito.eq(0), Mockito.eq(1)
+            );
         final JsonGenerator gen = new RtJsonGenerator(writer);
         try {
-            gen.writeStartArray();
+            gen.writeStartArray().flush();
         } catch (final IllegalStateException ex) {
-            Mockito.verify(writer, Mockito.times(1)).write("[");
+            Mockito.verify(writer, Mockito.times(1)).write(
+                Mockito.any(char[].class), Mockito.eq(0), Mockito.eq(1)
+            );
+            Mockito.verify(writer, Mockito.never()).flush();
             return;
         }
         Assert.fail(
-            "#writeStartArray() should have thrown IllegalStateException!"
+            "#flush() should have thrown IllegalStateException!"
         );
     }
     
@@ -218,17 +229,327 @@ public final class RtJsonGeneratorTestCase {
     public void startObjectThrowsIoException() throws Exception {
         final Writer writer = Mockito.mock(Writer.class);
         Mockito.doThrow(new IOException("#startObject()"))
-            .when(writer).write("{");
+            .when(writer).write(
+                Mockito.any(char[].class), Mockito.eq(0), Mockito.eq(1)
+            );
         final JsonGenerator gen = new RtJsonGenerator(writer);
         try {
-            gen.writeStartObject();
+            gen.writeStartObject().flush();
         } catch (final IllegalStateException ex) {
-            Mockito.verify(writer, Mockito.times(1)).write("{");
+            Mockito.verify(writer, Mockito.times(1)).write(
+                Mockito.any(char[].class), Mockito.eq(0), Mockito.eq(1)
+            );
+            Mockito.verify(writer, Mockito.never()).flush();
             return;
         }
         Assert.fail(
-            "#writeStartArray() should have thrown IllegalStateException!"
+            "#flush() should have thrown IllegalStateException!"
         );
     }
-    
+
+    /**
+     * RtJsonGenerator hands its buffer to the Writer only when it is full.
+     */
+    @Test
+    public void writesWhenBufferIsFull() {
+        final Writer written = new StringWriter();
+        final JsonGenerator gen = new RtJsonGenerator(written, 64)
+            .writeStartArray();
+        for (int idx = 0; idx < 10; ++idx) {
+            gen.write("abc");
+        }
+        MatcherAssert.assertThat(written.toString(), Matchers.isEmptyString());
+        gen.write("abc");
+        MatcherAssert.assertThat(
+            written.toString().length(), Matchers.equalTo(62)
+        );
+        gen.flush();
+        MatcherAssert.assertThat(
+            written.toString().length(), Matchers.equalTo(66)
+        );
+    }
+
+    /**
+     * RtJsonGenerator writes Strings bigger than its buffer straight to the
+     * Writer, after the buffered chars.
+     */
+    @Test
+    public void writesBigStrings() {
+        final Writer written = new StringWriter();
+        final StringBuilder big = new StringBuilder();
+        for (int idx = 0; idx < 100; ++idx) {
+            big.append("str");
+        }
+        new RtJsonGenerator(written, 64).writeStartArray()
+            .write(big.toString()).flush();
+        MatcherAssert.assertThat(
+            written.toString(),
+            Matchers.equalTo("[\"" + big + "\"")
+        );
+    }
+
+    /**
+     * RtJsonGenerator writes UTF-8 bytes to an OutputStream.
+     */
+    @Test
+    public void writesBytesToOutputStream() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new RtJsonGenerator(out).writeStartObject()
+            .write("\u00e9t\u00e9", "\u20ac").writeEnd().close();
+        MatcherAssert.assertThat(
+            new String(out.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.equalTo("{\"\u00e9t\u00e9\":\"\u20ac\"}")
+        );
+    }
+
+    /**
+     * RtJsonGenerator writes what is buffered when closed.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void writesBufferOnClose() throws Exception {
+        final Writer writer = Mockito.mock(Writer.class);
+        new RtJsonGenerator(writer).writeStartArray().write(1).writeEnd()
+            .close();
+        final InOrder order = Mockito.inOrder(writer);
+        order.verify(writer).write(
+            Mockito.any(char[].class), Mockito.eq(0), Mockito.eq(3)
+        );
+        order.verify(writer).close();
+    }
+
+    /**
+     * RtJsonGenerator separates the elements of nested structures with
+     * commas.
+     */
+    @Test
+    public void writesNestedStructures() {
+        final Writer written = new StringWriter();
+        new RtJsonGenerator(written).writeStartObject()
+            .writeStartArray("arr").write(1).writeStartObject().writeEnd()
+            .writeStartArray().write("x").writeEnd().writeEnd()
+            .writeKey("obj").writeStartObject().write("a", true).writeEnd()
+            .writeKey("num").write(2)
+            .writeStartObject("inner").writeEnd()
+            .writeEnd().flush();
+        MatcherAssert.assertThat(
+            written.toString(),
+            Matchers.equalTo(
+                "{\"arr\":[1,{},[\"x\"]],\"obj\":{\"a\":true},"
+                + "\"num\":2,\"inner\":{}}"
+            )
+        );
+    }
+
+    /**
+     * RtJsonGenerator can be used without chaining the calls, since it
+     * passes them to the current node.
+     */
+    @Test
+    public void worksWithoutChaining() {
+        final Writer written = new StringWriter();
+        final JsonGenerator gen = new RtJsonGenerator(written);
+        gen.writeStartArray();
+        gen.write(1);
+        gen.writeStartObject();
+        gen.write("key", "value");
+        gen.writeKey("big");
+        gen.write(BigDecimal.TEN);
+        gen.writeEnd();
+        gen.writeEnd();
+        gen.flush();
+        MatcherAssert.assertThat(
+            written.toString(),
+            Matchers.equalTo("[1,{\"key\":\"value\",\"big\":10}]")
+        );
+    }
+
+    /**
+     * RtJsonGenerator always returns itself, never one of its nodes, so
+     * a reference kept from an earlier call still follows the state.
+     */
+    @Test
+    public void returnsItself() {
+        final StringWriter writer = new StringWriter();
+        final JsonGenerator gen = new RtJsonGenerator(writer);
+        final JsonGenerator object = gen.writeStartObject();
+        MatcherAssert.assertThat(object, Matchers.sameInstance(gen));
+        MatcherAssert.assertThat(
+            object.writeStartArray("a").write(1).writeStartObject()
+                .write("b", 2).writeEnd().writeEnd(),
+            Matchers.sameInstance(gen)
+        );
+        object.write("k", 1).writeEnd().close();
+        MatcherAssert.assertThat(
+            writer.toString(),
+            Matchers.equalTo("{\"a\":[1,{\"b\":2}],\"k\":1}")
+        );
+    }
+
+    /**
+     * A reference kept from an earlier call cannot be used to write a
+     * key-value pair into an array.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void keptReferenceFollowsState() {
+        final JsonGenerator object = new RtJsonGenerator(new StringWriter())
+            .writeStartObject();
+        object.writeStartArray("a");
+        object.write("k", 1);
+    }
+
+    /**
+     * RtJsonGenerator cannot end a structure while a key waits for its value.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void cannotEndAfterKey() {
+        new RtJsonGenerator(new StringWriter()).writeStartObject()
+            .writeKey("key").writeEnd();
+    }
+
+    /**
+     * RtJsonGenerator escapes keys and string values, whether they are
+     * given as Strings or as JsonStrings.
+     */
+    @Test
+    public void escapesStrings() {
+        final Writer written = new StringWriter();
+        final JsonString quoted = Mockito.mock(JsonString.class);
+        Mockito.when(quoted.getString()).thenReturn("\"q\"");
+        new RtJsonGenerator(written).writeStartObject()
+            .write("new\nline", "tab\t")
+            .write("json", quoted)
+            .writeEnd().flush();
+        MatcherAssert.assertThat(
+            written.toString(),
+            Matchers.equalTo(
+                "{\"new\\nline\":\"tab\\t\",\"json\":\"\\\"q\\\"\"}"
+            )
+        );
+    }
+
+    /**
+     * RtJsonGenerator writes primitive values in a JsonArray.
+     */
+    @Test
+    public void writesPrimitivesInArray() {
+        final Writer written = new StringWriter();
+        new RtJsonGenerator(written).writeStartArray()
+            .write(1).write(-2L).write(2.5).write(true).write(false)
+            .writeNull().write("str").writeEnd().flush();
+        MatcherAssert.assertThat(
+            written.toString(),
+            Matchers.equalTo("[1,-2,2.5,true,false,null,\"str\"]")
+        );
+    }
+
+    /**
+     * RtJsonGenerator writes primitive values in a JsonObject.
+     */
+    @Test
+    public void writesPrimitivesInObject() {
+        final Writer written = new StringWriter();
+        new RtJsonGenerator(written).writeStartObject()
+            .write("a", Integer.MIN_VALUE).write("b", Long.MAX_VALUE)
+            .write("c", 0.1).write("d", false).writeNull("e")
+            .write("f", "str").writeEnd().flush();
+        MatcherAssert.assertThat(
+            written.toString(),
+            Matchers.equalTo(
+                "{\"a\":-2147483648,\"b\":9223372036854775807,\"c\":0.1,"
+                + "\"d\":false,\"e\":null,\"f\":\"str\"}"
+            )
+        );
+    }
+
+    /**
+     * RtJsonGenerator writes a primitive value after a key and goes back to
+     * the JsonObject.
+     */
+    @Test
+    public void writesPrimitiveAfterKey() {
+        final Writer written = new StringWriter();
+        final JsonGenerator object = new RtJsonGenerator(written)
+            .writeStartObject();
+        MatcherAssert.assertThat(
+            object.writeKey("num").write(7),
+            Matchers.sameInstance(object)
+        );
+        object.flush();
+        MatcherAssert.assertThat(
+            written.toString(), Matchers.equalTo("{\"num\":7")
+        );
+    }
+
+    /**
+     * RtJsonGenerator refuses to write NaN, since it is not a JSON number.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void rejectsNan() {
+        new RtJsonGenerator(new StringWriter()).writeStartObject()
+            .write("nan", Double.NaN);
+    }
+
+    /**
+     * RtJsonGenerator does not allocate anything per written primitive. The
+     * few bytes tolerated cover one-off JVM activity on the thread, while a
+     * single object per write would add up to megabytes.
+     */
+    @Test
+    public void writesPrimitivesWithoutGarbage() {
+        final ThreadMXBean threads =
+            (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        final long thread = Thread.currentThread().getId();
+        final JsonGenerator array = new RtJsonGenerator(new NullWriter())
+            .writeStartArray();
+        final JsonGenerator object = new RtJsonGenerator(new NullWriter())
+            .writeStartObject();
+        RtJsonGeneratorTestCase.primitives(array, object, 1000);
+        final long before = threads.getThreadAllocatedBytes(thread);
+        RtJsonGeneratorTestCase.primitives(array, object, 100000);
+        final long after = threads.getThreadAllocatedBytes(thread);
+        MatcherAssert.assertThat(after - before, Matchers.lessThan(10000L));
+    }
+
+    /**
+     * Write primitives in an array and an object, several times.
+     * @param array Array generator.
+     * @param object Object generator.
+     * @param times How many times.
+     */
+    private static void primitives(
+        final JsonGenerator array, final JsonGenerator object,
+        final int times
+    ) {
+        for (int idx = 0; idx < times; ++idx) {
+            array.write(idx).write(idx * 1024L).write(idx + 0.25)
+                .write(true).writeNull();
+            object.write("int", idx).write("long", idx * 1024L)
+                .write("double", idx + 0.25).write("bool", false)
+                .writeNull("null").write("str", "value");
+        }
+    }
+
+    /**
+     * Writer which discards everything.
+     */
+    private static final class NullWriter extends Writer {
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) {
+            // discard
+        }
+
+        @Override
+        public void flush() {
+            // nothing to flush
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+
 }
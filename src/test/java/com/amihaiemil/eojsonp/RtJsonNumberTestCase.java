@@ -62,6 +62,29 @@ public final class RtJsonNumberTestCase {
         );
     }
     
+    /**
+     * RtJsonNumber is equal to any JsonNumber with the same BigDecimal value.
+     */
+    @Test
+    public void equalsOtherNumbers() {
+        MatcherAssert.assertThat(
+            new RtJsonNumber("123"),
+            Matchers.<Object>equalTo(new IntJsonNumber(123))
+        );
+        MatcherAssert.assertThat(
+            new RtJsonNumber("123"),
+            Matchers.not(Matchers.<Object>equalTo(new RtJsonNumber("123.0")))
+        );
+        MatcherAssert.assertThat(
+            new RtJsonNumber("123"),
+            Matchers.not(Matchers.<Object>equalTo(null))
+        );
+        MatcherAssert.assertThat(
+            new RtJsonNumber("9223372036854775807").hashCode(),
+            Matchers.equalTo(new LongJsonNumber(Long.MAX_VALUE).hashCode())
+        );
+    }
+
     /**
      * RtJsonNumber can print itself.
      */
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonObjectBuilder}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonObjectBuilderTestCase {
+
+    /**
+     * RtJsonObjectBuilder builds a JsonObject with all kinds of values.
+     */
+    @Test
+    public void buildsObject() {
+        final JsonObject obj = new RtJsonObjectBuilder()
+            .add("str", "text")
+            .add("int", 1)
+            .add("long", 2L)
+            .add("double", 1.5)
+            .add("big", BigInteger.TEN)
+            .add("dec", new BigDecimal("0.25"))
+            .add("bool", false)
+            .addNull("nil")
+            .add("obj", new RtJsonObjectBuilder().add("in", "side"))
+            .build();
+        MatcherAssert.assertThat(
+            obj.toString(),
+            Matchers.equalTo(
+                "{\"str\":\"text\",\"int\":1,\"long\":2,\"double\":1.5,"
+                + "\"big\":10,\"dec\":0.25,\"bool\":false,\"nil\":null,"
+                + "\"obj\":{\"in\":\"side\"}}"
+            )
+        );
+    }
+
+    /**
+     * RtJsonObjectBuilder replaces the value of a key added again, keeping
+     * its position.
+     */
+    @Test
+    public void replacesValues() {
+        final JsonObject obj = new RtJsonObjectBuilder()
+            .add("a", 1).add("b", 2).add("a", 3).build();
+        MatcherAssert.assertThat(
+            obj.toString(), Matchers.equalTo("{\"a\":3,\"b\":2}")
+        );
+    }
+
+    /**
+     * RtJsonObjectBuilder is empty after build, while the built JsonObject
+     * does not change.
+     */
+    @Test
+    public void isEmptyAfterBuild() {
+        final JsonObjectBuilder builder = new RtJsonObjectBuilder();
+        final JsonObject first = builder.add("a", 1).build();
+        final JsonObject second = builder.add("b", 2).build();
+        MatcherAssert.assertThat(
+            first.toString(), Matchers.equalTo("{\"a\":1}")
+        );
+        MatcherAssert.assertThat(
+            second.toString(), Matchers.equalTo("{\"b\":2}")
+        );
+    }
+
+    /**
+     * RtJsonObjectBuilder complains about null names.
+     */
+    @Test(expected = NullPointerException.class)
+    public void complainsAboutNullName() {
+        new RtJsonObjectBuilder().add(null, 1);
+    }
+
+    /**
+     * RtJsonObjectBuilder complains about null values.
+     */
+    @Test(expected = NullPointerException.class)
+    public void complainsAboutNullValue() {
+        new RtJsonObjectBuilder().add("a", (String) null);
+    }
+}
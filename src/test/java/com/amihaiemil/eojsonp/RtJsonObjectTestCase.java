@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.util.Collections;
+import java.util.Map;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonObject}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonObjectTestCase {
+
+    /**
+     * RtJsonObject returns its values, or the fallbacks for missing keys
+     * and values of other types.
+     */
+    @Test
+    public void returnsValues() {
+        final JsonObject obj = RtJsonObjectTestCase.sample();
+        MatcherAssert.assertThat(obj.getString("str"), Matchers.equalTo("v"));
+        MatcherAssert.assertThat(obj.getInt("num"), Matchers.equalTo(7));
+        MatcherAssert.assertThat(obj.getBoolean("yes"), Matchers.is(true));
+        MatcherAssert.assertThat(obj.isNull("nil"), Matchers.is(true));
+        MatcherAssert.assertThat(
+            obj.getString("num", "none"), Matchers.equalTo("none")
+        );
+        MatcherAssert.assertThat(
+            obj.getInt("missing", -1), Matchers.equalTo(-1)
+        );
+        MatcherAssert.assertThat(
+            obj.getBoolean("str", false), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            obj.getValueType(), Matchers.is(JsonValue.ValueType.OBJECT)
+        );
+    }
+
+    /**
+     * RtJsonObject complains about missing keys.
+     */
+    @Test(expected = NullPointerException.class)
+    public void complainsAboutMissingKey() {
+        RtJsonObjectTestCase.sample().getString("missing");
+    }
+
+    /**
+     * RtJsonObject complains about values of other types.
+     */
+    @Test(expected = ClassCastException.class)
+    public void complainsAboutOtherTypes() {
+        RtJsonObjectTestCase.sample().getBoolean("num");
+    }
+
+    /**
+     * RtJsonObject cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void isImmutable() {
+        RtJsonObjectTestCase.sample().put("new", JsonValue.NULL);
+    }
+
+    /**
+     * RtJsonObject is equal to any Map with the same pairs.
+     */
+    @Test
+    public void equalsOtherMaps() {
+        final Map<String, JsonValue> pairs = Collections.singletonMap(
+            "k", JsonValue.TRUE
+        );
+        final JsonObject obj = new RtJsonObjectBuilder()
+            .add("k", JsonValue.TRUE).build();
+        MatcherAssert.assertThat(obj, Matchers.equalTo(pairs));
+        MatcherAssert.assertThat(
+            obj.hashCode(), Matchers.equalTo(pairs.hashCode())
+        );
+    }
+
+    /**
+     * RtJsonObject prints itself as JSON.
+     */
+    @Test
+    public void printsJson() {
+        MatcherAssert.assertThat(
+            RtJsonObjectTestCase.sample().toString(),
+            Matchers.equalTo(
+                "{\"str\":\"v\",\"num\":7,\"yes\":true,\"nil\":null,"
+                + "\"arr\":[\"a\\\"b\",{}]}"
+            )
+        );
+    }
+
+    /**
+     * RtJsonObject finds the keys of big objects through its index,
+     * keeping their order.
+     */
+    @Test
+    public void findsKeysOfBigObjects() {
+        final RtJsonObjectBuilder builder = new RtJsonObjectBuilder();
+        for (int idx = 0; idx < 100; ++idx) {
+            builder.add("key" + idx, idx);
+        }
+        final JsonObject obj = builder.build();
+        MatcherAssert.assertThat(obj.size(), Matchers.equalTo(100));
+        for (int idx = 0; idx < 100; ++idx) {
+            MatcherAssert.assertThat(
+                obj.getInt("key" + idx), Matchers.equalTo(idx)
+            );
+        }
+        MatcherAssert.assertThat(
+            obj.containsKey("key100"), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(obj.get(null), Matchers.nullValue());
+        MatcherAssert.assertThat(
+            obj.keySet().iterator().next(), Matchers.equalTo("key0")
+        );
+    }
+
+    /**
+     * A sample JsonObject.
+     * @return JsonObject.
+     */
+    private static JsonObject sample() {
+        return new RtJsonObjectBuilder()
+            .add("str", "v")
+            .add("num", 7)
+            .add("yes", true)
+            .addNull("nil")
+            .add(
+                "arr",
+                new RtJsonArray(
+                    new RtJsonString("a\"b"),
+                    new RtJsonObjectBuilder().build()
+                )
+            )
+            .build();
+    }
+}
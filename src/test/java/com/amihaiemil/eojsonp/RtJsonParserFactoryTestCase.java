@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonParserFactory}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonParserFactoryTestCase {
+
+    /**
+     * RtJsonParserFactory reports the configuration it uses.
+     */
+    @Test
+    public void reportsConfig() {
+        MatcherAssert.assertThat(
+            new RtJsonParserFactory(
+                Collections.singletonMap(RtJsonParserFactory.POOL_SIZE, "4")
+            ).getConfigInUse(),
+            Matchers.allOf(
+                Matchers.<String, Object>hasEntry(
+                    RtJsonParserFactory.POOL_SIZE, 4
+                ),
+                Matchers.<String, Object>hasEntry(
+                    RtJsonParserFactory.BUFFER_SIZE, StreamInput.BUFFER_SIZE
+                )
+            )
+        );
+    }
+
+    /**
+     * RtJsonParserFactory complains about an invalid pool size.
+     */
+    @Test(expected = JsonException.class)
+    public void rejectsInvalidPoolSize() {
+        new RtJsonParserFactory(
+            Collections.singletonMap(RtJsonParserFactory.POOL_SIZE, "none")
+        );
+    }
+
+    /**
+     * RtJsonParserFactory creates parsers for Readers, InputStreams and
+     * InputStreams with a known charset.
+     */
+    @Test
+    public void createsParsers() {
+        final JsonParserFactory factory = new RtJsonParserFactory(null);
+        final String json = "{\"key\":\"v\u00e4lue\"}";
+        MatcherAssert.assertThat(
+            RtJsonParserFactoryTestCase.value(
+                factory.createParser(new StringReader(json))
+            ),
+            Matchers.equalTo("v\u00e4lue")
+        );
+        MatcherAssert.assertThat(
+            RtJsonParserFactoryTestCase.value(
+                factory.createParser(
+                    new ByteArrayInputStream(
+                        json.getBytes(StandardCharsets.UTF_8)
+                    )
+                )
+            ),
+            Matchers.equalTo("v\u00e4lue")
+        );
+        MatcherAssert.assertThat(
+            RtJsonParserFactoryTestCase.value(
+                factory.createParser(
+                    new ByteArrayInputStream(
+                        json.getBytes(StandardCharsets.ISO_8859_1)
+                    ),
+                    StandardCharsets.ISO_8859_1
+                )
+            ),
+            Matchers.equalTo("v\u00e4lue")
+        );
+    }
+
+    /**
+     * RtJsonParserFactory can be used by many threads at once, while its
+     * parsers share the pooled buffers.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void worksConcurrently() throws Exception {
+        final JsonParserFactory factory = new RtJsonParserFactory(
+            Collections.singletonMap(RtJsonParserFactory.POOL_SIZE, 2)
+        );
+        final ExecutorService threads = Executors.newFixedThreadPool(8);
+        final List<Future<String>> results = new ArrayList<>();
+        for (int idx = 0; idx < 400; ++idx) {
+            final String json = "{\"key\":\"value" + idx + "\"}";
+            final Callable<String> parse = () -> {
+                final JsonParser parser;
+                if (json.length() % 2 == 0) {
+                    parser = factory.createParser(new StringReader(json));
+                } else {
+                    parser = factory.createParser(
+                        new ByteArrayInputStream(
+                            json.getBytes(StandardCharsets.UTF_8)
+                        )
+                    );
+                }
+                return RtJsonParserFactoryTestCase.value(parser);
+            };
+            results.add(threads.submit(parse));
+        }
+        for (int idx = 0; idx < results.size(); ++idx) {
+            MatcherAssert.assertThat(
+                results.get(idx).get(), Matchers.equalTo("value" + idx)
+            );
+        }
+        threads.shutdown();
+    }
+
+    /**
+     * RtJsonParserFactory can parse a file by mapping it into memory.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void parsesMappedFiles() throws Exception {
+        final Path file = Files.createTempFile("eojsonp", ".json");
+        try {
+            Files.write(
+                file, "{\"key\" : \"v\u00e4lue\"}".getBytes(
+                    StandardCharsets.UTF_8
+                )
+            );
+            final JsonParserFactory factory = new RtJsonParserFactory(
+                Collections.singletonMap(RtJsonParserFactory.MAP_SIZE, 3)
+            );
+            MatcherAssert.assertThat(
+                factory.getConfigInUse(),
+                Matchers.<String, Object>hasEntry(
+                    RtJsonParserFactory.MAP_SIZE, 3
+                )
+            );
+            MatcherAssert.assertThat(
+                RtJsonParserFactoryTestCase.value(
+                    ((RtJsonParserFactory) factory).createParser(file)
+                ),
+                Matchers.equalTo("v\u00e4lue")
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * RtJsonParserFactory can parse ByteBuffers and channels.
+     */
+    @Test
+    public void parsesBuffersAndChannels() {
+        final RtJsonParserFactory factory = new RtJsonParserFactory(null);
+        final byte[] json = "{\"key\":\"v\u00e4lue\"}".getBytes(
+            StandardCharsets.UTF_8
+        );
+        final ByteBuffer direct = ByteBuffer.allocateDirect(json.length);
+        direct.put(json);
+        direct.flip();
+        MatcherAssert.assertThat(
+            RtJsonParserFactoryTestCase.value(factory.createParser(direct)),
+            Matchers.equalTo("v\u00e4lue")
+        );
+        MatcherAssert.assertThat(
+            RtJsonParserFactoryTestCase.value(
+                factory.createParser(
+                    Channels.newChannel(new ByteArrayInputStream(json))
+                )
+            ),
+            Matchers.equalTo("v\u00e4lue")
+        );
+    }
+
+    /**
+     * RtJsonParserFactory complains about a file it cannot open.
+     */
+    @Test(expected = JsonException.class)
+    public void complainsAboutMissingFiles() {
+        new RtJsonParserFactory(null).createParser(
+            Paths.get("missing", "file.json")
+        );
+    }
+
+    /**
+     * Read the value of the only key of an object and close the parser.
+     * @param parser Parser.
+     * @return The value.
+     */
+    private static String value(final JsonParser parser) {
+        parser.next();
+        parser.next();
+        parser.next();
+        final String value = parser.getString();
+        parser.next();
+        parser.close();
+        return value;
+    }
+}
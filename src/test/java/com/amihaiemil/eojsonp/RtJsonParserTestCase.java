@@ -0,0 +1,320 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParsingException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonParser}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonParserTestCase {
+
+    /**
+     * RtJsonParser can parse a JsonObject with nested structures.
+     */
+    @Test
+    public void parsesNestedStructures() {
+        MatcherAssert.assertThat(
+            RtJsonParserTestCase.events(
+                "{\"a\": [1, \"two\", {}], \"b\": {\"c\": [true, false, null]}}"
+            ),
+            Matchers.contains(
+                Event.START_OBJECT, Event.KEY_NAME, Event.START_ARRAY,
+                Event.VALUE_NUMBER, Event.VALUE_STRING, Event.START_OBJECT,
+                Event.END_OBJECT, Event.END_ARRAY, Event.KEY_NAME,
+                Event.START_OBJECT, Event.KEY_NAME, Event.START_ARRAY,
+                Event.VALUE_TRUE, Event.VALUE_FALSE, Event.VALUE_NULL,
+                Event.END_ARRAY, Event.END_OBJECT, Event.END_OBJECT
+            )
+        );
+    }
+
+    /**
+     * RtJsonParser can parse a scalar top-level value.
+     */
+    @Test
+    public void parsesScalarValue() {
+        final JsonParser parser = new RtJsonParser(
+            new StringReader("  \"scalar\"  ")
+        );
+        MatcherAssert.assertThat(parser.hasNext(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            parser.next(), Matchers.is(Event.VALUE_STRING)
+        );
+        MatcherAssert.assertThat(parser.hasNext(), Matchers.is(false));
+        MatcherAssert.assertThat(
+            parser.getString(), Matchers.equalTo("scalar")
+        );
+    }
+
+    /**
+     * RtJsonParser returns keys, strings and numbers.
+     */
+    @Test
+    public void returnsValues() {
+        final JsonParser parser = new RtJsonParser(
+            new StringReader("{\"key\":\"va\\\"lue\",\"num\":-1.25e1}")
+        );
+        parser.next();
+        parser.next();
+        MatcherAssert.assertThat(parser.getString(), Matchers.equalTo("key"));
+        parser.next();
+        MatcherAssert.assertThat(
+            parser.getString(), Matchers.equalTo("va\"lue")
+        );
+        parser.next();
+        parser.next();
+        MatcherAssert.assertThat(
+            parser.getString(), Matchers.equalTo("-1.25e1")
+        );
+        MatcherAssert.assertThat(
+            parser.getBigDecimal(), Matchers.equalTo(new BigDecimal("-12.5"))
+        );
+        MatcherAssert.assertThat(parser.getInt(), Matchers.equalTo(-12));
+        MatcherAssert.assertThat(parser.getLong(), Matchers.equalTo(-12L));
+        MatcherAssert.assertThat(
+            parser.isIntegralNumber(), Matchers.is(false)
+        );
+    }
+
+    /**
+     * RtJsonParser can tell whether a number is integral.
+     */
+    @Test
+    public void tellsIntegralNumbers() {
+        final JsonParser parser = new RtJsonParser(
+            new StringReader("[123456789012, 1.0]")
+        );
+        parser.next();
+        parser.next();
+        MatcherAssert.assertThat(parser.isIntegralNumber(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            parser.getLong(), Matchers.equalTo(123456789012L)
+        );
+        parser.next();
+        MatcherAssert.assertThat(
+            parser.isIntegralNumber(), Matchers.is(false)
+        );
+    }
+
+    /**
+     * RtJsonParser reads numbers exactly like their BigDecimal would, whether
+     * they fit in a long or not.
+     */
+    @Test
+    public void readsNumbersLikeBigDecimal() {
+        final String[] numbers = {
+            "0", "-0", "7", "-2147483649", "4294967297",
+            "123456789012345678", "-923456789012345678",
+            "9223372036854775807", "99999999999999999999", "1.5", "1e3",
+            "-1.0E-2", "12.0", "1E0",
+        };
+        final StringBuilder json = new StringBuilder("[");
+        for (final String number : numbers) {
+            json.append(number).append(',');
+        }
+        json.setCharAt(json.length() - 1, ']');
+        final JsonParser parser = new RtJsonParser(
+            new StringReader(json.toString())
+        );
+        parser.next();
+        for (final String number : numbers) {
+            MatcherAssert.assertThat(
+                parser.next(), Matchers.is(Event.VALUE_NUMBER)
+            );
+            final BigDecimal expected = new BigDecimal(number);
+            MatcherAssert.assertThat(
+                parser.getBigDecimal(), Matchers.equalTo(expected)
+            );
+            MatcherAssert.assertThat(
+                parser.getInt(), Matchers.equalTo(expected.intValue())
+            );
+            MatcherAssert.assertThat(
+                parser.getLong(), Matchers.equalTo(expected.longValue())
+            );
+            MatcherAssert.assertThat(
+                parser.isIntegralNumber(),
+                Matchers.is(expected.scale() == 0)
+            );
+        }
+    }
+
+    /**
+     * RtJsonParser complains if #getString() is called in the wrong state.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void getStringComplains() {
+        final JsonParser parser = new RtJsonParser(new StringReader("[]"));
+        parser.next();
+        parser.getString();
+    }
+
+    /**
+     * RtJsonParser complains if a number is read from a String.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void getIntComplains() {
+        final JsonParser parser = new RtJsonParser(
+            new StringReader("[\"1\"]")
+        );
+        parser.next();
+        parser.next();
+        parser.getInt();
+    }
+
+    /**
+     * RtJsonParser throws NoSuchElementException when there are no more
+     * events.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void noMoreEvents() {
+        final JsonParser parser = new RtJsonParser(new StringReader("[]"));
+        parser.next();
+        parser.next();
+        parser.next();
+    }
+
+    /**
+     * RtJsonParser rejects a trailing comma in a JsonArray.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsTrailingCommaInArray() {
+        RtJsonParserTestCase.events("[1,]");
+    }
+
+    /**
+     * RtJsonParser rejects a trailing comma in a JsonObject.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsTrailingCommaInObject() {
+        RtJsonParserTestCase.events("{\"a\":1,}");
+    }
+
+    /**
+     * RtJsonParser rejects a key without a colon.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsMissingColon() {
+        RtJsonParserTestCase.events("{\"a\" 1}");
+    }
+
+    /**
+     * RtJsonParser rejects non-String keys.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsNumericKey() {
+        RtJsonParserTestCase.events("{1:1}");
+    }
+
+    /**
+     * RtJsonParser rejects unclosed structures.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsUnclosedArray() {
+        RtJsonParserTestCase.events("[1, 2");
+    }
+
+    /**
+     * RtJsonParser rejects content after the top-level value.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsTrailingContent() {
+        RtJsonParserTestCase.events("{} []");
+    }
+
+    /**
+     * RtJsonParser rejects empty input.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsEmptyInput() {
+        RtJsonParserTestCase.events("   ");
+    }
+
+    /**
+     * RtJsonParser reports the location of a syntax error.
+     */
+    @Test
+    public void reportsErrorLocation() {
+        try {
+            RtJsonParserTestCase.events("{\n  \"a\": tru }");
+        } catch (final JsonParsingException ex) {
+            MatcherAssert.assertThat(
+                ex.getLocation().getLineNumber(), Matchers.equalTo(2L)
+            );
+            MatcherAssert.assertThat(
+                ex.getLocation().getColumnNumber(), Matchers.equalTo(11L)
+            );
+            return;
+        }
+        throw new AssertionError("JsonParsingException expected!");
+    }
+
+    /**
+     * RtJsonParser can parse deeply nested input.
+     */
+    @Test
+    public void parsesDeepNesting() {
+        final StringBuilder json = new StringBuilder();
+        for (int idx = 0; idx < 1000; ++idx) {
+            json.append('[');
+        }
+        for (int idx = 0; idx < 1000; ++idx) {
+            json.append(']');
+        }
+        MatcherAssert.assertThat(
+            RtJsonParserTestCase.events(json.toString()),
+            Matchers.hasSize(2000)
+        );
+    }
+
+    /**
+     * Parse the JSON and return all the events.
+     * @param json JSON text.
+     * @return List of events.
+     */
+    private static List<Event> events(final String json) {
+        final JsonParser parser = new RtJsonParser(new StringReader(json));
+        final List<Event> events = new ArrayList<>();
+        while (parser.hasNext()) {
+            events.add(parser.next());
+        }
+        parser.close();
+        return events;
+    }
+}
@@ -29,6 +29,10 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObjectBuilder;
 import javax.json.spi.JsonProvider;
@@ -137,5 +141,92 @@ public final class RtJsonProviderTestCase {
             )
         );
     }
-    
+
+    /**
+     * RtJsonProvider can create a configured JsonGeneratorFactory.
+     */
+    @Test
+    public void createsGeneratorFactory() {
+        final JsonProvider prov = new RtJsonProvider();
+        MatcherAssert.assertThat(
+            prov.createGeneratorFactory(
+                Collections.singletonMap(
+                    RtJsonGeneratorFactory.BUFFER_SIZE, 128
+                )
+            ).getConfigInUse(),
+            Matchers.hasEntry(RtJsonGeneratorFactory.BUFFER_SIZE, 128)
+        );
+    }
+
+    /**
+     * RtJsonProvider can create a configured JsonParserFactory.
+     */
+    @Test
+    public void createsParserFactory() {
+        final JsonProvider prov = new RtJsonProvider();
+        MatcherAssert.assertThat(
+            prov.createParserFactory(
+                Collections.singletonMap(RtJsonParserFactory.BUFFER_SIZE, 64)
+            ).getConfigInUse(),
+            Matchers.hasEntry(RtJsonParserFactory.BUFFER_SIZE, 64)
+        );
+    }
+
+    /**
+     * RtJsonProvider can create a JsonParser for a mapped file.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void createsParsersForFiles() throws Exception {
+        final Path file = Files.createTempFile("eojsonp", ".json");
+        try {
+            Files.write(file, "[1, 2]".getBytes(StandardCharsets.UTF_8));
+            final JsonParser parser = new RtJsonProvider().createParser(file);
+            MatcherAssert.assertThat(
+                parser.next(), Matchers.is(JsonParser.Event.START_ARRAY)
+            );
+            parser.next();
+            parser.next();
+            MatcherAssert.assertThat(parser.getInt(), Matchers.is(2));
+            parser.close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * RtJsonProvider can create a JsonReader from a Reader or from an
+     * InputStream.
+     */
+    @Test
+    public void createsReaders() {
+        final JsonProvider prov = new RtJsonProvider();
+        MatcherAssert.assertThat(
+            prov.createReader(new StringReader("[1]")).readArray().getInt(0),
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            prov.createReader(
+                new ByteArrayInputStream("{\"k\":2}".getBytes())
+            ).readObject().getInt("k"),
+            Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            prov.createReaderFactory(null).getConfigInUse(),
+            Matchers.hasKey(RtJsonParserFactory.POOL_SIZE)
+        );
+    }
+
+    /**
+     * RtJsonProvider can create a JsonBuilderFactory.
+     */
+    @Test
+    public void createsBuilderFactory() {
+        MatcherAssert.assertThat(
+            new RtJsonProvider().createBuilderFactory(null)
+                .createObjectBuilder().add("k", 1).build().getInt("k"),
+            Matchers.equalTo(1)
+        );
+    }
+
 }
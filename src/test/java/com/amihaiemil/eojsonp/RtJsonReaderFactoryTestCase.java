@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import javax.json.JsonValue;
+import javax.json.JsonReaderFactory;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import com.sun.management.ThreadMXBean;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonReaderFactory}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonReaderFactoryTestCase {
+
+    /**
+     * RtJsonReaderFactory creates readers for Readers and InputStreams.
+     */
+    @Test
+    public void createsReaders() {
+        final JsonReaderFactory factory = new RtJsonReaderFactory(null);
+        final String json = "{\"k\":\"\u00e9\"}";
+        MatcherAssert.assertThat(
+            factory.createReader(new StringReader(json)).readObject()
+                .getString("k"),
+            Matchers.equalTo("\u00e9")
+        );
+        MatcherAssert.assertThat(
+            factory.createReader(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))
+            ).readObject().getString("k"),
+            Matchers.equalTo("\u00e9")
+        );
+        MatcherAssert.assertThat(
+            factory.createReader(
+                new ByteArrayInputStream(
+                    json.getBytes(StandardCharsets.UTF_16LE)
+                ),
+                StandardCharsets.UTF_16LE
+            ).readObject().getString("k"),
+            Matchers.equalTo("\u00e9")
+        );
+    }
+
+    /**
+     * RtJsonReaderFactory uses the configuration of its parsers.
+     */
+    @Test
+    public void reportsParserConfig() {
+        MatcherAssert.assertThat(
+            new RtJsonReaderFactory(
+                Collections.singletonMap(RtJsonParserFactory.POOL_SIZE, 3)
+            ).getConfigInUse(),
+            Matchers.<String, Object>hasEntry(RtJsonParserFactory.POOL_SIZE, 3)
+        );
+    }
+
+    /**
+     * RtJsonReaderFactory reads an NDJSON file, line by line.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void readsLinesOfFiles() throws Exception {
+        final Path file = Files.createTempFile("eojsonp", ".ndjson");
+        try {
+            Files.write(
+                file,
+                "{\"a\": 1}\n[true]\n\n\"x\"".getBytes(
+                    StandardCharsets.UTF_8
+                )
+            );
+            MatcherAssert.assertThat(
+                new RtJsonReaderFactory(null).lines(file)
+                    .map(JsonValue::toString)
+                    .collect(Collectors.toList()),
+                Matchers.contains("{\"a\":1}", "[true]", "\"x\"")
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * RtJsonReaderFactory gives the buffers of every line back to the pool,
+     * so reading a line allocates much less than a fresh char buffer.
+     */
+    @Test
+    public void recyclesBuffersOfLines() {
+        final ThreadMXBean threads =
+            (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        final StringBuilder ndjson = new StringBuilder();
+        for (int idx = 0; idx < 2000; ++idx) {
+            ndjson.append("{\"id\": ").append(idx).append("}\n");
+        }
+        final ByteBuffer bytes = ByteBuffer.wrap(
+            ndjson.toString().getBytes(StandardCharsets.UTF_8)
+        );
+        final RtJsonReaderFactory factory = new RtJsonReaderFactory(null);
+        factory.lines(bytes).sequential().forEach(value -> { });
+        final long thread = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(thread);
+        factory.lines(bytes).sequential().forEach(value -> { });
+        final long after = threads.getThreadAllocatedBytes(thread);
+        MatcherAssert.assertThat(
+            (after - before) / 2000, Matchers.lessThan(4096L)
+        );
+    }
+
+    /**
+     * RtJsonReaderFactory gives the buffers of every element of an array
+     * back to the pool. The elements are parsed in a pool with a single
+     * thread, so all the allocations are counted.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void recyclesBuffersOfElements() throws Exception {
+        final ThreadMXBean threads =
+            (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        final StringBuilder json = new StringBuilder("[0");
+        for (int idx = 1; idx < 2000; ++idx) {
+            json.append(",{\"id\": ").append(idx).append('}');
+        }
+        final ByteBuffer bytes = ByteBuffer.wrap(
+            json.append(']').toString().getBytes(StandardCharsets.UTF_8)
+        );
+        final RtJsonReaderFactory factory = new RtJsonReaderFactory(null);
+        final ForkJoinPool single = new ForkJoinPool(1);
+        final Future<Long> allocated = single.submit(
+            () -> {
+                factory.array(bytes);
+                final long thread = Thread.currentThread().getId();
+                final long before = threads.getThreadAllocatedBytes(thread);
+                factory.array(bytes);
+                return threads.getThreadAllocatedBytes(thread) - before;
+            }
+        );
+        MatcherAssert.assertThat(
+            allocated.get() / 2000, Matchers.lessThan(4096L)
+        );
+        single.shutdown();
+    }
+
+    /**
+     * RtJsonReaderFactory reads a large array, parsing its elements in
+     * parallel, in the same order as a sequential reader.
+     */
+    @Test
+    public void readsArraysInParallel() {
+        final StringBuilder json = new StringBuilder("[");
+        for (int idx = 0; idx < 5000; ++idx) {
+            json.append("{\"id\": ").append(idx)
+                .append(", \"tags\": [\"a,]\", \"\\\"\"]},");
+        }
+        json.append("null]");
+        final byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        final RtJsonReaderFactory factory = new RtJsonReaderFactory(null);
+        MatcherAssert.assertThat(
+            factory.array(ByteBuffer.wrap(bytes)),
+            Matchers.equalTo(
+                factory.createReader(
+                    new ByteArrayInputStream(bytes)
+                ).readArray()
+            )
+        );
+    }
+}
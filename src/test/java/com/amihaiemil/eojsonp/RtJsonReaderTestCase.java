@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParsingException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RtJsonReader}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class RtJsonReaderTestCase {
+
+    /**
+     * RtJsonReader reads a JsonObject with all kinds of values.
+     */
+    @Test
+    public void readsObject() {
+        final JsonObject obj = RtJsonReaderTestCase.reader(
+            "{\"name\":\"eo\",\"age\":3,\"pi\":3.14,\"ok\":true,"
+            + "\"no\":false,\"nil\":null,\"list\":[1,{\"a\":[]}],\"x\":{}}"
+        ).readObject();
+        MatcherAssert.assertThat(obj.getString("name"), Matchers.equalTo("eo"));
+        MatcherAssert.assertThat(obj.getInt("age"), Matchers.equalTo(3));
+        MatcherAssert.assertThat(
+            obj.getJsonNumber("pi").doubleValue(), Matchers.equalTo(3.14)
+        );
+        MatcherAssert.assertThat(obj.getBoolean("ok"), Matchers.is(true));
+        MatcherAssert.assertThat(obj.getBoolean("no"), Matchers.is(false));
+        MatcherAssert.assertThat(obj.isNull("nil"), Matchers.is(true));
+        MatcherAssert.assertThat(
+            obj.getJsonArray("list").getJsonObject(1)
+                .getJsonArray("a").isEmpty(),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            obj.getJsonObject("x").isEmpty(), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            obj.keySet(),
+            Matchers.contains(
+                "name", "age", "pi", "ok", "no", "nil", "list", "x"
+            )
+        );
+    }
+
+    /**
+     * RtJsonReader reads a JsonArray from an InputStream.
+     */
+    @Test
+    public void readsArray() {
+        final JsonArray array = new RtJsonReader(
+            new RtJsonParser(
+                new ByteArrayInputStream(
+                    "[\"a\", [2], {\"k\": \"v\"}]"
+                        .getBytes(StandardCharsets.UTF_8)
+                )
+            )
+        ).readArray();
+        MatcherAssert.assertThat(array.size(), Matchers.equalTo(3));
+        MatcherAssert.assertThat(array.getString(0), Matchers.equalTo("a"));
+        MatcherAssert.assertThat(
+            array.getJsonArray(1).getInt(0), Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            array.getJsonObject(2).getString("k"), Matchers.equalTo("v")
+        );
+    }
+
+    /**
+     * RtJsonReader reads any JsonStructure or any JsonValue.
+     */
+    @Test
+    public void readsStructuresAndValues() {
+        MatcherAssert.assertThat(
+            RtJsonReaderTestCase.reader("[]").read().getValueType(),
+            Matchers.is(JsonValue.ValueType.ARRAY)
+        );
+        MatcherAssert.assertThat(
+            RtJsonReaderTestCase.reader("{}").read().getValueType(),
+            Matchers.is(JsonValue.ValueType.OBJECT)
+        );
+        MatcherAssert.assertThat(
+            RtJsonReaderTestCase.reader(" \"text\" ").readValue(),
+            Matchers.<JsonValue>equalTo(new RtJsonString("text"))
+        );
+        MatcherAssert.assertThat(
+            RtJsonReaderTestCase.reader("null").readValue(),
+            Matchers.is(JsonValue.NULL)
+        );
+    }
+
+    /**
+     * RtJsonReader complains if the input is not the expected structure.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void complainsAboutWrongStructure() {
+        RtJsonReaderTestCase.reader("[1]").readObject();
+    }
+
+    /**
+     * RtJsonReader complains if there is more after the base value.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void complainsAboutTrailingJson() {
+        RtJsonReaderTestCase.reader("{} {}").readObject();
+    }
+
+    /**
+     * RtJsonReader complains about malformed input.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void complainsAboutMalformedInput() {
+        RtJsonReaderTestCase.reader("{\"a\":[1,2}").readObject();
+    }
+
+    /**
+     * RtJsonReader can be read only once.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void readsOnlyOnce() {
+        final JsonReader reader = RtJsonReaderTestCase.reader("[]");
+        reader.readArray();
+        reader.readArray();
+    }
+
+    /**
+     * RtJsonReader cannot be read after it is closed.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void cannotReadAfterClose() {
+        final JsonReader reader = RtJsonReaderTestCase.reader("[]");
+        reader.close();
+        reader.read();
+    }
+
+    /**
+     * RtJsonReader reads deeply nested input without a StackOverflowError.
+     */
+    @Test
+    public void readsDeeplyNestedInput() {
+        final int depth = 100000;
+        final StringBuilder json = new StringBuilder();
+        for (int idx = 0; idx < depth; ++idx) {
+            json.append("[{\"k\":");
+        }
+        json.append('1');
+        for (int idx = 0; idx < depth; ++idx) {
+            json.append("}]");
+        }
+        JsonValue value = RtJsonReaderTestCase.reader(json.toString()).read();
+        for (int idx = 0; idx < depth; ++idx) {
+            value = ((JsonArray) value).getJsonObject(0).get("k");
+        }
+        MatcherAssert.assertThat(
+            value, Matchers.<JsonValue>equalTo(new RtJsonNumber("1"))
+        );
+    }
+
+    /**
+     * A reader over the given JSON.
+     * @param json JSON text.
+     * @return JsonReader.
+     */
+    private static JsonReader reader(final String json) {
+        return new RtJsonReader(new RtJsonParser(new StringReader(json)));
+    }
+}
@@ -99,6 +99,17 @@ public final class RtJsonStringTestCase {
         );
     }
 
+    /**
+     * RtJsonString escapes its value when it prints itself.
+     */
+    @Test
+    public void printsEscaped() {
+        MatcherAssert.assertThat(
+            new RtJsonString("a \"quote\"\n").toString(),
+            Matchers.equalTo("\"a \\\"quote\\\"\\n\"")
+        );
+    }
+
     /**
      * RtJsonString can compare itself to others.
      */
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Shapes}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class ShapesTestCase {
+
+    /**
+     * Shapes gives the same JsonKeys for the same keys in the same order.
+     */
+    @Test
+    public void internsSameKeys() {
+        final Shapes shapes = new Shapes(16);
+        final JsonKeys first = shapes.intern(ShapesTestCase.keys("id", "name"));
+        MatcherAssert.assertThat(
+            shapes.intern(ShapesTestCase.keys("id", "name")),
+            Matchers.sameInstance(first)
+        );
+        MatcherAssert.assertThat(
+            shapes.intern(ShapesTestCase.keys("name", "id")),
+            Matchers.not(Matchers.sameInstance(first))
+        );
+        MatcherAssert.assertThat(
+            shapes.intern(ShapesTestCase.keys("id")),
+            Matchers.not(Matchers.sameInstance(first))
+        );
+    }
+
+    /**
+     * Shapes gives a copy which does not change when the original keys
+     * do.
+     */
+    @Test
+    public void givesCopies() {
+        final JsonKeys keys = ShapesTestCase.keys("a", "b");
+        final JsonKeys shape = new Shapes(1).intern(keys);
+        keys.clear();
+        MatcherAssert.assertThat(shape.size(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(shape.find("b"), Matchers.equalTo(1));
+    }
+
+    /**
+     * Shapes does not intern the keys of big objects.
+     */
+    @Test
+    public void skipsBigObjects() {
+        final String[] names = new String[Shapes.MAX_KEYS + 1];
+        for (int idx = 0; idx < names.length; ++idx) {
+            names[idx] = "key" + idx;
+        }
+        final Shapes shapes = new Shapes(16);
+        MatcherAssert.assertThat(
+            shapes.intern(ShapesTestCase.keys(names)),
+            Matchers.not(
+                Matchers.sameInstance(
+                    shapes.intern(ShapesTestCase.keys(names))
+                )
+            )
+        );
+    }
+
+    /**
+     * JsonKeys with the given names.
+     * @param names Names.
+     * @return JsonKeys.
+     */
+    private static JsonKeys keys(final String... names) {
+        final JsonKeys keys = new JsonKeys(names.length);
+        for (final String name : names) {
+            keys.add(name);
+        }
+        return keys;
+    }
+}
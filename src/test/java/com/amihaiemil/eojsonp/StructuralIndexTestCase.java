@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.json.stream.JsonParsingException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link StructuralIndex}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class StructuralIndexTestCase {
+
+    /**
+     * StructuralIndex finds the top-level elements, ignoring the brackets
+     * and commas of nested values and Strings.
+     */
+    @Test
+    public void findsTopLevelElements() {
+        MatcherAssert.assertThat(
+            StructuralIndexTestCase.elements(
+                " [1, \"a,]\", {\"b\": [2, 3]}, [[]] ] "
+            ),
+            Matchers.contains("1", " \"a,]\"", " {\"b\": [2, 3]}", " [[]] ")
+        );
+    }
+
+    /**
+     * StructuralIndex knows escaped quotes from the ones ending Strings.
+     */
+    @Test
+    public void skipsEscapedQuotes() {
+        MatcherAssert.assertThat(
+            StructuralIndexTestCase.elements(
+                "[\"a\\\",b\", \"c\\\\\", \"\\\\\\\"]\"]"
+            ),
+            Matchers.contains(
+                "\"a\\\",b\"", " \"c\\\\\"", " \"\\\\\\\"]\""
+            )
+        );
+    }
+
+    /**
+     * StructuralIndex carries Strings and escapes over block boundaries.
+     */
+    @Test
+    public void crossesBlocks() {
+        final StringBuilder first = new StringBuilder("\"");
+        while (first.length() < 62) {
+            first.append('x');
+        }
+        first.append("\\\"],\"");
+        MatcherAssert.assertThat(
+            StructuralIndexTestCase.elements("[" + first + ",[2]]"),
+            Matchers.contains(first.toString(), "[2]")
+        );
+    }
+
+    /**
+     * StructuralIndex finds no elements in an empty array.
+     */
+    @Test
+    public void indexesEmptyArrays() {
+        MatcherAssert.assertThat(
+            StructuralIndexTestCase.elements(" [ \n ] "),
+            Matchers.empty()
+        );
+    }
+
+    /**
+     * StructuralIndex complains when the input is not one array.
+     */
+    @Test
+    public void complainsAboutOtherInputs() {
+        final String[] wrong = {
+            "{}", "", "[1, [2]", "[1]]", "[1] [2]", "[1] 2", "[\"]",
+            "[1,2}", "[{\"a\":1}}", "\u0001[1]", "[1]\u0000",
+        };
+        int failed = 0;
+        for (final String json : wrong) {
+            try {
+                StructuralIndexTestCase.elements(json);
+            } catch (final JsonParsingException ex) {
+                ++failed;
+            }
+        }
+        MatcherAssert.assertThat(failed, Matchers.is(wrong.length));
+    }
+
+    /**
+     * StructuralIndex complains when the array is closed by a brace, even
+     * after the first block.
+     */
+    @Test
+    public void complainsAboutBraceClosingArray() {
+        final StringBuilder json = new StringBuilder("[");
+        for (int idx = 0; idx < 40; ++idx) {
+            json.append("1,");
+        }
+        json.append("{\"a\":1}}");
+        try {
+            StructuralIndexTestCase.elements(json.toString());
+            MatcherAssert.assertThat("No exception thrown!", false);
+        } catch (final JsonParsingException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(),
+                Matchers.equalTo("Expected ] at offset " + (json.length() - 1)
+                    + ".")
+            );
+        }
+    }
+
+    /**
+     * StructuralIndex skips only the whitespace allowed by JSON.
+     */
+    @Test
+    public void skipsJsonWhitespace() {
+        MatcherAssert.assertThat(
+            StructuralIndexTestCase.elements(" \t\r\n[1] \t\r\n"),
+            Matchers.contains("1")
+        );
+    }
+
+    /**
+     * StructuralIndex agrees with a byte by byte scan on random arrays.
+     */
+    @Test
+    public void agreesWithScan() {
+        final Random random = new Random(2018);
+        for (int round = 0; round < 200; ++round) {
+            final List<String> values = new ArrayList<>();
+            final int size = random.nextInt(20);
+            for (int idx = 0; idx < size; ++idx) {
+                values.add(StructuralIndexTestCase.value(random, 3));
+            }
+            MatcherAssert.assertThat(
+                StructuralIndexTestCase.elements(
+                    "[" + String.join(",", values) + "]"
+                ),
+                Matchers.equalTo(values)
+            );
+        }
+    }
+
+    /**
+     * Index some JSON.
+     * @param json The JSON.
+     * @return Its top-level elements.
+     */
+    private static List<String> elements(final String json) {
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        final int[] bounds = new StructuralIndex(
+            ByteBuffer.wrap(bytes)
+        ).elements();
+        final List<String> elements = new ArrayList<>();
+        for (int idx = 0; idx < bounds.length; idx = idx + 2) {
+            elements.add(
+                new String(
+                    bytes, bounds[idx], bounds[idx + 1] - bounds[idx],
+                    StandardCharsets.UTF_8
+                )
+            );
+        }
+        return elements;
+    }
+
+    /**
+     * Random JSON value, full of characters which look structural.
+     * @param random Randomness.
+     * @param nesting How deep it may still go.
+     * @return JSON.
+     */
+    private static String value(final Random random, final int nesting) {
+        final String[] pieces = {"\\\\", "\\\"", "[", "]", ",", "{", "a", " "};
+        final StringBuilder value = new StringBuilder();
+        if (nesting > 0 && random.nextBoolean()) {
+            value.append('[');
+            final int size = random.nextInt(4);
+            for (int idx = 0; idx < size; ++idx) {
+                value.append(StructuralIndexTestCase.value(random, nesting - 1))
+                    .append(',');
+            }
+            value.append("0]");
+        } else {
+            value.append('"');
+            final int length = random.nextInt(40);
+            for (int idx = 0; idx < length; ++idx) {
+                value.append(pieces[random.nextInt(pieces.length)]);
+            }
+            value.append('"');
+        }
+        return value.toString();
+    }
+}
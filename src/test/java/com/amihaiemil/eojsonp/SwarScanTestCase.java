@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SwarScan}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class SwarScanTestCase {
+
+    /**
+     * SwarScan finds quotes, backslashes and control characters wherever
+     * they are, in heap and direct buffers of both byte orders.
+     */
+    @Test
+    public void findsSpecialBytes() {
+        final byte[] specials = {'"', '\\', 0, '\n', 0x1F};
+        for (final byte special : specials) {
+            for (int pos = 0; pos < 20; ++pos) {
+                MatcherAssert.assertThat(
+                    SwarScanTestCase.find(special, pos, ByteOrder.BIG_ENDIAN),
+                    Matchers.is(pos)
+                );
+                MatcherAssert.assertThat(
+                    SwarScanTestCase.find(
+                        special, pos, ByteOrder.LITTLE_ENDIAN
+                    ),
+                    Matchers.is(pos)
+                );
+            }
+        }
+    }
+
+    /**
+     * SwarScan does not mistake other bytes for special ones.
+     */
+    @Test
+    public void skipsOtherBytes() {
+        final byte[] bytes = new byte[256 - 34];
+        int idx = 0;
+        for (int chr = ' '; chr < 256; ++chr) {
+            if (chr != '"' && chr != '\\') {
+                bytes[idx] = (byte) chr;
+                ++idx;
+            }
+        }
+        MatcherAssert.assertThat(
+            SwarScan.special(ByteBuffer.wrap(bytes), 0, bytes.length),
+            Matchers.is(bytes.length)
+        );
+        MatcherAssert.assertThat(
+            SwarScan.special(
+                SwarScanTestCase.direct(bytes, ByteOrder.BIG_ENDIAN),
+                0, bytes.length
+            ),
+            Matchers.is(bytes.length)
+        );
+    }
+
+    /**
+     * SwarScan reads a heap buffer which starts inside its array at the
+     * indexes of the buffer, not of the array.
+     */
+    @Test
+    public void readsSlices() {
+        final ByteBuffer whole = ByteBuffer.wrap(
+            "\\abc\"defghijklmn".getBytes(StandardCharsets.UTF_8)
+        );
+        whole.position(1);
+        final ByteBuffer slice = whole.slice();
+        MatcherAssert.assertThat(slice.arrayOffset(), Matchers.is(1));
+        MatcherAssert.assertThat(
+            SwarScan.special(slice, 0, slice.limit()), Matchers.is(3)
+        );
+        MatcherAssert.assertThat(
+            SwarScan.plain(slice, 0, slice.limit()), Matchers.is(true)
+        );
+    }
+
+    /**
+     * SwarScan starts and stops where it is told.
+     */
+    @Test
+    public void respectsBounds() {
+        final ByteBuffer buf = ByteBuffer.wrap(
+            "\"abcdefghijklmnop\"".getBytes(StandardCharsets.UTF_8)
+        );
+        MatcherAssert.assertThat(
+            SwarScan.special(buf, 1, 17), Matchers.is(17)
+        );
+        MatcherAssert.assertThat(
+            SwarScan.special(buf, 1, 5), Matchers.is(5)
+        );
+    }
+
+    /**
+     * SwarScan knows plain ASCII from escapes and multi-byte sequences.
+     */
+    @Test
+    public void recognizesPlainText() {
+        MatcherAssert.assertThat(
+            SwarScanTestCase.plain("plain ASCII text, nothing else"),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            SwarScanTestCase.plain("plain ASCII text, \\n escaped"),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            SwarScanTestCase.plain("plain ASCII text, caf\u00e9"),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            SwarScanTestCase.plain("short\\"),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Find a special byte among plain ones.
+     * @param special The special byte.
+     * @param pos Where it is; it is also at the end.
+     * @param order Byte order of the buffer.
+     * @return Where SwarScan finds it.
+     */
+    private static int find(
+        final byte special, final int pos, final ByteOrder order
+    ) {
+        final byte[] bytes = new byte[20];
+        Arrays.fill(bytes, (byte) 'a');
+        bytes[pos] = special;
+        bytes[19] = special;
+        final int found = SwarScan.special(
+            ByteBuffer.wrap(bytes).order(order), 0, 20
+        );
+        MatcherAssert.assertThat(
+            SwarScan.special(SwarScanTestCase.direct(bytes, order), 0, 20),
+            Matchers.is(found)
+        );
+        return found;
+    }
+
+    /**
+     * Check some text with SwarScan.plain.
+     * @param text The text.
+     * @return True if it is plain.
+     */
+    private static boolean plain(final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        final boolean plain = SwarScan.plain(
+            ByteBuffer.wrap(bytes), 0, bytes.length
+        );
+        MatcherAssert.assertThat(
+            SwarScan.plain(
+                SwarScanTestCase.direct(bytes, ByteOrder.BIG_ENDIAN),
+                0, bytes.length
+            ),
+            Matchers.is(plain)
+        );
+        return plain;
+    }
+
+    /**
+     * Copy some bytes into a direct buffer, which has no array, so
+     * SwarScan reads it 8 bytes at a time.
+     * @param bytes The bytes.
+     * @param order Byte order of the buffer.
+     * @return Direct buffer.
+     */
+    private static ByteBuffer direct(
+        final byte[] bytes, final ByteOrder order
+    ) {
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        direct.flip();
+        return direct.order(order);
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Symbols}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class SymbolsTestCase {
+
+    /**
+     * Symbols finds a remembered key by its UTF-8 span.
+     */
+    @Test
+    public void findsKeysByBytes() {
+        final Symbols symbols = new Symbols();
+        final ByteBuffer first = SymbolsTestCase.bytes("{\"id\":1}");
+        MatcherAssert.assertThat(
+            symbols.find(first, 2, 4), Matchers.nullValue()
+        );
+        final String key = symbols.remember("id");
+        final ByteBuffer second = SymbolsTestCase.bytes("[{\"id\":2}]");
+        MatcherAssert.assertThat(
+            symbols.find(second, 3, 5), Matchers.sameInstance(key)
+        );
+        MatcherAssert.assertThat(
+            symbols.find(second, 2, 5), Matchers.nullValue()
+        );
+    }
+
+    /**
+     * Symbols finds a remembered key by its chars.
+     */
+    @Test
+    public void findsKeysByChars() {
+        final Symbols symbols = new Symbols(16);
+        final char[] chars = "{\"name\":\"nam\"}".toCharArray();
+        MatcherAssert.assertThat(
+            symbols.find(chars, 2, 6), Matchers.nullValue()
+        );
+        final String key = symbols.remember("name");
+        MatcherAssert.assertThat(
+            symbols.find(chars, 2, 6), Matchers.sameInstance(key)
+        );
+        MatcherAssert.assertThat(
+            symbols.find(chars, 9, 12), Matchers.nullValue()
+        );
+    }
+
+    /**
+     * Symbols only remembers the key of the last span it did not find.
+     */
+    @Test
+    public void remembersOnlyAfterMisses() {
+        final Symbols symbols = new Symbols(4);
+        final char[] chars = "abc".toCharArray();
+        symbols.find(chars, 0, 3);
+        symbols.remember("abc");
+        MatcherAssert.assertThat(
+            symbols.remember("xyz"), Matchers.equalTo("xyz")
+        );
+        MatcherAssert.assertThat(
+            symbols.find(chars, 0, 3), Matchers.equalTo("abc")
+        );
+    }
+
+    /**
+     * Symbols does not remember long keys.
+     */
+    @Test
+    public void skipsLongKeys() {
+        final StringBuilder key = new StringBuilder();
+        for (int idx = 0; idx <= Symbols.MAX_LENGTH; ++idx) {
+            key.append('k');
+        }
+        final char[] chars = key.toString().toCharArray();
+        final Symbols symbols = new Symbols();
+        symbols.find(chars, 0, chars.length);
+        symbols.remember(key.toString());
+        MatcherAssert.assertThat(
+            symbols.find(chars, 0, chars.length), Matchers.nullValue()
+        );
+    }
+
+    /**
+     * UTF-8 bytes of the given text, in a buffer.
+     * @param text Text.
+     * @return ByteBuffer.
+     */
+    private static ByteBuffer bytes(final String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import javax.json.stream.JsonParsingException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Utf8Lexer}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class Utf8LexerTestCase {
+
+    /**
+     * Utf8Lexer can split the input into tokens.
+     */
+    @Test
+    public void splitsTokens() {
+        final JsonLexer lexer = Utf8LexerTestCase.lexer(
+            "{\"a\" : [1, true, false, null]}", 8192
+        );
+        final JsonToken[] expected = {
+            JsonToken.BEGIN_OBJECT, JsonToken.STRING, JsonToken.COLON,
+            JsonToken.BEGIN_ARRAY, JsonToken.NUMBER, JsonToken.COMMA,
+            JsonToken.TRUE, JsonToken.COMMA, JsonToken.FALSE, JsonToken.COMMA,
+            JsonToken.NULL, JsonToken.END_ARRAY, JsonToken.END_OBJECT,
+            JsonToken.EOF,
+        };
+        for (final JsonToken token : expected) {
+            MatcherAssert.assertThat(lexer.next(), Matchers.is(token));
+        }
+    }
+
+    /**
+     * Utf8Lexer decodes multi-byte sequences and escapes, even when the
+     * token is bigger than the buffer.
+     */
+    @Test
+    public void decodesMultiByteStrings() {
+        final String text = "h\u00e9llo w\u20acrld \ud83d\ude00 \u0444";
+        final JsonLexer lexer = Utf8LexerTestCase.lexer(
+            "[\"" + text + "\\n\\u00e9\", -0.5E+3]", 3
+        );
+        lexer.next();
+        MatcherAssert.assertThat(lexer.next(), Matchers.is(JsonToken.STRING));
+        MatcherAssert.assertThat(
+            lexer.text(), Matchers.equalTo(text + "\n\u00e9")
+        );
+        lexer.next();
+        MatcherAssert.assertThat(lexer.next(), Matchers.is(JsonToken.NUMBER));
+        MatcherAssert.assertThat(lexer.text(), Matchers.equalTo("-0.5E+3"));
+        MatcherAssert.assertThat(
+            lexer.next(), Matchers.is(JsonToken.END_ARRAY)
+        );
+        MatcherAssert.assertThat(lexer.done(), Matchers.is(true));
+    }
+
+    /**
+     * Utf8Lexer finds the end of long Strings, whatever their offset from
+     * the words it scans, and copies the plain ones as they are.
+     */
+    @Test
+    public void scansLongStrings() {
+        final String text = "a log line, long enough to span a few words";
+        for (int pad = 0; pad < 9; ++pad) {
+            final StringBuilder json = new StringBuilder("[");
+            for (int idx = 0; idx < pad; ++idx) {
+                json.append(' ');
+            }
+            json.append('"').append(text).append("\",\"").append(text)
+                .append("\\t\"]");
+            final JsonLexer lexer = Utf8LexerTestCase.lexer(
+                json.toString(), 16
+            );
+            lexer.next();
+            lexer.next();
+            MatcherAssert.assertThat(lexer.text(), Matchers.equalTo(text));
+            lexer.next();
+            lexer.next();
+            MatcherAssert.assertThat(
+                lexer.text(), Matchers.equalTo(text + "\t")
+            );
+        }
+    }
+
+    /**
+     * Utf8Lexer rejects invalid UTF-8 when decoding a String.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsInvalidUtfEight() {
+        final JsonLexer lexer = new Utf8Lexer(
+            new StreamInput(
+                new ByteArrayInputStream(
+                    new byte[] {'"', (byte) 0xC3, 'a', '"'}
+                )
+            )
+        );
+        lexer.next();
+        lexer.text();
+    }
+
+    /**
+     * Utf8Lexer rejects overlong UTF-8 encodings.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsOverlongEncoding() {
+        final JsonLexer lexer = new Utf8Lexer(
+            new StreamInput(
+                new ByteArrayInputStream(
+                    new byte[] {'"', (byte) 0xE0, (byte) 0x80, (byte) 0xAF, '"'}
+                )
+            )
+        );
+        lexer.next();
+        lexer.text();
+    }
+
+    /**
+     * Utf8Lexer rejects unescaped control characters in Strings.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsControlCharacters() {
+        Utf8LexerTestCase.lexer("\"a\nb\"", 8192).next();
+    }
+
+    /**
+     * Utf8Lexer rejects invalid escapes.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsInvalidEscape() {
+        Utf8LexerTestCase.lexer("\"\\a\"", 8192).next();
+    }
+
+    /**
+     * Utf8Lexer rejects unexpected bytes.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void rejectsUnexpectedByte() {
+        Utf8LexerTestCase.lexer("\u00e9", 8192).next();
+    }
+
+    /**
+     * Utf8Lexer counts lines and byte offsets.
+     */
+    @Test
+    public void tracksLocation() {
+        final JsonLexer lexer = Utf8LexerTestCase.lexer(
+            "[\"\u00e9\",\n 1]", 2
+        );
+        lexer.next();
+        lexer.next();
+        lexer.next();
+        lexer.next();
+        MatcherAssert.assertThat(
+            lexer.location().getLineNumber(), Matchers.equalTo(2L)
+        );
+        MatcherAssert.assertThat(
+            lexer.location().getColumnNumber(), Matchers.equalTo(3L)
+        );
+        MatcherAssert.assertThat(
+            lexer.location().getStreamOffset(), Matchers.equalTo(9L)
+        );
+    }
+
+    /**
+     * Utf8Lexer gives the same instance for a key which repeats, escaped
+     * or not.
+     */
+    @Test
+    public void internsKeys() {
+        final JsonLexer lexer = Utf8LexerTestCase.lexer(
+            "[\"a\\u00e9\", \"a\\u00e9\", \"a\\u00e9\"]", 8192
+        );
+        lexer.next();
+        lexer.next();
+        final String first = lexer.key();
+        MatcherAssert.assertThat(first, Matchers.equalTo("a\u00e9"));
+        lexer.next();
+        lexer.next();
+        MatcherAssert.assertThat(lexer.text(), Matchers.equalTo(first));
+        MatcherAssert.assertThat(
+            lexer.text(), Matchers.not(Matchers.sameInstance(first))
+        );
+        lexer.next();
+        lexer.next();
+        MatcherAssert.assertThat(lexer.key(), Matchers.sameInstance(first));
+    }
+
+    /**
+     * Utf8Lexer for the given JSON.
+     * @param json JSON text, encoded as UTF-8.
+     * @param size Buffer size.
+     * @return JsonLexer.
+     */
+    private static JsonLexer lexer(final String json, final int size) {
+        return new Utf8Lexer(
+            new StreamInput(
+                new ByteArrayInputStream(
+                    json.getBytes(StandardCharsets.UTF_8)
+                ),
+                size
+            )
+        );
+    }
+}
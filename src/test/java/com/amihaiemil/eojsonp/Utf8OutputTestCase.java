@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link Utf8Output}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class Utf8OutputTestCase {
+
+    /**
+     * Utf8Output encodes ASCII, two, three and four byte chars.
+     */
+    @Test
+    public void encodesMultibyteChars() {
+        final String text = "{\"k\":\"a\u00e9\u20ac\ud83d\ude00\"}";
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Utf8Output output = new Utf8Output(out, 64);
+        output.write(text, 0, text.length());
+        output.flush();
+        MatcherAssert.assertThat(
+            out.toByteArray(),
+            Matchers.equalTo(text.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    /**
+     * Utf8Output writes unpaired surrogates as question marks.
+     */
+    @Test
+    public void replacesUnpairedSurrogates() {
+        final String text = "a\ud83db\ude00";
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Utf8Output output = new Utf8Output(out, 64);
+        output.write(text, 0, text.length());
+        output.write('\ud83d');
+        output.write('\u00e9');
+        output.close();
+        MatcherAssert.assertThat(
+            new String(out.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.equalTo("a?b??\u00e9")
+        );
+    }
+
+    /**
+     * Utf8Output can write texts bigger than its buffer.
+     */
+    @Test
+    public void writesBigTexts() {
+        final StringBuilder text = new StringBuilder();
+        for (int idx = 0; idx < 100; ++idx) {
+            text.append("ab\u00e9\u20ac\ud83d\ude00");
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Utf8Output output = new Utf8Output(out, 7);
+        output.write(text, 1, text.length());
+        output.flush();
+        MatcherAssert.assertThat(
+            new String(out.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.equalTo(text.substring(1))
+        );
+    }
+
+    /**
+     * Utf8Output hands the bytes to the stream only when the buffer is
+     * full or flushed.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void buffersBytes() throws Exception {
+        final OutputStream out = Mockito.mock(OutputStream.class);
+        final Utf8Output output = new Utf8Output(out, 4);
+        output.write("abc", 0, 3);
+        output.write('d');
+        Mockito.verify(out, Mockito.never()).write(
+            Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt()
+        );
+        output.write('e');
+        Mockito.verify(out).write(
+            Mockito.any(byte[].class), Mockito.eq(0), Mockito.eq(4)
+        );
+        output.flush();
+        Mockito.verify(out).write(
+            Mockito.any(byte[].class), Mockito.eq(0), Mockito.eq(1)
+        );
+        Mockito.verify(out).flush();
+    }
+
+    /**
+     * Utf8Output closes the OutputStream even if the last bytes cannot be
+     * written to it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void closesStreamAfterFailedWrite() throws Exception {
+        final OutputStream out = Mockito.mock(OutputStream.class);
+        Mockito.doThrow(new IOException("#write()")).when(out).write(
+            Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt()
+        );
+        final Utf8Output output = new Utf8Output(out, 16);
+        output.write('a');
+        try {
+            output.close();
+            MatcherAssert.assertThat("Expected an exception", false);
+        } catch (final IllegalStateException ex) {
+            Mockito.verify(out).close();
+        }
+    }
+
+    /**
+     * Utf8Output gives its buffer back to the pool on close.
+     */
+    @Test
+    public void givesBufferBackOnClose() {
+        final BufferPool pool = new BufferPool(16, 1);
+        final ByteBuffer buffer = pool.bytes();
+        pool.release(buffer);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Utf8Output output = new Utf8Output(out, pool);
+        output.write("\u00e9", 0, 1);
+        output.close();
+        MatcherAssert.assertThat(
+            new String(out.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.equalTo("\u00e9")
+        );
+        MatcherAssert.assertThat(pool.bytes(), Matchers.sameInstance(buffer));
+    }
+}
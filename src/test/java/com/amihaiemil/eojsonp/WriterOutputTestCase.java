@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2018, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of eo-jsonp-impl nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.amihaiemil.eojsonp;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link WriterOutput}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.1
+ */
+public final class WriterOutputTestCase {
+
+    /**
+     * WriterOutput hands the chars to the Writer only when the buffer is
+     * full or flushed.
+     */
+    @Test
+    public void buffersChars() {
+        final Writer written = new StringWriter();
+        final WriterOutput output = new WriterOutput(written, 4);
+        output.write("abcd", 1, 4);
+        output.write('e');
+        MatcherAssert.assertThat(written.toString(), Matchers.isEmptyString());
+        output.write('f');
+        MatcherAssert.assertThat(written.toString(), Matchers.equalTo("bcde"));
+        output.flush();
+        MatcherAssert.assertThat(
+            written.toString(), Matchers.equalTo("bcdef")
+        );
+    }
+
+    /**
+     * WriterOutput copies runs of Strings and of other CharSequences
+     * alike.
+     */
+    @Test
+    public void copiesRuns() {
+        final Writer written = new StringWriter();
+        final WriterOutput output = new WriterOutput(written, 16);
+        output.write("[\"abc\"", 1, 5);
+        output.write(new StringBuilder("xdefx"), 1, 4);
+        output.flush();
+        MatcherAssert.assertThat(
+            written.toString(), Matchers.equalTo("\"abcdef")
+        );
+    }
+
+    /**
+     * WriterOutput writes texts bigger than its buffer straight to the
+     * Writer, after what was buffered.
+     */
+    @Test
+    public void writesBigTexts() {
+        final Writer written = new StringWriter();
+        final WriterOutput output = new WriterOutput(written, 4);
+        output.write('[');
+        output.write("abcdefgh", 0, 8);
+        MatcherAssert.assertThat(
+            written.toString(), Matchers.equalTo("[abcdefgh")
+        );
+    }
+
+    /**
+     * WriterOutput rethrows the IOException of the Writer.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void rethrowsIoException() throws Exception {
+        final Writer writer = Mockito.mock(Writer.class);
+        Mockito.doThrow(new IOException("#write()")).when(writer).write(
+            Mockito.any(char[].class), Mockito.anyInt(), Mockito.anyInt()
+        );
+        final WriterOutput output = new WriterOutput(writer, 4);
+        output.write('a');
+        output.close();
+    }
+
+    /**
+     * WriterOutput closes the Writer even if the last chars cannot be
+     * written to it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void closesWriterAfterFailedWrite() throws Exception {
+        final Writer writer = Mockito.mock(Writer.class);
+        Mockito.doThrow(new IOException("#write()")).when(writer).write(
+            Mockito.any(char[].class), Mockito.anyInt(), Mockito.anyInt()
+        );
+        final WriterOutput output = new WriterOutput(writer, 4);
+        output.write('a');
+        try {
+            output.close();
+            MatcherAssert.assertThat("Expected an exception", false);
+        } catch (final IllegalStateException ex) {
+            Mockito.verify(writer).close();
+        }
+    }
+
+    /**
+     * WriterOutput gives its buffer back to the pool once, on close, and
+     * cannot be written to afterwards.
+     */
+    @Test
+    public void givesBufferBackOnClose() {
+        final BufferPool pool = new BufferPool(16, 2);
+        final char[] buffer = pool.chars();
+        pool.release(buffer);
+        final Writer written = new StringWriter();
+        final WriterOutput output = new WriterOutput(written, pool);
+        output.write('a');
+        output.close();
+        output.close();
+        MatcherAssert.assertThat(written.toString(), Matchers.equalTo("a"));
+        MatcherAssert.assertThat(pool.chars(), Matchers.sameInstance(buffer));
+        MatcherAssert.assertThat(
+            pool.chars(), Matchers.not(Matchers.sameInstance(buffer))
+        );
+        try {
+            output.write('b');
+            MatcherAssert.assertThat("Expected an exception", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.equalTo("The output is closed.")
+            );
+        }
+    }
+}